@@ -8,7 +8,10 @@ import com.embabel.agent.rag.service.ResultExpander.Method;
 import com.embabel.common.core.types.TextSimilaritySearchRequest;
 import com.thecookiezen.archiledger.agenticmemory.domain.UpsertMemoryRequest;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NoteFilter;
 import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
 
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
@@ -37,12 +40,26 @@ public class AgenticMemoryMcpTools {
     public List<SimilarityResult<MemoryNote>> vectorSearch(
             @ToolParam(description = "Natural language query to search for") String query,
             @ToolParam(description = "Maximum number of results to return", required = false) Integer topK,
-            @ToolParam(description = "Minimum similarity threshold (0.0 to 1.0)", required = false) Double threshold) {
+            @ToolParam(description = "Minimum similarity threshold (0.0 to 1.0)", required = false) Double threshold,
+            @ToolParam(description = "Search effort (HNSW efs): higher finds more of the true nearest notes but is slower. Omit to use the server default.", required = false) Integer efs,
+            @ToolParam(description = "Re-rank index candidates by exact distance to their stored embeddings. Omit to use the server default.", required = false) Boolean rerank,
+            @ToolParam(description = "Candidates fetched per result when re-ranking. Omit to use the server default.", required = false) Integer oversample,
+            @ToolParam(description = "Only return notes carrying at least one of these tags", required = false) List<String> anyTags,
+            @ToolParam(description = "Only return notes carrying all of these tags", required = false) List<String> allTags,
+            @ToolParam(description = "Only return notes with a timestamp at or after this ISO-8601 instant (e.g. 2026-01-01T00:00:00Z)", required = false) String from,
+            @ToolParam(description = "Only return notes with a timestamp at or before this ISO-8601 instant", required = false) String to,
+            @ToolParam(description = "Only return notes retrieved at least this many times", required = false) Integer minRetrievalCount,
+            @ToolParam(description = "Only return notes linked to or from this note ID", required = false) String linkedTo,
+            @ToolParam(description = "Keep asking the index for more candidates until topK results clear the threshold. Omit to use the server default.", required = false) Boolean adaptive) {
         
         int limit = topK != null ? topK : 10;
         double simThreshold = threshold != null ? threshold : 0.0;
+        NoteFilter filter = new NoteFilter(anyTags, allTags, from, to, minRetrievalCount,
+                linkedTo != null && !linkedTo.isBlank() ? new MemoryNoteId(linkedTo) : null);
+        VectorSearchOptions options = new VectorSearchOptions(efs != null ? efs : 0, rerank,
+                oversample != null ? oversample : 0, filter, adaptive);
         
-        return searchOperations.vectorSearch(TextSimilaritySearchRequest.create(query, simThreshold, limit), MemoryNoteRetrievable.class)
+        return searchOperations.vectorSearch(TextSimilaritySearchRequest.create(query, simThreshold, limit), MemoryNoteRetrievable.class, options)
             .stream()
             .map(m -> new SimilarityResult<MemoryNote>(m.getMatch().note(), m.getScore()))
             .toList();
@@ -13,6 +13,7 @@ import com.thecookiezen.archiledger.agenticmemory.domain.UpsertMemoryRequest;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
 import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
 import com.thecookiezen.archiledger.application.service.MemoryNoteService;
 import com.thecookiezen.archiledger.agenticmemory.rag.MemoryNoteSearchOperations;
 import com.thecookiezen.archiledger.agenticmemory.rag.MemoryNoteRetrievable;
@@ -117,22 +118,14 @@ public class AgenticMemoryAgent {
     }
 
     private void updateNeighbors(List<NeighborUpdate> updates) {
-        for (var update : updates) {
-            memoryNoteService.getNote(new MemoryNoteId(update.noteId())).ifPresent(neighbor -> {
-                var updatedNeighbor = new MemoryNote(
-                    neighbor.id(),
-                    neighbor.content(),
-                    neighbor.keywords(),
-                    update.newContext().isBlank() ? neighbor.context() : update.newContext(),
-                    update.newTags().isEmpty() ? neighbor.tags() : update.newTags(),
-                    neighbor.links(),
-                    neighbor.timestamp(),
-                    neighbor.retrievalCount(),
-                    neighbor.embedding()
-                );
-                memoryNoteService.createNote(updatedNeighbor);
-                logger.info("Updated neighbor: {}", update.noteId());
-            });
-        }
+        List<NotePatch> patches = updates.stream()
+            .map(update -> new NotePatch(
+                update.noteId(),
+                null,
+                update.newContext().isBlank() ? null : update.newContext(),
+                update.newTags().isEmpty() ? null : update.newTags()))
+            .toList();
+        var updated = memoryNoteService.patchNotes(patches);
+        logger.info("Updated neighbors: {}", updated.stream().map(MemoryNoteId::value).toList());
     }
 }
@@ -9,8 +9,10 @@ import com.embabel.common.core.types.TextSimilaritySearchRequest;
 import com.thecookiezen.archiledger.application.service.MemoryNoteService;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -22,9 +24,12 @@ public class MemoryNoteSearchOperations implements VectorSearch, ResultExpander
     private static final Logger logger = LoggerFactory.getLogger(MemoryNoteSearchOperations.class);
 
     private final MemoryNoteService memoryNoteService;
+    private final VectorSearchOptions defaultOptions;
 
-    public MemoryNoteSearchOperations(MemoryNoteService memoryNoteService) {
+    public MemoryNoteSearchOperations(MemoryNoteService memoryNoteService,
+            @Value("${agentic-memory.search.efs:0}") int efs) {
         this.memoryNoteService = memoryNoteService;
+        this.defaultOptions = VectorSearchOptions.withEfs(efs);
     }
 
     @Override
@@ -36,12 +41,22 @@ public class MemoryNoteSearchOperations implements VectorSearch, ResultExpander
     public <T extends Retrievable> List<SimilarityResult<T>> vectorSearch(
             TextSimilaritySearchRequest request,
             Class<T> clazz) {
+        return vectorSearch(request, clazz, defaultOptions);
+    }
+
+    /**
+     * Same as {@link #vectorSearch(TextSimilaritySearchRequest, Class)} with explicit search effort and re-ranking.
+     */
+    public <T extends Retrievable> List<SimilarityResult<T>> vectorSearch(
+            TextSimilaritySearchRequest request,
+            Class<T> clazz,
+            VectorSearchOptions options) {
 
         if (!clazz.isAssignableFrom(MemoryNoteRetrievable.class)) {
             return List.of();
         }
 
-        return memoryNoteService.similaritySearch(request.getQuery(), request.getTopK(), request.getSimilarityThreshold(), 0)
+        return memoryNoteService.similaritySearch(request.getQuery(), request.getTopK(), request.getSimilarityThreshold(), 0, options)
             .stream()
             .map(result -> {
                 T retrievable = clazz.cast(new MemoryNoteRetrievable(result.item()));
@@ -2,6 +2,7 @@ package com.thecookiezen.archiledger.agenticmemory.rag;
 
 import com.thecookiezen.archiledger.application.service.MemoryNoteService;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -9,7 +10,8 @@ import org.springframework.context.annotation.Configuration;
 class RagConfiguration {
 
     @Bean
-    MemoryNoteSearchOperations archiledgerSearchOperations(MemoryNoteService memoryService) {
-        return new MemoryNoteSearchOperations(memoryService);
+    MemoryNoteSearchOperations archiledgerSearchOperations(MemoryNoteService memoryService,
+            @Value("${agentic-memory.search.efs:0}") int efs) {
+        return new MemoryNoteSearchOperations(memoryService, efs);
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.thecookiezen.archiledger.benchmarks;
+
+import com.thecookiezen.archiledger.infrastructure.config.LadybugDBConfig;
+import com.thecookiezen.archiledger.infrastructure.embeddings.LadybugVectorExtensionInitializer;
+
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+@Configuration
+@Import({ LadybugDBConfig.class, LadybugVectorExtensionInitializer.class })
+@ComponentScan(basePackages = {
+        "com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb",
+        "com.thecookiezen.archiledger.infrastructure.vectorindex",
+        "com.thecookiezen.archiledger.infrastructure.lexical"
+})
+class BenchmarkContextConfig {
+}
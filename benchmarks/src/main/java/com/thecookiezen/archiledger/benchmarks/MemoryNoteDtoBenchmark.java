@@ -0,0 +1,58 @@
+package com.thecookiezen.archiledger.benchmarks;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.infrastructure.mcp.dto.MemoryNoteDto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemoryNoteDtoBenchmark {
+
+    @Param({ "0", "10", "100" })
+    public int linkCount;
+
+    private MemoryNote note;
+    private MemoryNoteDto dto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<NoteLink> links = IntStream.range(0, linkCount)
+                .mapToObj(i -> new NoteLink("target-" + i, "RELATED_TO", "link context " + i))
+                .toList();
+        note = new MemoryNote(new MemoryNoteId("note-1"), "Benchmark content", List.of("a", "b", "c"),
+                "benchmark", List.of("architecture", "decision"), links, "2026-03-04T16:00:00Z", 3, null);
+        dto = MemoryNoteDto.fromDomain(note);
+    }
+
+    @Benchmark
+    public MemoryNoteDto fromDomain() {
+        return MemoryNoteDto.fromDomain(note);
+    }
+
+    @Benchmark
+    public MemoryNote toDomain() {
+        return dto.toDomain();
+    }
+}
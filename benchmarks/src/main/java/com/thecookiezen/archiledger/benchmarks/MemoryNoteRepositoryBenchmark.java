@@ -0,0 +1,64 @@
+package com.thecookiezen.archiledger.benchmarks;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class MemoryNoteRepositoryBenchmark {
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private final SplittableRandom random = new SplittableRandom(7);
+
+        int next(SeededGraph graph) {
+            return random.nextInt(graph.noteCount);
+        }
+    }
+
+    @Benchmark
+    public MemoryNote save(SeededGraph graph, Cursor cursor) {
+        return graph.repository.save(graph.notes.get(cursor.next(graph)));
+    }
+
+    @Benchmark
+    public Optional<MemoryNote> findById(SeededGraph graph, Cursor cursor) {
+        return graph.repository.findById(new MemoryNoteId(SeededGraph.noteId(cursor.next(graph))));
+    }
+
+    @Benchmark
+    public List<MemoryNote> findByTag(SeededGraph graph, Cursor cursor) {
+        return graph.repository.findByTag(SeededGraph.tag(cursor.next(graph)));
+    }
+
+    @Benchmark
+    public List<SimilarityResult<MemoryNote>> findSimilar(SeededGraph graph, Cursor cursor) {
+        return graph.repository.findSimilar(graph.notes.get(cursor.next(graph)).embedding(), 10, 0.0, 0.0,
+                VectorSearchOptions.DEFAULT);
+    }
+
+    @Benchmark
+    public List<MemoryNote> findNotesUpward(SeededGraph graph, Cursor cursor) {
+        return graph.repository.findNotesUpward(new MemoryNoteId(SeededGraph.noteId(cursor.next(graph))), 3, 20);
+    }
+}
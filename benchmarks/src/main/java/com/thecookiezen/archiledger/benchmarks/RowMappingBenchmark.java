@@ -0,0 +1,45 @@
+package com.thecookiezen.archiledger.benchmarks;
+
+import com.thecookiezen.archiledger.domain.model.VectorMatch;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LadybugMemoryNote;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LinkProjection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+/**
+ * The row mappers registered by {@code LadybugDBConfig} are private to the configuration, so they are measured
+ * through the repository queries that use them. Each query returns every row of the seeded graph, which makes
+ * mapping the dominant cost next to the scan itself.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    @Benchmark
+    public List<LadybugMemoryNote> memoryNoteRows(SeededGraph graph) {
+        return StreamSupport.stream(graph.dbRepository.findAll().spliterator(), false).toList();
+    }
+
+    @Benchmark
+    public List<LinkProjection> linkProjectionRows(SeededGraph graph) {
+        return graph.dbRepository.findAllLinks();
+    }
+
+    @Benchmark
+    public List<VectorMatch> vectorMatchRows(SeededGraph graph) {
+        return graph.dbRepository.findNearestRaw("note_embedding_idx", graph.notes.get(0).embedding(), graph.noteCount, graph.noteCount);
+    }
+}
@@ -0,0 +1,106 @@
+package com.thecookiezen.archiledger.benchmarks;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.infrastructure.embeddings.LadybugVectorExtensionInitializer;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.LadybugMemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteDbRepository;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * In-memory LadybugDB seeded with {@code noteCount} notes arranged as a binary tree: note {@code i} links to its
+ * parent {@code (i - 1) / 2} with {@code CONTAINS}, so upward traversals have a predictable depth. Every note
+ * carries a random unit-length embedding and one of {@link #TAG_COUNT} tags. {@code backend} selects the
+ * {@code ladybugdb.vector-index.backend} that similarity search runs on.
+ */
+@State(Scope.Benchmark)
+public class SeededGraph {
+
+    static final int DIMENSIONS = 384;
+    static final int TAG_COUNT = 20;
+    private static final int SEED_BATCH = 500;
+
+    @Param({ "1000", "10000" })
+    public int noteCount;
+
+    @Param({ "ladybug" })
+    public String backend;
+
+    AnnotationConfigApplicationContext context;
+    LadybugMemoryNoteRepository repository;
+    MemoryNoteDbRepository dbRepository;
+    List<MemoryNote> notes;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(
+                new MapPropertySource("benchmark", Map.of("ladybugdb.vector-index.backend", backend)));
+        context.register(BenchmarkContextConfig.class);
+        context.refresh();
+        repository = context.getBean(LadybugMemoryNoteRepository.class);
+        dbRepository = context.getBean(MemoryNoteDbRepository.class);
+
+        SplittableRandom random = new SplittableRandom(42);
+        notes = new ArrayList<>(noteCount);
+        for (int i = 0; i < noteCount; i++) {
+            List<NoteLink> links = i == 0
+                    ? List.of()
+                    : List.of(new NoteLink(noteId((i - 1) / 2), "CONTAINS", "parent of " + noteId(i)));
+            notes.add(new MemoryNote(new MemoryNoteId(noteId(i)),
+                    "Benchmark note " + i + " about component " + (i % 97),
+                    List.of("keyword-" + (i % 13), "keyword-" + (i % 7)),
+                    "benchmark",
+                    List.of(tag(i)),
+                    links,
+                    "2026-03-04T16:00:00Z",
+                    0,
+                    randomVector(random)));
+        }
+        for (int start = 0; start < noteCount; start += SEED_BATCH) {
+            repository.saveAll(notes.subList(start, Math.min(start + SEED_BATCH, noteCount)));
+        }
+        context.getBean(LadybugVectorExtensionInitializer.class).recreateIndex();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        context.close();
+    }
+
+    static String noteId(int i) {
+        return "note-" + i;
+    }
+
+    static String tag(int i) {
+        return "tag-" + (i % TAG_COUNT);
+    }
+
+    static float[] randomVector(SplittableRandom random) {
+        float[] vector = new float[DIMENSIONS];
+        double norm = 0;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] = (float) (random.nextDouble() * 2 - 1);
+            norm += vector[d] * vector[d];
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] *= scale;
+        }
+        return vector;
+    }
+}
@@ -3,7 +3,9 @@ package com.thecookiezen.archiledger.application.service;
 import com.thecookiezen.archiledger.domain.model.LinkDefinition;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
 import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
 
 import java.util.List;
 import java.util.Map;
@@ -15,6 +17,8 @@ public interface MemoryNoteService {
 
     List<MemoryNote> createNotes(List<MemoryNote> notes);
 
+    List<MemoryNoteId> patchNotes(List<NotePatch> patches);
+
     Optional<MemoryNote> getNote(MemoryNoteId id);
 
     List<MemoryNote> getAllNotes();
@@ -39,7 +43,11 @@ public interface MemoryNoteService {
 
     Map<String, Object> readGraph();
 
-    List<SimilarityResult<MemoryNote>> similaritySearch(String query);
+    List<SimilarityResult<MemoryNote>> similaritySearch(String query, int topK, double threshold, double temperature, VectorSearchOptions options);
 
-    List<SimilarityResult<MemoryNote>> similaritySearch(String query, int topK, double threshold, double temperature);
+    /**
+     * Runs a lexical BM25 search and an embedding search in parallel and fuses their rankings with reciprocal rank
+     * fusion. Scores are fusion scores, only comparable within one result list.
+     */
+    List<SimilarityResult<MemoryNote>> hybridSearch(String query, int topK);
 }
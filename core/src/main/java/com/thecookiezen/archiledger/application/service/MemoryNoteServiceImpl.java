@@ -3,42 +3,88 @@ package com.thecookiezen.archiledger.application.service;
 import com.thecookiezen.archiledger.domain.model.LinkDefinition;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
 import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
 import com.thecookiezen.archiledger.domain.repository.EmbeddingsService;
 import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
 
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 class MemoryNoteServiceImpl implements MemoryNoteService {
 
+    private static final int MIN_HYBRID_DEPTH = 20;
+
     private final MemoryNoteRepository repository;
     private final EmbeddingsService embeddingsService;
+    private final ExecutorService hybridExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     MemoryNoteServiceImpl(MemoryNoteRepository repository, EmbeddingsService embeddingsService) {
         this.repository = repository;
         this.embeddingsService = embeddingsService;
     }
 
+    @PreDestroy
+    public void stop() {
+        hybridExecutor.shutdownNow();
+    }
+
     @Override
     public MemoryNote createNote(MemoryNote note) {
+        String storedHash = repository.findEmbeddedContentHashes(List.of(note.id())).get(note.id());
+        if (note.contentHash(embeddingsService.modelId()).equals(storedHash)) {
+            return repository.save(note.withEmbedding(null));
+        }
         float[] embedding = embeddingsService.generateEmbeddings(note);
         return repository.save(note.withEmbedding(embedding));
     }
 
     @Override
     public List<MemoryNote> createNotes(List<MemoryNote> notes) {
-        List<MemoryNote> created = new ArrayList<>();
+        if (notes.isEmpty()) {
+            return List.of();
+        }
+        String modelId = embeddingsService.modelId();
+        Map<MemoryNoteId, String> storedHashes = repository.findEmbeddedContentHashes(
+                notes.stream().map(MemoryNote::id).toList());
+        List<MemoryNote> changed = notes.stream()
+                .filter(note -> !note.contentHash(modelId).equals(storedHashes.get(note.id())))
+                .toList();
+        Iterator<float[]> embeddings = changed.isEmpty()
+                ? Collections.emptyIterator()
+                : embeddingsService.generateEmbeddings(changed).iterator();
+
+        List<MemoryNote> withEmbeddings = new ArrayList<>(notes.size());
         for (MemoryNote note : notes) {
-            created.add(createNote(note));
+            boolean unchanged = note.contentHash(modelId).equals(storedHashes.get(note.id()));
+            withEmbeddings.add(note.withEmbedding(unchanged ? null : embeddings.next()));
         }
-        return created;
+        return repository.saveAll(withEmbeddings);
+    }
+
+    @Override
+    public List<MemoryNoteId> patchNotes(List<NotePatch> patches) {
+        List<NotePatch> effective = patches.stream()
+                .filter(patch -> !patch.isEmpty())
+                .toList();
+        if (effective.isEmpty()) {
+            return List.of();
+        }
+        return repository.patchNotes(effective);
     }
 
     @Override
@@ -106,14 +152,35 @@ class MemoryNoteServiceImpl implements MemoryNoteService {
     }
 
     @Override
-    public List<SimilarityResult<MemoryNote>> similaritySearch(String query) {
+    public List<SimilarityResult<MemoryNote>> similaritySearch(String query, int topK, double threshold, double temperature, VectorSearchOptions options) {
         float[] queryEmbedding = embeddingsService.embed(query);
-        return repository.findSimilar(queryEmbedding, 10);
-    }
-
-    @Override
-    public List<SimilarityResult<MemoryNote>> similaritySearch(String query, int topK, double threshold, double temperature) {
-        float[] queryEmbedding = embeddingsService.embed(query);
-        return repository.findSimilar(queryEmbedding, topK, threshold, temperature);
+        return repository.findSimilar(queryEmbedding, topK, threshold, temperature, options);
+    }
+
+    /**
+     * Each retriever is asked for {@code max(2 * topK, 20)} results so that a note ranked just outside the top
+     * {@code topK} by one retriever can still be lifted by the other.
+     */
+    @Override
+    public List<SimilarityResult<MemoryNote>> hybridSearch(String query, int topK) {
+        int depth = Math.max(topK * 2, MIN_HYBRID_DEPTH);
+        CompletableFuture<List<SimilarityResult<MemoryNote>>> lexical = CompletableFuture.supplyAsync(
+                () -> repository.findLexical(query, depth), hybridExecutor);
+        List<SimilarityResult<MemoryNote>> semantic;
+        try {
+            semantic = repository.findSimilar(embeddingsService.embed(query), depth, 0.0, 0.0,
+                    VectorSearchOptions.DEFAULT);
+        } catch (RuntimeException e) {
+            lexical.cancel(true);
+            throw e;
+        }
+        try {
+            return ReciprocalRankFusion.fuse(List.of(lexical.join(), semantic), ReciprocalRankFusion.DEFAULT_K, topK);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 }
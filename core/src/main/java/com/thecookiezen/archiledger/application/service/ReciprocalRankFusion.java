@@ -0,0 +1,39 @@
+package com.thecookiezen.archiledger.application.service;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges rankings whose scores are not comparable, such as BM25 and cosine similarity, by rank alone: a note scores
+ * {@code sum(1 / (k + rank))} over the rankings it appears in, with ranks starting at 1.
+ */
+final class ReciprocalRankFusion {
+
+    static final int DEFAULT_K = 60;
+
+    private ReciprocalRankFusion() {
+    }
+
+    static List<SimilarityResult<MemoryNote>> fuse(List<List<SimilarityResult<MemoryNote>>> rankings, int k, int topK) {
+        Map<MemoryNoteId, MemoryNote> notes = new LinkedHashMap<>();
+        Map<MemoryNoteId, Double> scores = new LinkedHashMap<>();
+        for (List<SimilarityResult<MemoryNote>> ranking : rankings) {
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                MemoryNote note = ranking.get(rank).item();
+                notes.putIfAbsent(note.id(), note);
+                scores.merge(note.id(), 1.0 / (k + rank + 1), Double::sum);
+            }
+        }
+        List<SimilarityResult<MemoryNote>> fused = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> fused.add(new SimilarityResult<>(notes.get(id), score)));
+        fused.sort(Comparator.comparingDouble((SimilarityResult<MemoryNote> result) -> result.score()).reversed());
+        return fused.size() > topK ? fused.subList(0, topK) : fused;
+    }
+}
@@ -0,0 +1,7 @@
+package com.thecookiezen.archiledger.domain.model;
+
+/**
+ * A note whose text matches the terms of a query. Larger scores are better matches.
+ */
+public record LexicalMatch(MemoryNoteId id, double score) {
+}
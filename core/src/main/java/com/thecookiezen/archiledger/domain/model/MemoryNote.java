@@ -1,5 +1,9 @@
 package com.thecookiezen.archiledger.domain.model;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 
 public record MemoryNote(
@@ -42,4 +46,19 @@ public record MemoryNote(
     public MemoryNote withEmbedding(float[] embedding) {
         return new MemoryNote(id, content, keywords, context, tags, links, timestamp, retrievalCount, embedding);
     }
+
+    /**
+     * Hash of the content and the model that embeds it, so a stored embedding is only reused for the same text
+     * embedded by the same model.
+     */
+    public String contentHash(String embeddingModel) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(embeddingModel.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
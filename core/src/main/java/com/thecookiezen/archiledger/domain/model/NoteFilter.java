@@ -0,0 +1,54 @@
+package com.thecookiezen.archiledger.domain.model;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Metadata conditions the results of a similarity search must meet. Empty or {@code null} components do not
+ * constrain.
+ *
+ * @param anyTags           notes carrying at least one of these tags
+ * @param allTags           notes carrying all of these tags
+ * @param from              earliest note timestamp, inclusive, as an ISO-8601 instant; compared chronologically
+ * @param to                latest note timestamp, inclusive, as an ISO-8601 instant
+ * @param minRetrievalCount minimum stored retrieval count
+ * @param linkedTo          notes linked to or from this note
+ */
+public record NoteFilter(List<String> anyTags, List<String> allTags, String from, String to,
+        Integer minRetrievalCount, MemoryNoteId linkedTo) {
+
+    public static final NoteFilter NONE = new NoteFilter(null, null, null, null, null, null);
+
+    public NoteFilter {
+        anyTags = (anyTags != null) ? List.copyOf(anyTags) : List.of();
+        allTags = (allTags != null) ? List.copyOf(allTags) : List.of();
+        from = (from != null && !from.isBlank()) ? from : null;
+        to = (to != null && !to.isBlank()) ? to : null;
+        Instant fromInstant = parseBound("from", from);
+        Instant toInstant = parseBound("to", to);
+        if (fromInstant != null && toInstant != null && fromInstant.isAfter(toInstant)) {
+            throw new IllegalArgumentException("from must not be after to: " + from + " > " + to);
+        }
+        if (minRetrievalCount != null && minRetrievalCount < 0) {
+            throw new IllegalArgumentException("minRetrievalCount cannot be negative: " + minRetrievalCount);
+        }
+    }
+
+    public boolean isEmpty() {
+        return anyTags.isEmpty() && allTags.isEmpty() && from == null && to == null && minRetrievalCount == null
+                && linkedTo == null;
+    }
+
+    private static Instant parseBound(String name, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be an ISO-8601 instant such as 2026-01-01T00:00:00Z: "
+                    + value);
+        }
+    }
+}
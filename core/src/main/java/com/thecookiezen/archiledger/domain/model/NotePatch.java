@@ -0,0 +1,21 @@
+package com.thecookiezen.archiledger.domain.model;
+
+import java.util.List;
+
+public record NotePatch(MemoryNoteId id, List<String> keywords, String context, List<String> tags) {
+    public NotePatch {
+        if (id == null) {
+            throw new IllegalArgumentException("NotePatch id cannot be null");
+        }
+        keywords = (keywords != null) ? List.copyOf(keywords) : null;
+        tags = (tags != null) ? List.copyOf(tags) : null;
+    }
+
+    public NotePatch(String id, List<String> keywords, String context, List<String> tags) {
+        this(new MemoryNoteId(id), keywords, context, tags);
+    }
+
+    public boolean isEmpty() {
+        return keywords == null && context == null && tags == null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.thecookiezen.archiledger.domain.model;
+
+/**
+ * A note whose embedding is close to a query vector. Smaller distances are closer.
+ */
+public record VectorMatch(MemoryNoteId id, double distance) {
+}
@@ -0,0 +1,47 @@
+package com.thecookiezen.archiledger.domain.model;
+
+/**
+ * Per-request tuning of a similarity search.
+ *
+ * @param efs        HNSW search effort; {@code 0} uses the server default.
+ * @param rerank     whether to re-score {@code topK * oversample} index candidates exactly against their stored
+ *                   embeddings before keeping the best {@code topK}; {@code null} uses the server default.
+ * @param oversample candidates fetched per requested result when re-ranking; {@code 0} uses the server default.
+ * @param filter     metadata conditions the results must meet.
+ * @param adaptive   whether to keep asking the index for more candidates until {@code topK} results clear the
+ *                   threshold; {@code null} uses the server default.
+ */
+public record VectorSearchOptions(int efs, Boolean rerank, int oversample, NoteFilter filter, Boolean adaptive) {
+
+    public static final VectorSearchOptions DEFAULT = new VectorSearchOptions(0, null, 0);
+
+    public VectorSearchOptions {
+        if (efs < 0) {
+            throw new IllegalArgumentException("efs cannot be negative: " + efs);
+        }
+        if (oversample < 0) {
+            throw new IllegalArgumentException("oversample cannot be negative: " + oversample);
+        }
+        filter = (filter != null) ? filter : NoteFilter.NONE;
+    }
+
+    public VectorSearchOptions(int efs, Boolean rerank, int oversample) {
+        this(efs, rerank, oversample, NoteFilter.NONE, null);
+    }
+
+    public VectorSearchOptions(int efs, Boolean rerank, int oversample, NoteFilter filter) {
+        this(efs, rerank, oversample, filter, null);
+    }
+
+    public static VectorSearchOptions withEfs(int efs) {
+        return new VectorSearchOptions(efs, null, 0);
+    }
+
+    public VectorSearchOptions withFilter(NoteFilter filter) {
+        return new VectorSearchOptions(efs, rerank, oversample, filter, adaptive);
+    }
+
+    public VectorSearchOptions withAdaptive(Boolean adaptive) {
+        return new VectorSearchOptions(efs, rerank, oversample, filter, adaptive);
+    }
+}
@@ -2,9 +2,20 @@ package com.thecookiezen.archiledger.domain.repository;
 
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 
+import java.util.List;
+
 public interface EmbeddingsService {
 
     float[] generateEmbeddings(MemoryNote note);
 
+    List<float[]> generateEmbeddings(List<MemoryNote> notes);
+
     float[] embed(String text);
-}
\ No newline at end of file
+
+    List<float[]> embedAll(List<String> texts);
+
+    /**
+     * Identifies the embedding model and its output dimensions. Embeddings from different models are not comparable.
+     */
+    String modelId();
+}
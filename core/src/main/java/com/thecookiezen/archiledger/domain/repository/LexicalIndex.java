@@ -0,0 +1,28 @@
+package com.thecookiezen.archiledger.domain.repository;
+
+import com.thecookiezen.archiledger.domain.model.LexicalMatch;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Full-text index over the content, keywords and context of notes. The repository tells the index about every note
+ * it writes or deletes.
+ */
+public interface LexicalIndex {
+
+    /**
+     * @return up to {@code topK} matches ordered by decreasing score
+     */
+    List<LexicalMatch> search(String query, int topK);
+
+    void index(MemoryNote note);
+
+    default void indexAll(Collection<MemoryNote> notes) {
+        notes.forEach(this::index);
+    }
+
+    void remove(MemoryNoteId id);
+}
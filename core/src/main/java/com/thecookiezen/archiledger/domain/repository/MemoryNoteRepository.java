@@ -4,7 +4,9 @@ import com.thecookiezen.archiledger.domain.model.LinkDefinition;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
 import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
 import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
 
 import java.util.List;
 import java.util.Map;
@@ -14,8 +16,14 @@ import java.util.Set;
 public interface MemoryNoteRepository {
     MemoryNote save(MemoryNote note);
 
+    List<MemoryNote> saveAll(List<MemoryNote> notes);
+
+    List<MemoryNoteId> patchNotes(List<NotePatch> patches);
+
     Optional<MemoryNote> findById(MemoryNoteId id);
 
+    Map<MemoryNoteId, String> findEmbeddedContentHashes(List<MemoryNoteId> ids);
+
     List<MemoryNote> findAll();
 
     void delete(MemoryNoteId id);
@@ -40,7 +48,7 @@ public interface MemoryNoteRepository {
 
     void incrementRetrievalCount(MemoryNoteId id);
 
-    List<SimilarityResult<MemoryNote>> findSimilar(float[] queryEmbedding, int topK);
+    List<SimilarityResult<MemoryNote>> findSimilar(float[] queryEmbedding, int topK, double threshold, double temperature, VectorSearchOptions options);
 
-    List<SimilarityResult<MemoryNote>> findSimilar(float[] queryEmbedding, int topK, double threshold, double temperature);
+    List<SimilarityResult<MemoryNote>> findLexical(String query, int topK);
 }
@@ -0,0 +1,28 @@
+package com.thecookiezen.archiledger.domain.repository;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.VectorMatch;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nearest-neighbour index over note embeddings. The repository stores embeddings itself and tells the index about
+ * every change; backends that index the stored embeddings directly can ignore those calls.
+ */
+public interface VectorIndex {
+
+    /**
+     * @param efs search effort of approximate backends; non-positive values use the backend default
+     * @return up to {@code topK} matches ordered by increasing distance
+     */
+    List<VectorMatch> search(float[] query, int topK, int efs);
+
+    void upsert(MemoryNoteId id, float[] embedding);
+
+    default void upsertAll(Map<MemoryNoteId, float[]> embeddings) {
+        embeddings.forEach(this::upsert);
+    }
+
+    void remove(MemoryNoteId id);
+}
@@ -3,10 +3,15 @@ package com.thecookiezen.archiledger.infrastructure.config;
 import com.ladybugdb.Connection;
 import com.ladybugdb.Database;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.VectorMatch;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.SortableTimestamps;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.ContentHashProjection;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.EmbeddingCodeProjection;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.EmbeddingProjection;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LadybugMemoryNote;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LadybugNoteLink;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LinkProjection;
-import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.SimilarityResultProjection;
+import com.thecookiezen.archiledger.infrastructure.vectorindex.EmbeddingQuantization;
 import com.thecookiezen.ladybugdb.spring.config.EnableLadybugDBRepositories;
 import com.thecookiezen.ladybugdb.spring.connection.LadybugDBConnectionFactory;
 import com.thecookiezen.ladybugdb.spring.connection.PooledConnectionFactory;
@@ -19,7 +24,9 @@ import com.thecookiezen.ladybugdb.spring.transaction.LadybugDBTransactionManager
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -55,8 +62,31 @@ public class LadybugDBConfig {
     @Value("${ladybugdb.extension-dir:}")
     private String extensionDir;
 
+    @Value("${ladybugdb.embedding.quantization:none}")
+    private String embeddingQuantization;
+
+    @Value("${ladybugdb.vector-index.coarse.dimensions:0}")
+    private int coarseDimensions;
+
+    @Value("${ladybugdb.vector-index.backend:ladybug}")
+    private String vectorIndexBackend;
+
+    @Value("${ladybugdb.vector-index.rerank.enabled:false}")
+    private boolean rerankEnabled;
+
     @Bean(destroyMethod = "close")
     public Database database() {
+        if (coarseDimensions < 0 || coarseDimensions >= embeddingDimensions) {
+            throw new IllegalArgumentException("ladybugdb.vector-index.coarse.dimensions must be between 0 and "
+                    + (embeddingDimensions - 1) + ": " + coarseDimensions);
+        }
+        if (EmbeddingQuantization.parse(embeddingQuantization) == EmbeddingQuantization.INT8
+                && !"in-process".equals(vectorIndexBackend)) {
+            // the LadybugDB index and the binary scan search the float column, which int8 only keeps for re-ranking
+            throw new IllegalStateException("ladybugdb.embedding.quantization=int8 stores int8 codes that only the "
+                    + "in-process vector index searches; set ladybugdb.vector-index.backend=in-process instead of '"
+                    + vectorIndexBackend + "'");
+        }
         Database db;
         if (dataDir == null || dataDir.isBlank()) {
             logger.info("No data directory configured, creating in-memory LadybugDB database");
@@ -71,6 +101,7 @@ public class LadybugDBConfig {
                 logger.info("Creating new persistent LadybugDB database at: {}", dataDirPath.toAbsolutePath());
             } else {
                 logger.info("Loaded existing LadybugDB database from: {}", dataDirPath.toAbsolutePath());
+                migrateSchema(db);
             }
         }
 
@@ -80,14 +111,22 @@ public class LadybugDBConfig {
     private void initializeSchema(Database db) {
         try (Connection conn = new Connection(db)) {
             try (var r1 = conn.query(
-                    "CREATE NODE TABLE IF NOT EXISTS MemoryNote(id STRING PRIMARY KEY, content STRING, keywords STRING[], context STRING, tags STRING[], timestamp STRING, retrievalCount INT64)")) {
+                    "CREATE NODE TABLE IF NOT EXISTS MemoryNote(id STRING PRIMARY KEY, content STRING, keywords STRING[], context STRING, tags STRING[], timestamp STRING, timestampUtc STRING, retrievalCount INT64, contentHash STRING)")) {
                 if (!r1.isSuccess()) {
                     throw new RuntimeException("Failed to create MemoryNote table: " + r1.getErrorMessage());
                 }
                 logger.info("MemoryNote node table ready");
             }
+            EmbeddingQuantization quantization = EmbeddingQuantization.parse(embeddingQuantization);
+            String embeddingColumn = quantization.storesFullPrecision(rerankEnabled)
+                    ? ", embedding FLOAT[%d]".formatted(embeddingDimensions)
+                    : "";
+            String codeColumns = quantization == EmbeddingQuantization.INT8
+                    ? ", code INT8[], codeScale FLOAT, codeOffset FLOAT"
+                    : "";
+            String coarseColumn = coarseDimensions > 0 ? ", coarseEmbedding FLOAT[%d]".formatted(coarseDimensions) : "";
             try (var re = conn.query(
-                    "CREATE NODE TABLE IF NOT EXISTS NoteEmbedding(noteId STRING PRIMARY KEY, embedding FLOAT[%d])".formatted(embeddingDimensions))) {
+                    "CREATE NODE TABLE IF NOT EXISTS NoteEmbedding(noteId STRING PRIMARY KEY%s%s%s)".formatted(embeddingColumn, codeColumns, coarseColumn))) {
                 if (!re.isSuccess()) {
                     throw new RuntimeException("Failed to create NoteEmbedding table: " + re.getErrorMessage());
                 }
@@ -107,6 +146,7 @@ public class LadybugDBConfig {
                 }
                 logger.info("LINKED_TO relationship table ready");
             }
+            createVectorIndexMetaTable(conn);
         } catch (RuntimeException e) {
             throw e;
         } catch (Exception e) {
@@ -114,6 +154,80 @@ public class LadybugDBConfig {
         }
     }
 
+    private void migrateSchema(Database db) {
+        try (Connection conn = new Connection(db)) {
+            try (var r = conn.query("ALTER TABLE MemoryNote ADD IF NOT EXISTS contentHash STRING")) {
+                if (!r.isSuccess()) {
+                    throw new RuntimeException("Failed to add MemoryNote.contentHash: " + r.getErrorMessage());
+                }
+            }
+            try (var r = conn.query("ALTER TABLE MemoryNote ADD IF NOT EXISTS timestampUtc STRING")) {
+                if (!r.isSuccess()) {
+                    throw new RuntimeException("Failed to add MemoryNote.timestampUtc: " + r.getErrorMessage());
+                }
+            }
+            if (EmbeddingQuantization.parse(embeddingQuantization) == EmbeddingQuantization.INT8) {
+                List<String> columns = new ArrayList<>(List.of("code INT8[]", "codeScale FLOAT", "codeOffset FLOAT"));
+                if (rerankEnabled) {
+                    // a database created without re-ranking has no float column yet
+                    columns.add("embedding FLOAT[%d]".formatted(embeddingDimensions));
+                }
+                for (String column : columns) {
+                    try (var r = conn.query("ALTER TABLE NoteEmbedding ADD IF NOT EXISTS " + column)) {
+                        if (!r.isSuccess()) {
+                            throw new RuntimeException("Failed to add NoteEmbedding." + column + ": " + r.getErrorMessage());
+                        }
+                    }
+                }
+            }
+            if (coarseDimensions > 0) {
+                migrateCoarseEmbedding(conn);
+            }
+            createVectorIndexMetaTable(conn);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Schema migration failed", e);
+        }
+    }
+
+    /**
+     * Adds the coarse prefix column, which the vector index initializer fills in before indexing it. The width
+     * is part of the column type, so it cannot change once the column exists.
+     */
+    private void migrateCoarseEmbedding(Connection conn) {
+        String expectedType = "FLOAT[%d]".formatted(coarseDimensions);
+        try (var r = conn.query("ALTER TABLE NoteEmbedding ADD IF NOT EXISTS coarseEmbedding " + expectedType)) {
+            if (!r.isSuccess()) {
+                throw new RuntimeException("Failed to add NoteEmbedding.coarseEmbedding: " + r.getErrorMessage());
+            }
+        }
+        try (var r = conn.query("CALL TABLE_INFO('NoteEmbedding') WHERE name = 'coarseEmbedding' RETURN type")) {
+            if (r.isSuccess() && r.hasNext()) {
+                String type = r.getNext().getValue(0).getValue();
+                if (!expectedType.equalsIgnoreCase(type)) {
+                    throw new IllegalStateException("NoteEmbedding.coarseEmbedding is " + type
+                            + ", which does not match ladybugdb.vector-index.coarse.dimensions=" + coarseDimensions);
+                }
+            }
+        }
+    }
+
+    private void createVectorIndexMetaTable(Connection conn) {
+        try (var r = conn.query(
+                "CREATE NODE TABLE IF NOT EXISTS VectorIndexMeta(name STRING PRIMARY KEY, parameters STRING, dimensions INT64, builtAt INT64)")) {
+            if (!r.isSuccess()) {
+                throw new RuntimeException("Failed to create VectorIndexMeta table: " + r.getErrorMessage());
+            }
+        }
+        try (var r = conn.query("ALTER TABLE VectorIndexMeta ADD IF NOT EXISTS builtAt INT64")) {
+            if (!r.isSuccess()) {
+                throw new RuntimeException("Failed to add VectorIndexMeta.builtAt: " + r.getErrorMessage());
+            }
+            logger.info("VectorIndexMeta node table ready");
+        }
+    }
+
     @Bean(destroyMethod = "close")
     public LadybugDBConnectionFactory connectionFactory(Database database) {
         return new PooledConnectionFactory(database, extensionDir);
@@ -135,8 +249,11 @@ public class LadybugDBConfig {
         registry.registerDescriptor(LadybugMemoryNote.class, memoryNoteReader(), memoryNoteWriter());
         registry.registerDescriptor(LadybugNoteLink.class, noteLinkReader(), noteLinkWriter());
         registry.registerDescriptor(LinkProjection.class, linkProjectionReader(), entity -> Map.of());
-        registry.registerDescriptor(SimilarityResultProjection.class, similarityResultProjectionReader(memoryNoteReader()), entity -> Map.of());
+        registry.registerDescriptor(VectorMatch.class, vectorMatchReader(), entity -> Map.of());
         registry.registerDescriptor(MemoryNoteId.class, memoryNoteIdReader(), entity -> Map.of());
+        registry.registerDescriptor(ContentHashProjection.class, contentHashProjectionReader(), entity -> Map.of());
+        registry.registerDescriptor(EmbeddingProjection.class, embeddingProjectionReader(), entity -> Map.of());
+        registry.registerDescriptor(EmbeddingCodeProjection.class, embeddingCodeProjectionReader(), entity -> Map.of());
         return registry;
     }
 
@@ -147,6 +264,12 @@ public class LadybugDBConfig {
         };
     }
 
+    private RowMapper<ContentHashProjection> contentHashProjectionReader() {
+        return row -> new ContentHashProjection(
+                ValueMappers.asString(row.getValue("id")),
+                ValueMappers.asString(row.getValue("contentHash")));
+    }
+
     private RowMapper<LadybugMemoryNote> memoryNoteReader() {
         return row -> {
             var node = row.getNode("n");
@@ -159,6 +282,7 @@ public class LadybugDBConfig {
             note.setTimestamp(ValueMappers.asString(node.get("timestamp")));
             Integer retrievalCount = ValueMappers.asInteger(node.get("retrievalCount"));
             note.setRetrievalCount(retrievalCount != null ? retrievalCount : 0);
+            note.setContentHash(ValueMappers.asString(node.get("contentHash")));
             return note;
         };
     }
@@ -171,7 +295,9 @@ public class LadybugDBConfig {
             props.put("context", note.getContext());
             props.put("tags", note.getTags());
             props.put("timestamp", note.getTimestamp());
+            props.put("timestampUtc", SortableTimestamps.of(note.getTimestamp()));
             props.put("retrievalCount", note.getRetrievalCount());
+            props.put("contentHash", note.getContentHash());
             return props;
         };
     }
@@ -213,11 +339,79 @@ public class LadybugDBConfig {
                 ValueMappers.asString(row.getValue("context")));
     }
 
-    private RowMapper<SimilarityResultProjection> similarityResultProjectionReader(RowMapper<LadybugMemoryNote> noteReader) {
+    private RowMapper<VectorMatch> vectorMatchReader() {
         return row -> {
-            LadybugMemoryNote note = noteReader.mapRow(row);
-            Double score = ValueMappers.asDouble(row.getValue("score"));
-            return new SimilarityResultProjection(note, score != null ? score : 0.0);
+            Double distance = ValueMappers.asDouble(row.getValue("distance"));
+            return new VectorMatch(new MemoryNoteId(ValueMappers.asString(row.getValue("id"))),
+                    distance != null ? distance : 0.0);
         };
     }
+
+    private RowMapper<EmbeddingProjection> embeddingProjectionReader() {
+        return row -> new EmbeddingProjection(
+                ValueMappers.asString(row.getValue("noteId")),
+                asFloatArray(row.getValue("embedding")));
+    }
+
+    private RowMapper<EmbeddingCodeProjection> embeddingCodeProjectionReader() {
+        return row -> new EmbeddingCodeProjection(
+                ValueMappers.asString(row.getValue("noteId")),
+                asByteArray(row.getValue("code")),
+                ValueMappers.asDouble(row.getValue("codeScale")).floatValue(),
+                ValueMappers.asDouble(row.getValue("codeOffset")).floatValue());
+    }
+
+    /**
+     * Converts a {@code FLOAT[n]} column value, which the driver may return as an array or a list of numbers.
+     */
+    public static float[] asFloatArray(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof float[] floats) {
+            return floats;
+        }
+        if (value instanceof List<?> list) {
+            float[] floats = new float[list.size()];
+            for (int i = 0; i < floats.length; i++) {
+                floats[i] = ((Number) list.get(i)).floatValue();
+            }
+            return floats;
+        }
+        if (value instanceof Object[] array) {
+            float[] floats = new float[array.length];
+            for (int i = 0; i < floats.length; i++) {
+                floats[i] = ((Number) array[i]).floatValue();
+            }
+            return floats;
+        }
+        throw new IllegalStateException("Unexpected embedding value: " + value);
+    }
+
+    /**
+     * Converts an {@code INT8[]} column value, which the driver may return as an array or a list of numbers.
+     */
+    public static byte[] asByteArray(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes;
+        }
+        if (value instanceof List<?> list) {
+            byte[] bytes = new byte[list.size()];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = ((Number) list.get(i)).byteValue();
+            }
+            return bytes;
+        }
+        if (value instanceof Object[] array) {
+            byte[] bytes = new byte[array.length];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = ((Number) array[i]).byteValue();
+            }
+            return bytes;
+        }
+        throw new IllegalStateException("Unexpected embedding code value: " + value);
+    }
 }
@@ -0,0 +1,201 @@
+package com.thecookiezen.archiledger.infrastructure.embeddings;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects concurrent single-text embedding requests and runs them through the
+ * {@link EmbeddingModel} as one batch.
+ * <p>
+ * A single worker thread waits for the first request, then keeps collecting for at most
+ * {@code ladybugdb.embedding.dispatcher.window-ms} or until
+ * {@code ladybugdb.embedding.dispatcher.max-batch-size} requests are queued, whichever comes
+ * first. Queue depth and batch sizes are published to Micrometer when a registry is present.
+ */
+@Component
+public class EmbeddingBatchDispatcher implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddingBatchDispatcher.class);
+
+    private final EmbeddingModel embeddingModel;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingEmbedding> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong dispatchedBatches = new AtomicLong();
+    private final AtomicLong dispatchedRequests = new AtomicLong();
+    private final AtomicLong largestBatch = new AtomicLong();
+    private final Thread worker;
+
+    private volatile boolean running;
+    private volatile DistributionSummary batchSizeSummary;
+
+    public EmbeddingBatchDispatcher(EmbeddingModel embeddingModel,
+            @Value("${ladybugdb.embedding.dispatcher.enabled:true}") boolean enabled,
+            @Value("${ladybugdb.embedding.dispatcher.window-ms:5}") long windowMillis,
+            @Value("${ladybugdb.embedding.dispatcher.max-batch-size:32}") int maxBatchSize) {
+        if (windowMillis < 0) {
+            throw new IllegalArgumentException("Dispatcher window must not be negative: " + windowMillis);
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Dispatcher max batch size must be positive: " + maxBatchSize);
+        }
+        this.embeddingModel = embeddingModel;
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxBatchSize = maxBatchSize;
+
+        if (enabled) {
+            this.running = true;
+            this.worker = Thread.ofPlatform()
+                    .name("embedding-dispatcher")
+                    .daemon(true)
+                    .start(this::runLoop);
+            logger.info("Embedding dispatcher started with window={}ms, maxBatchSize={}", windowMillis, maxBatchSize);
+        } else {
+            this.worker = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompletableFuture<float[]> submit(String text) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Embedding dispatcher is not running"));
+        }
+        PendingEmbedding pending = new PendingEmbedding(text, new CompletableFuture<>());
+        queue.add(pending);
+        if (!running) {
+            failPending();
+        }
+        return pending.result();
+    }
+
+    public DispatcherStats stats() {
+        return new DispatcherStats(queue.size(), dispatchedBatches.get(), dispatchedRequests.get(), largestBatch.get());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("archiledger.embedding.dispatcher.queue.depth", queue, BlockingQueue::size)
+                .description("Embedding requests waiting for the next batch")
+                .register(registry);
+        FunctionCounter.builder("archiledger.embedding.dispatcher.batches", dispatchedBatches, AtomicLong::get)
+                .description("Batches sent to the embedding model")
+                .register(registry);
+        FunctionCounter.builder("archiledger.embedding.dispatcher.requests", dispatchedRequests, AtomicLong::get)
+                .description("Embedding requests served through the dispatcher")
+                .register(registry);
+        batchSizeSummary = DistributionSummary.builder("archiledger.embedding.dispatcher.batch.size")
+                .description("Number of texts per embedding model call")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failPending();
+    }
+
+    private void runLoop() {
+        List<PendingEmbedding> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                PendingEmbedding first = queue.take();
+                batch.add(first);
+                collect(batch);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                IllegalStateException stopped = new IllegalStateException("Embedding dispatcher stopped");
+                batch.forEach(pending -> pending.result().completeExceptionally(stopped));
+                if (!running) {
+                    break;
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<PendingEmbedding> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                return;
+            }
+            PendingEmbedding next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void dispatch(List<PendingEmbedding> batch) {
+        dispatchedBatches.incrementAndGet();
+        dispatchedRequests.addAndGet(batch.size());
+        largestBatch.accumulateAndGet(batch.size(), Math::max);
+        DistributionSummary summary = batchSizeSummary;
+        if (summary != null) {
+            summary.record(batch.size());
+        }
+        try {
+            List<float[]> embeddings = embeddingModel.embed(batch.stream().map(PendingEmbedding::text).toList());
+            if (embeddings.size() != batch.size()) {
+                throw new IllegalStateException("Embedding model returned " + embeddings.size()
+                        + " embeddings for " + batch.size() + " inputs");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(embeddings.get(i));
+            }
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    private void failPending() {
+        List<PendingEmbedding> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        IllegalStateException stopped = new IllegalStateException("Embedding dispatcher stopped");
+        remaining.forEach(pending -> pending.result().completeExceptionally(stopped));
+    }
+
+    public record DispatcherStats(int queueDepth, long batches, long requests, long largestBatch) {
+        public double averageBatchSize() {
+            return batches == 0 ? 0.0 : (double) requests / batches;
+        }
+    }
+
+    private record PendingEmbedding(String text, CompletableFuture<float[]> result) {
+    }
+}
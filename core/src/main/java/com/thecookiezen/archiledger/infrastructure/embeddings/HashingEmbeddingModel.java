@@ -0,0 +1,120 @@
+package com.thecookiezen.archiledger.infrastructure.embeddings;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.model.SpringAIModelProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic embedding model based on feature hashing, for benchmarks, load tests and offline use.
+ * <p>
+ * Text is split into lowercase letter/digit tokens, each token is hashed to one of the configured dimensions with a
+ * hash-derived sign, and the resulting term vector is L2-normalized. Similarity therefore only reflects shared
+ * words, not meaning, but vectors cost microseconds to compute and need no model download. Selected with
+ * {@code spring.ai.model.embedding=hashing}, which also switches off the ONNX transformers auto-configuration.
+ */
+@Component
+@ConditionalOnProperty(name = SpringAIModelProperties.EMBEDDING_MODEL, havingValue = HashingEmbeddingModel.MODEL_NAME)
+public class HashingEmbeddingModel implements EmbeddingModel {
+
+    public static final String MODEL_NAME = "hashing";
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int dimensions;
+
+    public HashingEmbeddingModel(@Value("${ladybugdb.embeddingDimensions:384}") int dimensions) {
+        if (dimensions <= 0) {
+            throw new IllegalArgumentException("Embedding dimensions must be positive: " + dimensions);
+        }
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<String> texts = request.getInstructions();
+        List<Embedding> embeddings = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            embeddings.add(new Embedding(embed(texts.get(i)), i));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        String source = text == null ? "" : text;
+        long hash = FNV_OFFSET_BASIS;
+        boolean inToken = false;
+        boolean anyToken = false;
+        for (int i = 0; i < source.length(); ) {
+            int codePoint = source.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint)) {
+                hash = (hash ^ Character.toLowerCase(codePoint)) * FNV_PRIME;
+                inToken = true;
+            } else if (inToken) {
+                addFeature(vector, hash);
+                hash = FNV_OFFSET_BASIS;
+                inToken = false;
+                anyToken = true;
+            }
+        }
+        if (inToken || !anyToken) {
+            // the trailing token, or for text without any letters or digits a single fixed feature, so the
+            // vector is never all zeros and cosine distance stays defined
+            addFeature(vector, hash);
+        }
+        normalize(vector);
+        return vector;
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(getEmbeddingContent(document));
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    private void addFeature(float[] vector, long tokenHash) {
+        long mixed = mix(tokenHash);
+        int index = (int) Long.remainderUnsigned(mixed, dimensions);
+        vector[index] += mixed < 0 ? -1f : 1f;
+    }
+
+    private static void normalize(float[] vector) {
+        double sumOfSquares = 0;
+        for (float value : vector) {
+            sumOfSquares += value * value;
+        }
+        if (sumOfSquares == 0) {
+            return;
+        }
+        float scale = (float) (1.0 / Math.sqrt(sumOfSquares));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+    }
+
+    // MurmurHash3 fmix64 finalizer, spreads FNV-1a's weak low bits across the whole word
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,33 @@
+package com.thecookiezen.archiledger.infrastructure.embeddings;
+
+import java.util.Locale;
+
+/**
+ * Build parameters of the HNSW vector index, as passed to {@code CREATE_VECTOR_INDEX}.
+ *
+ * @param mu     max degree of nodes in the upper graph
+ * @param ml     max degree of nodes in the lower graph
+ * @param pu     fraction of nodes sampled into the upper graph
+ * @param efc    candidate list size while building
+ * @param metric distance metric
+ */
+public record HnswParameters(int mu, int ml, double pu, int efc, String metric) {
+
+    public HnswParameters {
+        if (mu <= 0 || ml <= 0 || efc <= 0) {
+            throw new IllegalArgumentException("HNSW mu, ml and efc must be positive: mu=" + mu + ", ml=" + ml
+                    + ", efc=" + efc);
+        }
+        if (pu <= 0 || pu > 1) {
+            throw new IllegalArgumentException("HNSW pu must be in (0, 1]: " + pu);
+        }
+        if (metric == null || metric.isBlank()) {
+            throw new IllegalArgumentException("HNSW metric must not be blank");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "mu=%d ml=%d pu=%.2f efc=%d metric=%s", mu, ml, pu, efc, metric);
+    }
+}
@@ -1,27 +1,104 @@
 package com.thecookiezen.archiledger.infrastructure.embeddings;
 
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.repository.EmbeddingsService;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
 @Service
 public class LadybugEmbeddingsService implements EmbeddingsService {
 
     private final EmbeddingModel embeddingModel;
+    private final EmbeddingBatchDispatcher dispatcher;
+    private final QueryEmbeddingCache queryCache;
+    private final int batchSize;
+    private final String configuredModelId;
+
+    private volatile String modelId;
 
-    public LadybugEmbeddingsService(EmbeddingModel embeddingModel) {
+    public LadybugEmbeddingsService(EmbeddingModel embeddingModel, EmbeddingBatchDispatcher dispatcher,
+            QueryEmbeddingCache queryCache, @Value("${ladybugdb.embedding.batch-size:32}") int batchSize,
+            @Value("${ladybugdb.embedding.model-id:}") String configuredModelId) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Embedding batch size must be positive: " + batchSize);
+        }
         this.embeddingModel = embeddingModel;
+        this.dispatcher = dispatcher;
+        this.queryCache = queryCache;
+        this.batchSize = batchSize;
+        this.configuredModelId = configuredModelId;
     }
 
     @Override
     public float[] generateEmbeddings(MemoryNote note) {
-        return embeddingModel.embed(note.content());
+        return embedUncached(note.content());
+    }
+
+    @Override
+    public List<float[]> generateEmbeddings(List<MemoryNote> notes) {
+        return embedAll(notes.stream().map(MemoryNote::content).toList());
     }
 
     @Override
     public float[] embed(String text) {
-        return embeddingModel.embed(text);
+        return queryCache.get(text, this::embedUncached);
+    }
+
+    private float[] embedUncached(String text) {
+        if (!dispatcher.isEnabled()) {
+            return embeddingModel.embed(text);
+        }
+        try {
+            return dispatcher.submit(text).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * {@code ladybugdb.embedding.model-id}, else the model name the provider reports, else the model class, followed
+     * by the output dimensions. Determined with one embedding call on first use.
+     */
+    @Override
+    public String modelId() {
+        String id = modelId;
+        if (id == null) {
+            EmbeddingResponse response = embeddingModel.embedForResponse(List.of("model id"));
+            String reported = response.getMetadata() != null ? response.getMetadata().getModel() : null;
+            String name = !configuredModelId.isBlank() ? configuredModelId
+                    : reported != null && !reported.isBlank() ? reported
+                    : embeddingModel.getClass().getName();
+            id = name + ":" + response.getResult().getOutput().length;
+            modelId = id;
+        }
+        return id;
+    }
+
+    @Override
+    public List<float[]> embedAll(List<String> texts) {
+        if (texts.isEmpty()) {
+            return List.of();
+        }
+        List<float[]> embeddings = new ArrayList<>(texts.size());
+        for (int start = 0; start < texts.size(); start += batchSize) {
+            List<String> batch = texts.subList(start, Math.min(start + batchSize, texts.size()));
+            List<float[]> batchEmbeddings = embeddingModel.embed(batch);
+            if (batchEmbeddings.size() != batch.size()) {
+                throw new IllegalStateException("Embedding model returned " + batchEmbeddings.size()
+                        + " embeddings for " + batch.size() + " inputs");
+            }
+            embeddings.addAll(batchEmbeddings);
+        }
+        return embeddings;
     }
 }
@@ -2,24 +2,73 @@ package com.thecookiezen.archiledger.infrastructure.embeddings;
 
 import com.ladybugdb.Connection;
 import com.ladybugdb.Database;
+import com.ladybugdb.FlatTuple;
 import com.ladybugdb.QueryResult;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteDbRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.EmbeddingProjection;
 
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Loads the vector extension and owns the HNSW index on {@code NoteEmbedding}.
+ * <p>
+ * The index alternates between two names (blue/green). {@link #rebuildIndex} builds the inactive name while
+ * searches keep using the active one, switches over under a write lock and then drops the old index. Build
+ * parameters, embedding dimensions and build time of the active index are recorded in {@code VectorIndexMeta}, so a
+ * persistent index is reused across restarts and only rebuilt when they change. If a crash left rows for both names,
+ * the most recently built index wins and the other rows are deleted on startup.
+ * <p>
+ * With {@code ladybugdb.vector-index.coarse.dimensions} set, the index covers {@code coarseEmbedding}, the leading
+ * dimensions of each embedding, under the names {@code note_embedding_coarse_idx} / {@code note_embedding_coarse_idx_v2}
+ * instead of the full embeddings.
+ */
 @Component
 public class LadybugVectorExtensionInitializer {
 
     private static final Logger logger = LoggerFactory.getLogger(LadybugVectorExtensionInitializer.class);
 
-    private static final String VECTOR_INDEX_NAME = "note_embedding_idx";
+    private static final String BLUE_INDEX_NAME = "note_embedding_idx";
+    private static final String GREEN_INDEX_NAME = "note_embedding_idx_v2";
     private static final String TABLE_NAME = "NoteEmbedding";
+    private static final String COARSE_BLUE_INDEX_NAME = "note_embedding_coarse_idx";
+    private static final String COARSE_GREEN_INDEX_NAME = "note_embedding_coarse_idx_v2";
     private static final String EMBEDDING_PROPERTY = "embedding";
+    private static final String COARSE_EMBEDDING_PROPERTY = "coarseEmbedding";
+    private static final String METADATA_TABLE = "VectorIndexMeta";
+    private static final int BACKFILL_BATCH_SIZE = 1000;
 
     private final Database database;
+    private final MemoryNoteDbRepository dbRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong changesSinceBuild = new AtomicLong();
+
+    private volatile String activeIndexName;
+    private volatile HnswParameters activeParameters;
+    private volatile long indexedVectors;
 
     @Value("${ladybugdb.extension-dir:}")
     private String extensionDir;
@@ -39,26 +88,301 @@ public class LadybugVectorExtensionInitializer {
     @Value("${ladybugdb.hnsw.metric:cosine}")
     private String hnswMetric;
 
-    public LadybugVectorExtensionInitializer(Database database) {
+    @Value("${ladybugdb.embeddingDimensions:384}")
+    private int embeddingDimensions;
+
+    @Value("${ladybugdb.vector-index.backend:ladybug}")
+    private String backend;
+
+    @Value("${ladybugdb.vector-index.coarse.dimensions:0}")
+    private int coarseDimensions;
+
+    public LadybugVectorExtensionInitializer(Database database, MemoryNoteDbRepository dbRepository,
+            PlatformTransactionManager transactionManager) {
         this.database = database;
+        this.dbRepository = dbRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    /**
+     * Reuses the persisted vector index when it was built with the current HNSW parameters and embedding
+     * dimensions. An empty table gets its index synchronously, because that is cheap. Otherwise the index is rebuilt
+     * in the background: an outdated index with the right dimensions keeps serving until then, without one
+     * similarity search falls back to exact search.
+     */
     @PostConstruct
     public void initialize() {
+        HnswParameters parameters = defaultParameters();
         try (Connection conn = new Connection(database)) {
             configureExtensionDirectory(conn);
             installExtension(conn);
             loadExtension(conn);
-            createVectorIndex(conn);
+            if (!usesLadybugIndex()) {
+                logger.info("Vector index backend is '{}', not building the LadybugDB vector index", backend);
+                return;
+            }
+
+            Set<String> existing = existingIndexes(conn);
+            List<IndexMetadata> built = readMetadata(conn);
+            IndexMetadata previous = built.stream()
+                    .filter(metadata -> existing.contains(metadata.name()))
+                    // an index over the other embedding property is never reused
+                    .filter(metadata -> metadata.name().equals(blueIndexName())
+                            || metadata.name().equals(greenIndexName()))
+                    .max(IndexMetadata.BUILD_ORDER)
+                    .orElse(null);
+            for (IndexMetadata metadata : built) {
+                if (metadata != previous) {
+                    logger.info("Deleting stale metadata of vector index '{}'", metadata.name());
+                    deleteMetadata(conn, metadata.name());
+                }
+            }
+            for (String name : existing) {
+                if (isManagedIndex(name) && (previous == null || !name.equals(previous.name()))) {
+                    logger.info("Dropping leftover vector index '{}'", name);
+                    dropIndex(conn, name);
+                }
+            }
+
+            long embeddings = countEmbeddings(conn);
+            if (previous != null && previous.matches(parameters, indexedDimensions())) {
+                logger.info("Reusing vector index '{}' built with {} and {} dimensions",
+                        previous.name(), parameters, indexedDimensions());
+                activate(previous.name(), parameters, embeddings);
+                return;
+            }
+            if (embeddings == 0) {
+                recreateIndex(conn, parameters);
+                return;
+            }
+            if (previous != null && Objects.equals(previous.dimensions(), (long) indexedDimensions())) {
+                logger.info("Vector index '{}' was built with {}, serving from it until it is rebuilt with {}",
+                        previous.name(), previous.parameters(), parameters);
+                activate(previous.name(), null, embeddings);
+            } else {
+                logger.info("No usable vector index, similarity search is exact until the index is rebuilt");
+                if (previous != null) {
+                    dropIndex(conn, previous.name());
+                }
+            }
         } catch (Exception e) {
             throw new RuntimeException("Failed to initialize LadybugDB vector extension", e);
         }
+        rebuildIndexAsync();
+    }
+
+    public HnswParameters defaultParameters() {
+        return new HnswParameters(hnswMu, hnswMl, hnswPu, hnswEfc, hnswMetric);
+    }
+
+    /**
+     * Whether an HNSW index can serve queries. False only while there is no index at all.
+     */
+    public boolean isIndexReady() {
+        return activeIndexName != null;
+    }
+
+    /**
+     * Runs {@code search} with the name of the active index, or {@code null} when no index is ready. A rebuild
+     * cannot drop the index while the search runs.
+     */
+    public <T> T withActiveIndex(Function<String, T> search) {
+        indexLock.readLock().lock();
+        try {
+            return search.apply(activeIndexName);
+        } finally {
+            indexLock.readLock().unlock();
+        }
     }
 
+    /**
+     * Counts inserted, updated or deleted embeddings, which degrade the graph until the next rebuild.
+     */
+    public void recordChanges(long changes) {
+        changesSinceBuild.addAndGet(changes);
+    }
+
+    public IndexStatus status() {
+        HnswParameters parameters = activeParameters;
+        return new IndexStatus(activeIndexName, parameters == null ? null : parameters.toString(), rebuilding.get(),
+                indexedVectors, changesSinceBuild.get());
+    }
+
+    /**
+     * Drops every index and builds a fresh one synchronously. Searches are exact in the meantime.
+     */
     public void recreateIndex() {
+        recreateIndex(defaultParameters());
+    }
+
+    public synchronized void recreateIndex(HnswParameters parameters) {
+        try (Connection conn = new Connection(database)) {
+            loadExtension(conn);
+            recreateIndex(conn, parameters);
+        }
+    }
+
+    /**
+     * Builds the inactive index while searches keep using the active one, then switches over and drops the old
+     * index. Falls back to {@link #recreateIndex(HnswParameters)} when there is no active index.
+     *
+     * @return whether the new index was built and activated
+     */
+    public synchronized boolean rebuildIndex(HnswParameters parameters) {
+        String current = activeIndexName;
+        if (current == null) {
+            recreateIndex(parameters);
+            return isIndexReady();
+        }
+        String next = blueIndexName().equals(current) ? greenIndexName() : blueIndexName();
         try (Connection conn = new Connection(database)) {
             loadExtension(conn);
-            createVectorIndex(conn);
+            dropIndex(conn, next);
+            long changesBefore = changesSinceBuild.get();
+            long embeddings = countEmbeddings(conn);
+            long start = System.currentTimeMillis();
+            if (!createVectorIndex(conn, next, parameters)) {
+                return false;
+            }
+            recordParameters(conn, next, parameters);
+
+            indexLock.writeLock().lock();
+            try {
+                activeIndexName = next;
+                activeParameters = parameters;
+                indexedVectors = embeddings;
+                changesSinceBuild.addAndGet(-changesBefore);
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+            logger.info("Switched similarity search from '{}' to '{}' after {} ms", current, next,
+                    System.currentTimeMillis() - start);
+
+            dropIndex(conn, current);
+            deleteMetadata(conn, current);
+            return true;
+        }
+    }
+
+    /**
+     * Starts {@link #rebuildIndex} with the configured parameters on a background thread.
+     *
+     * @return false when a rebuild is already running, or another vector index backend is configured
+     */
+    public boolean rebuildIndexAsync() {
+        if (!usesLadybugIndex() || !rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        HnswParameters parameters = defaultParameters();
+        Thread.ofPlatform()
+                .name("vector-index-rebuild")
+                .daemon(true)
+                .start(() -> {
+                    try {
+                        rebuildIndex(parameters);
+                    } catch (RuntimeException e) {
+                        logger.error("Background rebuild of the vector index failed", e);
+                    } finally {
+                        rebuilding.set(false);
+                    }
+                });
+        return true;
+    }
+
+    private void recreateIndex(Connection conn, HnswParameters parameters) {
+        indexLock.writeLock().lock();
+        try {
+            activeIndexName = null;
+            activeParameters = null;
+            dropIndex(conn, blueIndexName());
+            dropIndex(conn, greenIndexName());
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        deleteMetadata(conn, blueIndexName());
+        deleteMetadata(conn, greenIndexName());
+
+        long changesBefore = changesSinceBuild.get();
+        long embeddings = countEmbeddings(conn);
+        if (createVectorIndex(conn, blueIndexName(), parameters)) {
+            recordParameters(conn, blueIndexName(), parameters);
+            changesSinceBuild.addAndGet(-changesBefore);
+            activate(blueIndexName(), parameters, embeddings);
+        }
+    }
+
+    private void activate(String indexName, HnswParameters parameters, long embeddings) {
+        indexedVectors = embeddings;
+        activeParameters = parameters;
+        activeIndexName = indexName;
+    }
+
+    private boolean usesLadybugIndex() {
+        return "ladybug".equals(backend);
+    }
+
+    private boolean isCoarse() {
+        return coarseDimensions > 0;
+    }
+
+    private String blueIndexName() {
+        return isCoarse() ? COARSE_BLUE_INDEX_NAME : BLUE_INDEX_NAME;
+    }
+
+    private String greenIndexName() {
+        return isCoarse() ? COARSE_GREEN_INDEX_NAME : GREEN_INDEX_NAME;
+    }
+
+    private String indexedProperty() {
+        return isCoarse() ? COARSE_EMBEDDING_PROPERTY : EMBEDDING_PROPERTY;
+    }
+
+    private int indexedDimensions() {
+        return isCoarse() ? coarseDimensions : embeddingDimensions;
+    }
+
+    private static boolean isManagedIndex(String name) {
+        return BLUE_INDEX_NAME.equals(name) || GREEN_INDEX_NAME.equals(name)
+                || COARSE_BLUE_INDEX_NAME.equals(name) || COARSE_GREEN_INDEX_NAME.equals(name);
+    }
+
+    private Set<String> existingIndexes(Connection conn) {
+        Set<String> names = new HashSet<>();
+        try (QueryResult result = conn.query("CALL SHOW_INDEXES() RETURN index_name")) {
+            if (!result.isSuccess()) {
+                logger.warn("Could not list indexes: {}", result.getErrorMessage());
+                return names;
+            }
+            while (result.hasNext()) {
+                names.add(result.getNext().getValue(0).getValue());
+            }
+        }
+        return names;
+    }
+
+    private List<IndexMetadata> readMetadata(Connection conn) {
+        List<IndexMetadata> metadata = new ArrayList<>();
+        try (QueryResult result = conn.query(
+                "MATCH (m:" + METADATA_TABLE + ") RETURN m.name, m.parameters, m.dimensions, m.builtAt")) {
+            if (!result.isSuccess()) {
+                return metadata;
+            }
+            while (result.hasNext()) {
+                FlatTuple row = result.getNext();
+                metadata.add(new IndexMetadata(row.getValue(0).getValue(), row.getValue(1).getValue(),
+                        row.getValue(2).getValue(), row.getValue(3).getValue()));
+            }
+        }
+        return metadata;
+    }
+
+    private long countEmbeddings(Connection conn) {
+        try (QueryResult result = conn.query("MATCH (e:" + TABLE_NAME + ") RETURN count(e)")) {
+            if (!result.isSuccess() || !result.hasNext()) {
+                return 0;
+            }
+            Long count = result.getNext().getValue(0).getValue();
+            return count == null ? 0 : count;
         }
     }
 
@@ -81,32 +405,79 @@ public class LadybugVectorExtensionInitializer {
         logger.info("Vector extension loaded");
     }
 
-    private void createVectorIndex(Connection conn) {
-        try {
-            executeQuery(conn, "CALL DROP_VECTOR_INDEX('" + TABLE_NAME + "', '" + VECTOR_INDEX_NAME + "')");
-            logger.info("Dropped existing vector index");
-        } catch (Exception e) {
+    private void dropIndex(Connection conn, String indexName) {
+        try (QueryResult result = conn.query(
+                "CALL DROP_VECTOR_INDEX('" + TABLE_NAME + "', '" + indexName + "')")) {
+            if (result.isSuccess()) {
+                logger.info("Dropped vector index '{}'", indexName);
+            }
+        }
+    }
+
+    private boolean createVectorIndex(Connection conn, String indexName, HnswParameters parameters) {
+        if (isCoarse()) {
+            backfillCoarseEmbeddings();
         }
+        logger.info("Creating HNSW vector index '{}' on {}.{} with {}",
+                indexName, TABLE_NAME, indexedProperty(), parameters);
 
-        logger.info("Creating HNSW vector index '{}' on {}.{} with mu={}, ml={}, pu={}, efc={}, metric={}",
-                VECTOR_INDEX_NAME, TABLE_NAME, EMBEDDING_PROPERTY, hnswMu, hnswMl, hnswPu, hnswEfc, hnswMetric);
-        
-        String indexQuery = String.format(
+        String indexQuery = String.format(Locale.ROOT,
                 "CALL CREATE_VECTOR_INDEX('%s', '%s', '%s', metric := '%s', mu := %d, ml := %d, pu := %.2f, efc := %d)",
-                TABLE_NAME, VECTOR_INDEX_NAME, EMBEDDING_PROPERTY, hnswMetric, hnswMu, hnswMl, hnswPu, hnswEfc);
-        
+                TABLE_NAME, indexName, indexedProperty(), parameters.metric(), parameters.mu(),
+                parameters.ml(), parameters.pu(), parameters.efc());
+
         try (QueryResult result = conn.query(indexQuery)) {
             if (result.isSuccess()) {
-                logger.info("Vector index '{}' created successfully with HNSW parameters", VECTOR_INDEX_NAME);
-            } else {
-                String error = result.getErrorMessage();
-                if (error != null && error.contains("already exists")) {
-                    logger.info("Vector index '{}' already exists, skipping creation", VECTOR_INDEX_NAME);
-                } else {
-                    logger.warn("Failed to create vector index '{}': {}", VECTOR_INDEX_NAME, error);
+                logger.info("Vector index '{}' created successfully with HNSW parameters", indexName);
+                return true;
+            }
+            logger.warn("Failed to create vector index '{}': {}", indexName, result.getErrorMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Re-creates embeddings stored before the coarse index was enabled together with their coarse prefix, in batches
+     * that each replace their embeddings in one transaction. The prefix is not SET in place, because the database
+     * rejects SET on a property covered by a vector index.
+     */
+    private void backfillCoarseEmbeddings() {
+        long backfilled = 0;
+        while (true) {
+            int batch = transactionTemplate.execute(status -> {
+                List<EmbeddingProjection> embeddings = dbRepository.findEmbeddingsWithoutCoarse(BACKFILL_BATCH_SIZE);
+                if (!embeddings.isEmpty()) {
+                    dbRepository.deleteEmbeddings(embeddings.stream().map(EmbeddingProjection::noteId).toList());
+                    dbRepository.saveEmbeddingsWithCoarse(embeddings.stream().map(this::toCoarseRow).toList());
                 }
+                return embeddings.size();
+            });
+            backfilled += batch;
+            if (batch < BACKFILL_BATCH_SIZE) {
+                break;
             }
         }
+        if (backfilled > 0) {
+            logger.info("Stored the coarse prefix of {} existing embeddings", backfilled);
+        }
+    }
+
+    private Map<String, Object> toCoarseRow(EmbeddingProjection embedding) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("noteId", embedding.noteId());
+        row.put("embedding", embedding.embedding());
+        row.put("coarseEmbedding", Arrays.copyOf(embedding.embedding(), coarseDimensions));
+        return row;
+    }
+
+    private void recordParameters(Connection conn, String indexName, HnswParameters parameters) {
+        executeQuery(conn, String.format(Locale.ROOT,
+                "MERGE (m:%s {name: '%s'}) SET m.parameters = '%s', m.dimensions = %d, m.builtAt = %d",
+                METADATA_TABLE, indexName, parameters, indexedDimensions(), System.currentTimeMillis()));
+    }
+
+    private void deleteMetadata(Connection conn, String indexName) {
+        executeQuery(conn, "MATCH (m:" + METADATA_TABLE + " {name: '" + indexName + "'}) DELETE m");
     }
 
     private void executeQuery(Connection conn, String cypher) {
@@ -116,4 +487,29 @@ public class LadybugVectorExtensionInitializer {
             }
         }
     }
+
+    /**
+     * @param activeIndex      name of the index searches use, {@code null} while search is exact
+     * @param parameters       build parameters of the active index, {@code null} if it predates the current ones
+     * @param rebuilding       whether a rebuild is running
+     * @param indexedVectors   embeddings at the time the active index was built
+     * @param changesSinceBuild embeddings inserted, updated or deleted since then
+     */
+    public record IndexStatus(String activeIndex, String parameters, boolean rebuilding, long indexedVectors,
+            long changesSinceBuild) {
+    }
+
+    /**
+     * @param builtAt epoch milliseconds of the build, {@code null} for rows recorded before the column existed
+     */
+    private record IndexMetadata(String name, String parameters, Long dimensions, Long builtAt) {
+
+        static final Comparator<IndexMetadata> BUILD_ORDER = Comparator
+                .comparing(IndexMetadata::builtAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(IndexMetadata::name);
+
+        boolean matches(HnswParameters current, int currentDimensions) {
+            return current.toString().equals(parameters) && Objects.equals(dimensions, (long) currentDimensions);
+        }
+    }
 }
@@ -0,0 +1,110 @@
+package com.thecookiezen.archiledger.infrastructure.embeddings;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded cache of query text to embedding, evicting by size and by time since the entry was written.
+ * <p>
+ * Keys are normalized (Unicode NFC, trimmed, whitespace runs collapsed) so trivially different spellings of
+ * the same query share an entry; the model always embeds the query as the caller wrote it. The first caller for a key
+ * runs the model on its own thread outside the cache's locks, and concurrent callers for the same key wait for its
+ * result. Cached vectors are never handed out directly; callers get a copy.
+ */
+@Component
+public class QueryEmbeddingCache implements MeterBinder {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final AsyncCache<String, float[]> cache;
+
+    public QueryEmbeddingCache(
+            @Value("${ladybugdb.embedding.query-cache.enabled:true}") boolean enabled,
+            @Value("${ladybugdb.embedding.query-cache.max-size:1000}") long maxSize,
+            @Value("${ladybugdb.embedding.query-cache.ttl-seconds:600}") long ttlSeconds) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Query cache max size must be positive: " + maxSize);
+        }
+        if (ttlSeconds <= 0) {
+            throw new IllegalArgumentException("Query cache TTL must be positive: " + ttlSeconds);
+        }
+        this.cache = enabled
+                ? Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                        .recordStats()
+                        .buildAsync()
+                : null;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public float[] get(String query, Function<String, float[]> embedder) {
+        if (cache == null) {
+            return embedder.apply(query);
+        }
+        CompletableFuture<float[]> pending = new CompletableFuture<>();
+        CompletableFuture<float[]> cached = cache.get(normalize(query), (key, executor) -> pending);
+        if (cached == pending) {
+            try {
+                pending.complete(embedder.apply(query));
+            } catch (RuntimeException e) {
+                pending.completeExceptionally(e);
+            }
+        }
+        try {
+            float[] embedding = cached.join();
+            return embedding == null ? null : embedding.clone();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.synchronous().invalidateAll();
+        }
+    }
+
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.synchronous().stats();
+    }
+
+    public long size() {
+        if (cache == null) {
+            return 0;
+        }
+        cache.synchronous().cleanUp();
+        return cache.synchronous().estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, "archiledger.query-embeddings");
+        }
+    }
+
+    static String normalize(String query) {
+        String composed = Normalizer.normalize(query, Normalizer.Form.NFC);
+        return WHITESPACE.matcher(composed.strip()).replaceAll(" ");
+    }
+}
@@ -0,0 +1,89 @@
+package com.thecookiezen.archiledger.infrastructure.embeddings;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically starts an online rebuild of the vector index once enough embeddings were inserted, updated or
+ * deleted since the last build: at least {@code min-changes}, and at least {@code churn-ratio} of the vectors that
+ * were indexed then. A non-positive ratio disables scheduled rebuilds.
+ */
+@Component
+public class VectorIndexRebuildScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(VectorIndexRebuildScheduler.class);
+
+    private final LadybugVectorExtensionInitializer vectorIndex;
+    private final double churnRatio;
+    private final long minChanges;
+    private final long checkIntervalMillis;
+
+    private ScheduledExecutorService scheduler;
+
+    public VectorIndexRebuildScheduler(LadybugVectorExtensionInitializer vectorIndex,
+            @Value("${ladybugdb.hnsw.rebuild.churn-ratio:0.2}") double churnRatio,
+            @Value("${ladybugdb.hnsw.rebuild.min-changes:1000}") long minChanges,
+            @Value("${ladybugdb.hnsw.rebuild.check-interval-ms:60000}") long checkIntervalMillis) {
+        if (checkIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Vector index rebuild check interval must be positive: " + checkIntervalMillis);
+        }
+        this.vectorIndex = vectorIndex;
+        this.churnRatio = churnRatio;
+        this.minChanges = minChanges;
+        this.checkIntervalMillis = checkIntervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (churnRatio <= 0) {
+            logger.info("Scheduled vector index rebuilds are disabled");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> Thread.ofPlatform()
+                .name("vector-index-churn-check")
+                .daemon(true)
+                .unstarted(runnable));
+        scheduler.scheduleWithFixedDelay(this::checkQuietly, checkIntervalMillis, checkIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * @return whether a rebuild was started
+     */
+    public boolean check() {
+        LadybugVectorExtensionInitializer.IndexStatus status = vectorIndex.status();
+        if (status.rebuilding() || !shouldRebuild(status.changesSinceBuild(), status.indexedVectors())) {
+            return false;
+        }
+        logger.info("{} embedding changes since the vector index was built over {} vectors, rebuilding it",
+                status.changesSinceBuild(), status.indexedVectors());
+        return vectorIndex.rebuildIndexAsync();
+    }
+
+    boolean shouldRebuild(long changes, long indexedVectors) {
+        return churnRatio > 0 && changes >= minChanges && changes >= churnRatio * indexedVectors;
+    }
+
+    private void checkQuietly() {
+        try {
+            check();
+        } catch (RuntimeException e) {
+            logger.warn("Vector index churn check failed", e);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.thecookiezen.archiledger.infrastructure.lexical;
+
+import com.ladybugdb.Connection;
+import com.ladybugdb.Database;
+import com.ladybugdb.FlatTuple;
+import com.ladybugdb.QueryResult;
+import com.thecookiezen.archiledger.domain.model.LexicalMatch;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.repository.LexicalIndex;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-heap inverted index over the content, keywords and context of every note, scored with BM25. Identifiers are
+ * indexed whole and split into their camelCase, snake_case and digit parts, so {@code NullPointerException} also
+ * matches {@code pointer} and {@code ERR_TIMEOUT_42} also matches {@code timeout}.
+ * <p>
+ * The index is rebuilt from the database on startup and updated after each write commits, in commit order. It is
+ * eventually consistent: a search running between a commit and the matching index update sees the previous version
+ * of the note.
+ */
+@Component
+public class Bm25Index implements LexicalIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(Bm25Index.class);
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}_]+");
+    private static final Pattern PART_SEPARATOR = Pattern.compile(
+            "_+|(?<=\\p{Ll})(?=\\p{Lu})|(?<=\\p{Lu})(?=\\p{Lu}\\p{Ll})|(?<=\\p{L})(?=\\p{N})|(?<=\\p{N})(?=\\p{L})");
+
+    private final Database database;
+    private final double k1;
+    private final double b;
+    private final Map<String, Map<String, Integer>> termFrequencies = new HashMap<>();
+    private final Map<String, Integer> lengths = new HashMap<>();
+    private final Map<String, Set<String>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+
+    public Bm25Index(Database database,
+            @Value("${ladybugdb.lexical-index.k1:1.2}") double k1,
+            @Value("${ladybugdb.lexical-index.b:0.75}") double b) {
+        if (k1 < 0) {
+            throw new IllegalArgumentException("BM25 k1 cannot be negative: " + k1);
+        }
+        if (b < 0 || b > 1) {
+            throw new IllegalArgumentException("BM25 b must be in [0, 1]: " + b);
+        }
+        this.database = database;
+        this.k1 = k1;
+        this.b = b;
+    }
+
+    @PostConstruct
+    public void start() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try (Connection conn = new Connection(database);
+                QueryResult result = conn.query("MATCH (n:MemoryNote) RETURN n.id, n.content, n.keywords, n.context")) {
+            if (!result.isSuccess()) {
+                throw new IllegalStateException("Failed to read notes: " + result.getErrorMessage());
+            }
+            while (result.hasNext()) {
+                FlatTuple row = result.getNext();
+                put(row.getValue(0).getValue(), text(row.getValue(1).getValue(), row.getValue(2).getValue(),
+                        row.getValue(3).getValue()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Built lexical index over {} notes in {} ms", termFrequencies.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public List<LexicalMatch> search(String query, int topK) {
+        Set<String> terms = new LinkedHashSet<>(tokens(query));
+        Map<String, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documents = termFrequencies.size();
+            if (documents == 0 || terms.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documents;
+            for (String term : terms) {
+                Set<String> matching = postings.get(term);
+                if (matching == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documents - matching.size() + 0.5) / (matching.size() + 0.5));
+                for (String id : matching) {
+                    Map<String, Integer> frequencies = termFrequencies.get(id);
+                    int tf = frequencies.get(term);
+                    double norm = k1 * (1 - b + b * lengths.get(id) / averageLength);
+                    scores.merge(id, idf * tf * (k1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .limit(topK)
+                .map(entry -> new LexicalMatch(new MemoryNoteId(entry.getKey()), entry.getValue()))
+                .toList();
+    }
+
+    @Override
+    public void index(MemoryNote note) {
+        indexAll(List.of(note));
+    }
+
+    @Override
+    public void indexAll(Collection<MemoryNote> notes) {
+        lock.writeLock().lock();
+        try {
+            for (MemoryNote note : notes) {
+                put(note.id().value(), text(note.content(), note.keywords(), note.context()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(MemoryNoteId id) {
+        lock.writeLock().lock();
+        try {
+            delete(id.value());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(String id, String text) {
+        delete(id);
+        Map<String, Integer> frequencies = new HashMap<>();
+        List<String> tokens = tokens(text);
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        termFrequencies.put(id, frequencies);
+        lengths.put(id, tokens.size());
+        totalLength += tokens.size();
+        for (String term : frequencies.keySet()) {
+            postings.computeIfAbsent(term, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void delete(String id) {
+        Map<String, Integer> frequencies = termFrequencies.remove(id);
+        if (frequencies == null) {
+            return;
+        }
+        totalLength -= lengths.remove(id);
+        for (String term : frequencies.keySet()) {
+            Set<String> matching = postings.get(term);
+            matching.remove(id);
+            if (matching.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static String text(Object content, Object keywords, Object context) {
+        StringBuilder text = new StringBuilder();
+        if (content != null) {
+            text.append(content);
+        }
+        if (keywords instanceof Collection<?> words) {
+            words.forEach(word -> text.append(' ').append(word));
+        } else if (keywords instanceof Object[] words) {
+            for (Object word : words) {
+                text.append(' ').append(word);
+            }
+        }
+        if (context != null) {
+            text.append(' ').append(context);
+        }
+        return text.toString();
+    }
+
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String word : WORD_SEPARATOR.split(text)) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            tokens.add(word.toLowerCase(Locale.ROOT));
+            String[] parts = PART_SEPARATOR.split(word);
+            if (parts.length > 1) {
+                for (String part : parts) {
+                    if (!part.isEmpty()) {
+                        tokens.add(part.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        }
+        return tokens;
+    }
+}
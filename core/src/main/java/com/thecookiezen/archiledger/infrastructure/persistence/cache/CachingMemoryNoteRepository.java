@@ -0,0 +1,233 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.thecookiezen.archiledger.domain.model.LinkDefinition;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
+import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
+import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.LadybugMemoryNoteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Read-through cache of hydrated notes in front of {@link LadybugMemoryNoteRepository#findById}.
+ * <p>
+ * Entries are evicted by Caffeine's frequency-aware W-TinyLFU policy, bounded either by
+ * {@code ladybugdb.note-cache.max-entries} or, when {@code ladybugdb.note-cache.max-weight} is set, by the
+ * approximate size of the cached notes. Every write through this repository invalidates the notes whose stored
+ * state it changes.
+ */
+@Primary
+@Repository
+public class CachingMemoryNoteRepository implements MemoryNoteRepository, MeterBinder {
+
+    private final MemoryNoteRepository delegate;
+    private final Cache<MemoryNoteId, MemoryNote> cache;
+
+    public CachingMemoryNoteRepository(LadybugMemoryNoteRepository delegate,
+            @Value("${ladybugdb.note-cache.enabled:true}") boolean enabled,
+            @Value("${ladybugdb.note-cache.max-entries:10000}") long maxEntries,
+            @Value("${ladybugdb.note-cache.max-weight:0}") long maxWeight) {
+        this.delegate = delegate;
+        this.cache = enabled ? buildCache(maxEntries, maxWeight) : null;
+    }
+
+    private static Cache<MemoryNoteId, MemoryNote> buildCache(long maxEntries, long maxWeight) {
+        if (maxWeight > 0) {
+            return Caffeine.newBuilder()
+                    .maximumWeight(maxWeight)
+                    .weigher(CachingMemoryNoteRepository::weigh)
+                    .recordStats()
+                    .build();
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Note cache max entries must be positive: " + maxEntries);
+        }
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+    }
+
+    static int weigh(MemoryNoteId id, MemoryNote note) {
+        long chars = note.content().length() + (note.context() != null ? note.context().length() : 0);
+        for (String keyword : note.keywords()) {
+            chars += keyword.length();
+        }
+        for (String tag : note.tags()) {
+            chars += tag.length();
+        }
+        for (NoteLink link : note.links()) {
+            chars += link.target().value().length() + link.relationType().length() + link.context().length();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, chars);
+    }
+
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.stats();
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, "archiledger.notes");
+        }
+    }
+
+    @Override
+    public Optional<MemoryNote> findById(MemoryNoteId id) {
+        if (cache == null) {
+            return delegate.findById(id);
+        }
+        return Optional.ofNullable(cache.get(id, key -> delegate.findById(key).orElse(null)));
+    }
+
+    @Override
+    public MemoryNote save(MemoryNote note) {
+        try {
+            return delegate.save(note);
+        } finally {
+            invalidate(note.id());
+        }
+    }
+
+    @Override
+    public List<MemoryNote> saveAll(List<MemoryNote> notes) {
+        try {
+            return delegate.saveAll(notes);
+        } finally {
+            notes.forEach(note -> invalidate(note.id()));
+        }
+    }
+
+    @Override
+    public List<MemoryNoteId> patchNotes(List<NotePatch> patches) {
+        try {
+            return delegate.patchNotes(patches);
+        } finally {
+            patches.forEach(patch -> invalidate(patch.id()));
+        }
+    }
+
+    @Override
+    public void delete(MemoryNoteId id) {
+        try {
+            delegate.delete(id);
+        } finally {
+            invalidate(id);
+            if (cache != null) {
+                cache.asMap().values().removeIf(note -> note.links().stream()
+                        .anyMatch(link -> link.target().equals(id)));
+            }
+        }
+    }
+
+    @Override
+    public void addLink(LinkDefinition link) {
+        try {
+            delegate.addLink(link);
+        } finally {
+            invalidate(link.source());
+        }
+    }
+
+    @Override
+    public void removeLink(MemoryNoteId from, MemoryNoteId to, String relationType) {
+        try {
+            delegate.removeLink(from, to, relationType);
+        } finally {
+            invalidate(from);
+        }
+    }
+
+    @Override
+    public void incrementRetrievalCount(MemoryNoteId id) {
+        delegate.incrementRetrievalCount(id);
+        if (cache != null) {
+            cache.asMap().computeIfPresent(id, (key, note) -> note.withRetrievalCount(note.retrievalCount() + 1));
+        }
+    }
+
+    @Override
+    public Map<MemoryNoteId, String> findEmbeddedContentHashes(List<MemoryNoteId> ids) {
+        return delegate.findEmbeddedContentHashes(ids);
+    }
+
+    @Override
+    public List<MemoryNote> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<NoteLink> findLinksFrom(MemoryNoteId id) {
+        return delegate.findLinksFrom(id);
+    }
+
+    @Override
+    public List<MemoryNote> findByTag(String tag) {
+        return delegate.findByTag(tag);
+    }
+
+    @Override
+    public List<MemoryNote> findLinkedNotes(MemoryNoteId noteId) {
+        return delegate.findLinkedNotes(noteId);
+    }
+
+    @Override
+    public List<MemoryNote> findLinkedNotes(MemoryNoteId noteId, String relationType, int limit) {
+        return delegate.findLinkedNotes(noteId, relationType, limit);
+    }
+
+    @Override
+    public List<MemoryNote> findNotesUpward(MemoryNoteId noteId, int maxHops, int limit) {
+        return delegate.findNotesUpward(noteId, maxHops, limit);
+    }
+
+    @Override
+    public Set<String> findAllTags() {
+        return delegate.findAllTags();
+    }
+
+    @Override
+    public Map<String, Object> getGraph() {
+        return delegate.getGraph();
+    }
+
+    @Override
+    public List<SimilarityResult<MemoryNote>> findSimilar(float[] queryEmbedding, int topK, double threshold,
+            double temperature, VectorSearchOptions options) {
+        return delegate.findSimilar(queryEmbedding, topK, threshold, temperature, options);
+    }
+
+    @Override
+    public List<SimilarityResult<MemoryNote>> findLexical(String query, int topK) {
+        return delegate.findLexical(query, topK);
+    }
+
+    private void invalidate(MemoryNoteId id) {
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+}
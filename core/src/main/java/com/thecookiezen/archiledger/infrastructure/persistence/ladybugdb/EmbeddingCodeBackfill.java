@@ -0,0 +1,54 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb;
+
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.EmbeddingProjection;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills in the int8 codes on startup for embeddings stored before {@code ladybugdb.embedding.quantization=int8} was
+ * set, so reads never need their full precision vectors. A database created in int8 mode without re-ranking has no
+ * float column to read from, and every row already has its codes.
+ */
+@Component
+@ConditionalOnProperty(name = "ladybugdb.embedding.quantization", havingValue = "int8")
+public class EmbeddingCodeBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddingCodeBackfill.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final MemoryNoteDbRepository dbRepository;
+
+    public EmbeddingCodeBackfill(MemoryNoteDbRepository dbRepository) {
+        this.dbRepository = dbRepository;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        if (!dbRepository.findEmbeddingColumns().contains("embedding")) {
+            return;
+        }
+        int stored = 0;
+        List<EmbeddingProjection> rows;
+        do {
+            rows = dbRepository.findEmbeddingsWithoutCode(BATCH_SIZE);
+            if (!rows.isEmpty()) {
+                List<Map<String, Object>> codes = rows.stream()
+                        .map(row -> LadybugMemoryNoteRepository.toCodeRow(row.noteId(), row.embedding()))
+                        .toList();
+                dbRepository.saveEmbeddingCodes(codes);
+                stored += rows.size();
+            }
+        } while (rows.size() == BATCH_SIZE);
+        if (stored > 0) {
+            logger.info("Stored int8 codes of {} existing embeddings", stored);
+        }
+    }
+}
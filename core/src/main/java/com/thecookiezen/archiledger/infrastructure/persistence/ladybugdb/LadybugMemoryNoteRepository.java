@@ -1,38 +1,119 @@
 package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb;
 
+import com.thecookiezen.archiledger.domain.model.LexicalMatch;
 import com.thecookiezen.archiledger.domain.model.LinkDefinition;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
 import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
 import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.model.VectorMatch;
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
+import com.thecookiezen.archiledger.domain.repository.EmbeddingsService;
+import com.thecookiezen.archiledger.domain.repository.LexicalIndex;
 import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
+import com.thecookiezen.archiledger.domain.repository.VectorIndex;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.ContentHashProjection;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.EmbeddingCodeProjection;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.EmbeddingProjection;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LadybugMemoryNote;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LadybugNoteLink;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LinkProjection;
+import com.thecookiezen.archiledger.infrastructure.vectorindex.EmbeddingQuantization;
+import com.thecookiezen.archiledger.infrastructure.vectorindex.ExactReranker;
+import com.thecookiezen.archiledger.infrastructure.vectorindex.IterativeDeepening;
+import com.thecookiezen.archiledger.infrastructure.vectorindex.QuantizedVector;
 import com.thecookiezen.ladybugdb.spring.core.LadybugDBTemplate;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 @Repository
 public class LadybugMemoryNoteRepository implements MemoryNoteRepository {
 
+    private static final int FILTER_POOL_GROWTH = 4;
+
     private final MemoryNoteDbRepository dbRepository;
     private final LadybugDBTemplate template;
-
-    public LadybugMemoryNoteRepository(MemoryNoteDbRepository dbRepository, LadybugDBTemplate template) {
+    private final TransactionTemplate transactionTemplate;
+    private final RetrievalCountBuffer retrievalCounts;
+    private final VectorIndex vectorIndex;
+    private final ExactReranker reranker;
+    private final IterativeDeepening deepening;
+    private final LexicalIndex lexicalIndex;
+    private final EmbeddingsService embeddingsService;
+    private final EmbeddingQuantization quantization;
+    private final boolean storesFullPrecision;
+    private final int filterExactThreshold;
+    private final int filterMaxCandidates;
+    private final int coarseDimensions;
+    // Held from a write until the lexical index reflects it, so the index applies writes in commit order.
+    // LadybugDB runs one write transaction at a time, so this costs writers no concurrency.
+    private final ReentrantLock writeOrder = new ReentrantLock();
+
+    public LadybugMemoryNoteRepository(MemoryNoteDbRepository dbRepository, LadybugDBTemplate template,
+            PlatformTransactionManager transactionManager, RetrievalCountBuffer retrievalCounts,
+            VectorIndex vectorIndex, ExactReranker reranker, IterativeDeepening deepening, LexicalIndex lexicalIndex,
+            EmbeddingsService embeddingsService,
+            @Value("${ladybugdb.embedding.quantization:none}") String quantization,
+            @Value("${ladybugdb.vector-index.filter.exact-threshold:1000}") int filterExactThreshold,
+            @Value("${ladybugdb.vector-index.filter.max-candidates:10000}") int filterMaxCandidates,
+            @Value("${ladybugdb.vector-index.coarse.dimensions:0}") int coarseDimensions) {
+        if (filterExactThreshold < 0) {
+            throw new IllegalArgumentException("Filter exact threshold cannot be negative: " + filterExactThreshold);
+        }
+        if (filterMaxCandidates < 1) {
+            throw new IllegalArgumentException("Filter max candidates must be positive: " + filterMaxCandidates);
+        }
         this.dbRepository = dbRepository;
         this.template = template;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retrievalCounts = retrievalCounts;
+        this.vectorIndex = vectorIndex;
+        this.reranker = reranker;
+        this.deepening = deepening;
+        this.lexicalIndex = lexicalIndex;
+        this.embeddingsService = embeddingsService;
+        this.quantization = EmbeddingQuantization.parse(quantization);
+        this.storesFullPrecision = this.quantization.storesFullPrecision(reranker.isEnabledByDefault());
+        this.filterExactThreshold = filterExactThreshold;
+        this.filterMaxCandidates = filterMaxCandidates;
+        this.coarseDimensions = coarseDimensions;
     }
 
     @Override
     public MemoryNote save(MemoryNote note) {
+        LadybugMemoryNote saved;
+        writeOrder.lock();
+        try {
+            saved = retrievalCounts.withoutFlush(() -> saveNote(note));
+            lexicalIndex.index(note);
+        } finally {
+            writeOrder.unlock();
+        }
+
+        for (NoteLink link : note.links()) {
+            addLink(new LinkDefinition(note.id(), link.target(), link.relationType(), link.context()));
+        }
+
+        return toDomainNote(saved, note.links());
+    }
+
+    private LadybugMemoryNote saveNote(MemoryNote note) {
         LadybugMemoryNote ladybugNote = dbRepository.findById(note.id().value())
                 .orElse(new LadybugMemoryNote());
 
@@ -43,36 +124,249 @@ public class LadybugMemoryNoteRepository implements MemoryNoteRepository {
         ladybugNote.setTags(note.tags());
         ladybugNote.setTimestamp(note.timestamp());
         ladybugNote.setRetrievalCount(note.retrievalCount());
+        boolean hasEmbedding = hasEmbedding(note);
+        if (hasEmbedding) {
+            ladybugNote.setContentHash(note.contentHash(embeddingsService.modelId()));
+        }
         LadybugMemoryNote saved = dbRepository.save(ladybugNote);
+        retrievalCounts.discard(note.id().value());
 
-        if (note.embedding() != null && note.embedding().length > 0) {
+        if (hasEmbedding) {
             dbRepository.deleteEmbedding(note.id().value());
-            dbRepository.saveEmbedding(note.id().value(), note.embedding());
+            if (quantization == EmbeddingQuantization.INT8) {
+                saveQuantizedEmbeddings(List.of(note));
+            } else if (coarseDimensions > 0) {
+                dbRepository.saveEmbeddingsWithCoarse(List.of(toEmbeddingRow(note)));
+            } else {
+                dbRepository.saveEmbedding(note.id().value(), note.embedding());
+            }
+            vectorIndex.upsert(note.id(), note.embedding());
         }
+        return saved;
+    }
 
-        for (NoteLink link : note.links()) {
-            addLink(new LinkDefinition(note.id(), link.target(), link.relationType(), link.context()));
+    @Override
+    public List<MemoryNote> saveAll(List<MemoryNote> notes) {
+        if (notes.isEmpty()) {
+            return List.of();
         }
 
-        return toDomainNote(saved, note.links());
+        Map<String, MemoryNote> batch = new LinkedHashMap<>();
+        for (MemoryNote note : notes) {
+            batch.put(note.id().value(), note);
+        }
+
+        List<Map<String, Object>> noteRows = batch.values().stream().map(this::toNoteRow).toList();
+        List<MemoryNote> withEmbedding = batch.values().stream()
+                .filter(this::hasEmbedding)
+                .toList();
+        List<Map<String, Object>> linkRows = batch.values().stream()
+                .flatMap(note -> note.links().stream().map(link -> toLinkRow(note.id(), link)))
+                .toList();
+
+        writeOrder.lock();
+        try {
+            retrievalCounts.withoutFlush(() -> {
+                writeBatch(batch, noteRows, withEmbedding, linkRows);
+                batch.keySet().forEach(retrievalCounts::discard);
+                return null;
+            });
+            if (!withEmbedding.isEmpty()) {
+                Map<MemoryNoteId, float[]> embeddings = new LinkedHashMap<>();
+                withEmbedding.forEach(note -> embeddings.put(note.id(), note.embedding()));
+                vectorIndex.upsertAll(embeddings);
+            }
+            lexicalIndex.indexAll(batch.values());
+        } finally {
+            writeOrder.unlock();
+        }
+
+        return batch.values().stream()
+                .map(note -> note.withEmbedding(null))
+                .toList();
+    }
+
+    private void writeBatch(Map<String, MemoryNote> batch, List<Map<String, Object>> noteRows,
+            List<MemoryNote> withEmbedding, List<Map<String, Object>> linkRows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            requireLinkTargets(batch);
+            dbRepository.upsertNotes(noteRows);
+            if (!withEmbedding.isEmpty()) {
+                dbRepository.deleteEmbeddings(withEmbedding.stream().map(note -> note.id().value()).toList());
+                if (quantization == EmbeddingQuantization.INT8) {
+                    saveQuantizedEmbeddings(withEmbedding);
+                } else {
+                    List<Map<String, Object>> embeddingRows = withEmbedding.stream().map(this::toEmbeddingRow).toList();
+                    if (coarseDimensions > 0) {
+                        dbRepository.saveEmbeddingsWithCoarse(embeddingRows);
+                    } else {
+                        dbRepository.saveEmbeddings(embeddingRows);
+                    }
+                }
+            }
+            if (!linkRows.isEmpty()) {
+                dbRepository.mergeLinks(linkRows);
+            }
+        });
+    }
+
+    @Override
+    public List<MemoryNoteId> patchNotes(List<NotePatch> patches) {
+        if (patches.isEmpty()) {
+            return List.of();
+        }
+        List<Map<String, Object>> rows = patches.stream().map(this::toPatchRow).toList();
+        writeOrder.lock();
+        try {
+            List<MemoryNoteId> patched = dbRepository.patchNotes(rows);
+            if (!patched.isEmpty()) {
+                lexicalIndex.indexAll(dbRepository.findByIds(patched.stream().map(MemoryNoteId::value).toList())
+                        .stream()
+                        .map(note -> toDomainNote(note, List.of()))
+                        .toList());
+            }
+            return patched;
+        } finally {
+            writeOrder.unlock();
+        }
+    }
+
+    private void requireLinkTargets(Map<String, MemoryNote> batch) {
+        List<String> externalTargets = batch.values().stream()
+                .flatMap(note -> note.links().stream())
+                .map(link -> link.target().value())
+                .filter(target -> !batch.containsKey(target))
+                .distinct()
+                .toList();
+        if (externalTargets.isEmpty()) {
+            return;
+        }
+
+        Set<String> existing = dbRepository.findExistingIds(externalTargets).stream()
+                .map(MemoryNoteId::value)
+                .collect(Collectors.toSet());
+        for (String target : externalTargets) {
+            if (!existing.contains(target)) {
+                throw new IllegalArgumentException("Target note not found: " + target);
+            }
+        }
+    }
+
+    private Map<String, Object> toNoteRow(MemoryNote note) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", note.id().value());
+        row.put("content", note.content());
+        row.put("keywords", note.keywords());
+        row.put("context", note.context());
+        row.put("tags", note.tags());
+        row.put("timestamp", note.timestamp());
+        row.put("timestampUtc", SortableTimestamps.of(note.timestamp()));
+        row.put("retrievalCount", note.retrievalCount());
+        row.put("contentHash", hasEmbedding(note) ? note.contentHash(embeddingsService.modelId()) : null);
+        return row;
+    }
+
+    private Map<String, Object> toPatchRow(NotePatch patch) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", patch.id().value());
+        row.put("keywords", patch.keywords());
+        row.put("context", patch.context());
+        row.put("tags", patch.tags());
+        return row;
+    }
+
+    private boolean hasEmbedding(MemoryNote note) {
+        return note.embedding() != null && note.embedding().length > 0;
+    }
+
+    private Map<String, Object> toEmbeddingRow(MemoryNote note) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("noteId", note.id().value());
+        row.put("embedding", note.embedding());
+        if (coarseDimensions > 0) {
+            // written with the embedding, since SET on an indexed property is rejected
+            row.put("coarseEmbedding", Arrays.copyOf(note.embedding(), coarseDimensions));
+        }
+        return row;
+    }
+
+    private void saveQuantizedEmbeddings(List<MemoryNote> notes) {
+        List<Map<String, Object>> rows = notes.stream()
+                .map(note -> {
+                    Map<String, Object> row = toCodeRow(note.id().value(), note.embedding());
+                    if (storesFullPrecision) {
+                        row.put("embedding", note.embedding());
+                    }
+                    return row;
+                })
+                .toList();
+        if (storesFullPrecision) {
+            dbRepository.saveQuantizedEmbeddingsWithFullPrecision(rows);
+        } else {
+            dbRepository.saveQuantizedEmbeddings(rows);
+        }
+    }
+
+    static Map<String, Object> toCodeRow(String noteId, float[] embedding) {
+        QuantizedVector quantized = QuantizedVector.of(embedding);
+        List<Byte> code = new ArrayList<>(quantized.codes().length);
+        for (byte value : quantized.codes()) {
+            code.add(value);
+        }
+        Map<String, Object> row = new HashMap<>();
+        row.put("noteId", noteId);
+        row.put("code", code);
+        row.put("scale", quantized.scale());
+        row.put("offset", quantized.offset());
+        return row;
+    }
+
+    private Map<String, Object> toLinkRow(MemoryNoteId source, NoteLink link) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("sourceId", source.value());
+        row.put("targetId", link.target().value());
+        row.put("relationType", link.relationType());
+        row.put("context", link.context());
+        row.put("name", source.value() + "-" + link.relationType() + "-" + link.target().value());
+        return row;
     }
 
     @Override
     public Optional<MemoryNote> findById(MemoryNoteId id) {
-        return dbRepository.findById(id.value())
-                .map(note -> toDomainNoteWithLinks(note, id.value()));
+        return retrievalCounts.withoutFlush(() -> dbRepository.findById(id.value())
+                .map(note -> toDomainNoteWithLinks(note, id.value())));
+    }
+
+    @Override
+    public Map<MemoryNoteId, String> findEmbeddedContentHashes(List<MemoryNoteId> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        List<String> noteIds = ids.stream().map(MemoryNoteId::value).distinct().toList();
+        return dbRepository.findEmbeddedContentHashes(noteIds).stream()
+                .collect(Collectors.toMap(row -> new MemoryNoteId(row.id()), ContentHashProjection::contentHash));
     }
 
     @Override
     public List<MemoryNote> findAll() {
-        return StreamSupport.stream(dbRepository.findAll().spliterator(), false)
-                .map(note -> toDomainNoteWithLinks(note, note.getId()))
-                .toList();
+        return retrievalCounts.withoutFlush(() -> toDomainNotesWithLinks(
+                StreamSupport.stream(dbRepository.findAll().spliterator(), false).toList()));
     }
 
     @Override
     public void delete(MemoryNoteId id) {
-        dbRepository.deleteById(id.value());
+        writeOrder.lock();
+        try {
+            retrievalCounts.withoutFlush(() -> {
+                dbRepository.deleteById(id.value());
+                retrievalCounts.discard(id.value());
+                return null;
+            });
+            vectorIndex.remove(id);
+            lexicalIndex.remove(id);
+        } finally {
+            writeOrder.unlock();
+        }
     }
 
     @Override
@@ -117,23 +411,18 @@ public class LadybugMemoryNoteRepository implements MemoryNoteRepository {
 
     @Override
     public List<MemoryNote> findByTag(String tag) {
-        return dbRepository.findByTag(tag).stream()
-                .map(note -> toDomainNoteWithLinks(note, note.getId()))
-                .toList();
+        return retrievalCounts.withoutFlush(() -> toDomainNotesWithLinks(dbRepository.findByTag(tag)));
     }
 
     @Override
     public List<MemoryNote> findLinkedNotes(MemoryNoteId noteId) {
-        return dbRepository.findLinkedNotes(noteId.value()).stream()
-                .map(note -> toDomainNoteWithLinks(note, note.getId()))
-                .toList();
+        return retrievalCounts.withoutFlush(() -> toDomainNotesWithLinks(dbRepository.findLinkedNotes(noteId.value())));
     }
 
     @Override
     public List<MemoryNote> findLinkedNotes(MemoryNoteId noteId, String relationType, int limit) {
-        return dbRepository.findLinkedNotes(noteId.value(), relationType, limit).stream()
-            .map(note -> toDomainNoteWithLinks(note, note.getId()))
-            .toList();
+        return retrievalCounts.withoutFlush(() -> toDomainNotesWithLinks(
+                dbRepository.findLinkedNotes(noteId.value(), relationType, limit)));
     }
 
     @Override
@@ -148,10 +437,8 @@ public class LadybugMemoryNoteRepository implements MemoryNoteRepository {
             LIMIT
              $limit    
                 """.formatted(maxHops);
-        return template.query(query, Map.of("noteId", noteId.value(), "limit", limit), LadybugMemoryNote.class)
-            .stream()
-            .map(note -> toDomainNoteWithLinks(note, note.getId()))
-            .toList();
+        return retrievalCounts.withoutFlush(() -> toDomainNotesWithLinks(
+            template.query(query, Map.of("noteId", noteId.value(), "limit", limit), LadybugMemoryNote.class)));
     }
 
     @Override
@@ -163,8 +450,13 @@ public class LadybugMemoryNoteRepository implements MemoryNoteRepository {
 
     @Override
     public Map<String, Object> getGraph() {
-        List<MemoryNote> allNotes = findAll();
+        return retrievalCounts.withoutFlush(this::readGraph);
+    }
+
+    private Map<String, Object> readGraph() {
+        List<LadybugMemoryNote> allNodes = StreamSupport.stream(dbRepository.findAll().spliterator(), false).toList();
         List<LinkProjection> allLinks = dbRepository.findAllLinks();
+        List<MemoryNote> allNotes = toDomainNotes(allNodes, groupLinksBySource(allLinks));
         return Map.of(
                 "notes", allNotes,
                 "links", allLinks.stream().map(this::toDomainLink).collect(Collectors.toList()));
@@ -172,29 +464,214 @@ public class LadybugMemoryNoteRepository implements MemoryNoteRepository {
 
     @Override
     public void incrementRetrievalCount(MemoryNoteId id) {
-        dbRepository.findById(id.value()).ifPresent(note -> {
-            note.setRetrievalCount(note.getRetrievalCount() + 1);
-            dbRepository.save(note);
-        });
+        retrievalCounts.increment(id.value());
     }
 
     @Override
-    public List<SimilarityResult<MemoryNote>> findSimilar(float[] queryEmbedding, int topK) {
-        return findSimilar(queryEmbedding, topK, 0.0, 0.0);
+    public List<SimilarityResult<MemoryNote>> findSimilar(float[] queryEmbedding, int topK, double threshold, double temperature,
+            VectorSearchOptions options) {
+        return retrievalCounts.withoutFlush(() -> search(queryEmbedding, topK, threshold, temperature, options));
+    }
+
+    private List<SimilarityResult<MemoryNote>> search(float[] queryEmbedding, int topK, double threshold,
+            double temperature, VectorSearchOptions options) {
+        if (!options.filter().isEmpty()) {
+            return findSimilarFiltered(queryEmbedding, topK, threshold, temperature, options);
+        }
+        if (deepening.isEnabled(options)) {
+            return findSimilarDeepening(queryEmbedding, topK, threshold, temperature, options);
+        }
+        List<VectorMatch> matches = vectorIndex.search(queryEmbedding, reranker.candidateCount(topK, options), options.efs());
+        if (reranker.isEnabled(options) && !matches.isEmpty()) {
+            matches = reranker.rerank(queryEmbedding, matches, findEmbeddings(matches), topK);
+        }
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        return toSimilarityResults(matches, findNotes(matches), threshold, temperature);
     }
 
+    /**
+     * @return the notes ranked by the {@link LexicalIndex}, scored with their BM25 score
+     */
     @Override
-    public List<SimilarityResult<MemoryNote>> findSimilar(float[] queryEmbedding, int topK, double threshold, double temperature) {
-        return dbRepository.findSimilarRaw(queryEmbedding, topK).stream()
-                .map(projection -> {
-                    double distance = projection.score();
-                    double score = applyTemperatureScaling(distance, temperature);
-                    return new SimilarityResult<>(
-                            toDomainNoteWithLinks(projection.note(), projection.note().getId()),
-                            score);
-                })
-                .filter(result -> result.score() >= threshold)
+    public List<SimilarityResult<MemoryNote>> findLexical(String query, int topK) {
+        return retrievalCounts.withoutFlush(() -> searchLexical(query, topK));
+    }
+
+    private List<SimilarityResult<MemoryNote>> searchLexical(String query, int topK) {
+        List<LexicalMatch> matches = lexicalIndex.search(query, topK);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        Map<String, LadybugMemoryNote> notesById = dbRepository.findByIds(matches.stream()
+                        .map(match -> match.id().value())
+                        .toList()).stream()
+                .collect(Collectors.toMap(LadybugMemoryNote::getId, note -> note, (first, second) -> first));
+        List<LexicalMatch> found = matches.stream()
+                .filter(match -> notesById.containsKey(match.id().value()))
+                .toList();
+        List<MemoryNote> notes = toDomainNotesWithLinks(found.stream()
+                .map(match -> notesById.get(match.id().value()))
+                .toList());
+
+        List<SimilarityResult<MemoryNote>> results = new ArrayList<>(found.size());
+        for (int i = 0; i < found.size(); i++) {
+            results.add(new SimilarityResult<>(notes.get(i), found.get(i).score()));
+        }
+        return results;
+    }
+
+    /**
+     * A filter matching at most {@code ladybugdb.vector-index.filter.exact-threshold} notes is searched exactly over
+     * those notes. Otherwise the index is searched with a candidate pool that grows until enough candidates pass the
+     * filter, the index runs out of candidates, or the pool reaches {@code ladybugdb.vector-index.filter.max-candidates}.
+     */
+    private List<SimilarityResult<MemoryNote>> findSimilarFiltered(float[] queryEmbedding, int topK, double threshold,
+            double temperature, VectorSearchOptions options) {
+        Map<String, Object> params = new HashMap<>();
+        String conditions = NoteFilterCypher.conditions(options.filter(), params);
+
+        Map<String, Object> selectParams = new HashMap<>(params);
+        selectParams.put("limit", (long) filterExactThreshold + 1);
+        List<MemoryNoteId> selected = template.query(
+                "MATCH (n:MemoryNote)-[:HAS_EMBEDDING]->(:NoteEmbedding) WHERE " + conditions
+                        + " RETURN n.id AS id LIMIT $limit",
+                selectParams, MemoryNoteId.class);
+        if (selected.size() <= filterExactThreshold) {
+            if (selected.isEmpty()) {
+                return List.of();
+            }
+            List<VectorMatch> candidates = selected.stream().map(id -> new VectorMatch(id, 0.0)).toList();
+            List<VectorMatch> matches = reranker.rerank(queryEmbedding, candidates, findEmbeddings(candidates), topK);
+            return matches.isEmpty() ? List.of() : toSimilarityResults(matches, findNotes(matches), threshold, temperature);
+        }
+
+        int needed = reranker.candidateCount(topK, options);
+        int pool = (int) Math.min(filterMaxCandidates, (long) needed * FILTER_POOL_GROWTH);
+        while (true) {
+            List<VectorMatch> matches = vectorIndex.search(queryEmbedding, pool, options.efs());
+            Map<String, LadybugMemoryNote> notesById = findNotesMatching(matches, conditions, params);
+            List<VectorMatch> kept = matches.stream()
+                    .filter(match -> notesById.containsKey(match.id().value()))
+                    .toList();
+            if (kept.size() >= needed || matches.size() < pool || pool >= filterMaxCandidates) {
+                if (reranker.isEnabled(options) && !kept.isEmpty()) {
+                    kept = reranker.rerank(queryEmbedding, kept, findEmbeddings(kept), topK);
+                } else if (kept.size() > topK) {
+                    kept = kept.subList(0, topK);
+                }
+                return toSimilarityResults(kept, notesById, threshold, temperature);
+            }
+            pool = (int) Math.min(filterMaxCandidates, (long) pool * FILTER_POOL_GROWTH);
+        }
+    }
+
+    /**
+     * Doubles the index limit until {@code topK} candidates clear the threshold, the index has no more candidates, the
+     * furthest candidate of a round is below the threshold, or the {@link IterativeDeepening} budget is spent.
+     */
+    private List<SimilarityResult<MemoryNote>> findSimilarDeepening(float[] queryEmbedding, int topK, double threshold,
+            double temperature, VectorSearchOptions options) {
+        long deadline = deepening.deadline();
+        boolean rerank = reranker.isEnabled(options);
+        Map<MemoryNoteId, float[]> embeddings = new HashMap<>();
+        int limit = reranker.candidateCount(topK, options);
+        List<VectorMatch> qualifying;
+        while (true) {
+            List<VectorMatch> matches = vectorIndex.search(queryEmbedding, limit, options.efs());
+            boolean exhausted = matches.size() < limit;
+            // The index returns candidates closest first, so a deeper round cannot add a note above the threshold
+            // once the furthest candidate of this round is already below it.
+            boolean belowThreshold = !matches.isEmpty()
+                    && applyTemperatureScaling(matches.getLast().distance(), temperature) < threshold;
+            if (rerank && !matches.isEmpty()) {
+                List<VectorMatch> missing = matches.stream()
+                        .filter(match -> !embeddings.containsKey(match.id()))
+                        .toList();
+                if (!missing.isEmpty()) {
+                    embeddings.putAll(findEmbeddings(missing));
+                }
+                matches = reranker.rerank(queryEmbedding, matches, embeddings, matches.size());
+            }
+            qualifying = matches.stream()
+                    .filter(match -> applyTemperatureScaling(match.distance(), temperature) >= threshold)
+                    .toList();
+            if (qualifying.size() >= topK || exhausted || belowThreshold || !deepening.canGrow(limit, deadline)) {
+                break;
+            }
+            limit = deepening.nextLimit(limit);
+        }
+        if (qualifying.size() > topK) {
+            qualifying = qualifying.subList(0, topK);
+        }
+        return qualifying.isEmpty()
+                ? List.of()
+                : toSimilarityResults(qualifying, findNotes(qualifying), threshold, temperature);
+    }
+
+    private Map<String, LadybugMemoryNote> findNotes(List<VectorMatch> matches) {
+        return dbRepository.findByIds(matches.stream()
+                        .map(match -> match.id().value())
+                        .toList()).stream()
+                .collect(Collectors.toMap(LadybugMemoryNote::getId, note -> note, (first, second) -> first));
+    }
+
+    private Map<String, LadybugMemoryNote> findNotesMatching(List<VectorMatch> matches, String conditions,
+            Map<String, Object> params) {
+        if (matches.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Object> queryParams = new HashMap<>(params);
+        queryParams.put("noteIds", matches.stream().map(match -> match.id().value()).toList());
+        return template.query("MATCH (n:MemoryNote) WHERE n.id IN $noteIds AND " + conditions + " RETURN n",
+                        queryParams, LadybugMemoryNote.class).stream()
+                .collect(Collectors.toMap(LadybugMemoryNote::getId, note -> note, (first, second) -> first));
+    }
+
+    private List<SimilarityResult<MemoryNote>> toSimilarityResults(List<VectorMatch> matches,
+            Map<String, LadybugMemoryNote> notesById, double threshold, double temperature) {
+        // the index may still return a note deleted after the search started
+        List<VectorMatch> found = matches.stream()
+                .filter(match -> notesById.containsKey(match.id().value()))
                 .toList();
+        List<MemoryNote> notes = toDomainNotesWithLinks(found.stream()
+                .map(match -> notesById.get(match.id().value()))
+                .toList());
+
+        List<SimilarityResult<MemoryNote>> results = new ArrayList<>(found.size());
+        for (int i = 0; i < found.size(); i++) {
+            double score = applyTemperatureScaling(found.get(i).distance(), temperature);
+            if (score >= threshold) {
+                results.add(new SimilarityResult<>(notes.get(i), score));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Full precision embeddings where they are stored, with int8 the decoded codes of the others.
+     */
+    private Map<MemoryNoteId, float[]> findEmbeddings(List<VectorMatch> matches) {
+        List<String> noteIds = matches.stream().map(match -> match.id().value()).toList();
+        Map<MemoryNoteId, float[]> embeddings = new HashMap<>();
+        if (storesFullPrecision) {
+            for (EmbeddingProjection row : dbRepository.findEmbeddings(noteIds)) {
+                if (row.embedding() != null) {
+                    embeddings.put(new MemoryNoteId(row.noteId()), row.embedding());
+                }
+            }
+        }
+        if (quantization == EmbeddingQuantization.INT8 && embeddings.size() < noteIds.size()) {
+            List<String> missing = noteIds.stream()
+                    .filter(noteId -> !embeddings.containsKey(new MemoryNoteId(noteId)))
+                    .toList();
+            for (EmbeddingCodeProjection row : dbRepository.findEmbeddingCodes(missing)) {
+                embeddings.put(new MemoryNoteId(row.noteId()),
+                        new QuantizedVector(row.code(), row.codeScale(), row.codeOffset()).dequantize());
+            }
+        }
+        return embeddings;
     }
 
     private double applyTemperatureScaling(double distance, double temperature) {
@@ -213,7 +690,7 @@ public class LadybugMemoryNoteRepository implements MemoryNoteRepository {
                 note.getTags(),
                 links,
                 note.getTimestamp(),
-                note.getRetrievalCount(),
+                Math.toIntExact(note.getRetrievalCount() + retrievalCounts.pending(note.getId())),
                 null);
     }
 
@@ -221,16 +698,30 @@ public class LadybugMemoryNoteRepository implements MemoryNoteRepository {
         List<NoteLink> links = dbRepository.findLinksFrom(noteId).stream()
                 .map(this::toDomainLink)
                 .collect(Collectors.toList());
-        return new MemoryNote(
-                new MemoryNoteId(note.getId()),
-                note.getContent(),
-                note.getKeywords(),
-                note.getContext(),
-                note.getTags(),
-                links,
-                note.getTimestamp(),
-                note.getRetrievalCount(),
-                null);
+        return toDomainNote(note, links);
+    }
+
+    private List<MemoryNote> toDomainNotesWithLinks(List<LadybugMemoryNote> notes) {
+        if (notes.isEmpty()) {
+            return List.of();
+        }
+        List<String> noteIds = notes.stream()
+                .map(LadybugMemoryNote::getId)
+                .distinct()
+                .toList();
+        return toDomainNotes(notes, groupLinksBySource(dbRepository.findLinksFromAll(noteIds)));
+    }
+
+    private List<MemoryNote> toDomainNotes(List<LadybugMemoryNote> notes, Map<String, List<NoteLink>> linksBySource) {
+        return notes.stream()
+                .map(note -> toDomainNote(note, linksBySource.getOrDefault(note.getId(), List.of())))
+                .toList();
+    }
+
+    private Map<String, List<NoteLink>> groupLinksBySource(List<LinkProjection> links) {
+        return links.stream()
+                .collect(Collectors.groupingBy(LinkProjection::fromId,
+                        Collectors.mapping(this::toDomainLink, Collectors.toList())));
     }
 
     private NoteLink toDomainLink(LinkProjection projection) {
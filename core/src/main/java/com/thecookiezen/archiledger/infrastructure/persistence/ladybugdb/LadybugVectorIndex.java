@@ -0,0 +1,150 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.VectorMatch;
+import com.thecookiezen.archiledger.domain.repository.VectorIndex;
+import com.thecookiezen.archiledger.infrastructure.embeddings.LadybugVectorExtensionInitializer;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.EmbeddingProjection;
+import com.thecookiezen.archiledger.infrastructure.vectorindex.EmbeddingQuantization;
+import com.thecookiezen.archiledger.infrastructure.vectorindex.ExactReranker;
+import com.thecookiezen.ladybugdb.spring.core.LadybugDBTemplate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Default {@link VectorIndex}: LadybugDB's HNSW index on {@code NoteEmbedding}, managed by
+ * {@link LadybugVectorExtensionInitializer}. The index follows the stored embeddings by itself, so updates are only
+ * counted towards the churn that triggers a rebuild. While there is no index, search is exact.
+ * <p>
+ * With {@code ladybugdb.vector-index.coarse.dimensions} set, the index only covers the leading dimensions of each
+ * embedding (Matryoshka-style models concentrate most of the signal there). A search then fetches
+ * {@code topK * ladybugdb.vector-index.coarse.candidate-multiplier} candidates from it and re-scores them against the
+ * full embeddings.
+ */
+@Component
+@ConditionalOnProperty(name = "ladybugdb.vector-index.backend", havingValue = "ladybug", matchIfMissing = true)
+public class LadybugVectorIndex implements VectorIndex {
+
+    private final MemoryNoteDbRepository dbRepository;
+    private final LadybugDBTemplate template;
+    private final LadybugVectorExtensionInitializer indexManager;
+    private final ExactReranker reranker;
+    private final int defaultEfs;
+    private final int coarseDimensions;
+    private final int candidateMultiplier;
+
+    public LadybugVectorIndex(MemoryNoteDbRepository dbRepository, LadybugDBTemplate template,
+            LadybugVectorExtensionInitializer indexManager, ExactReranker reranker,
+            @Value("${ladybugdb.hnsw.efs:200}") int defaultEfs,
+            @Value("${ladybugdb.embedding.quantization:none}") String quantization,
+            @Value("${ladybugdb.vector-index.coarse.dimensions:0}") int coarseDimensions,
+            @Value("${ladybugdb.vector-index.coarse.candidate-multiplier:8}") int candidateMultiplier) {
+        if (defaultEfs <= 0) {
+            throw new IllegalArgumentException("Default HNSW efs must be positive: " + defaultEfs);
+        }
+        if (coarseDimensions < 0) {
+            throw new IllegalArgumentException("Coarse index dimensions must not be negative: " + coarseDimensions);
+        }
+        if (candidateMultiplier < 1) {
+            throw new IllegalArgumentException("Coarse candidate multiplier must be at least 1: " + candidateMultiplier);
+        }
+        if (EmbeddingQuantization.parse(quantization) != EmbeddingQuantization.NONE) {
+            // the LadybugDB vector index only indexes FLOAT arrays
+            throw new IllegalStateException("ladybugdb.embedding.quantization=" + quantization
+                    + " requires ladybugdb.vector-index.backend=in-process");
+        }
+        this.dbRepository = dbRepository;
+        this.template = template;
+        this.indexManager = indexManager;
+        this.reranker = reranker;
+        this.defaultEfs = defaultEfs;
+        this.coarseDimensions = coarseDimensions;
+        this.candidateMultiplier = candidateMultiplier;
+    }
+
+    /**
+     * @param efs size of the HNSW candidate list explored per query; higher values trade latency for recall.
+     *            Non-positive values use {@code ladybugdb.hnsw.efs}, and the effective value is never below topK.
+     *            Ignored while the index is being rebuilt, when search is exact.
+     */
+    @Override
+    public List<VectorMatch> search(float[] query, int topK, int efs) {
+        if (coarseDimensions > 0) {
+            return searchCoarse(query, topK, efs);
+        }
+        long effectiveEfs = Math.max(efs > 0 ? efs : defaultEfs, topK);
+        return indexManager.withActiveIndex(indexName -> indexName != null
+                ? dbRepository.findNearestRaw(indexName, query, topK, effectiveEfs)
+                : searchExact(query, topK));
+    }
+
+    private List<VectorMatch> searchCoarse(float[] query, int topK, int efs) {
+        int candidates = (int) Math.min(Integer.MAX_VALUE, (long) topK * candidateMultiplier);
+        long effectiveEfs = Math.max(efs > 0 ? efs : defaultEfs, candidates);
+        float[] prefix = Arrays.copyOf(query, coarseDimensions);
+        List<VectorMatch> matches = indexManager.withActiveIndex(indexName -> indexName != null
+                ? dbRepository.findNearestRaw(indexName, prefix, candidates, effectiveEfs)
+                : null);
+        if (matches == null) {
+            return searchExact(query, topK);
+        }
+        if (matches.isEmpty()) {
+            return matches;
+        }
+        List<String> noteIds = matches.stream().map(match -> match.id().value()).toList();
+        Map<MemoryNoteId, float[]> embeddings = new HashMap<>();
+        for (EmbeddingProjection row : dbRepository.findEmbeddings(noteIds)) {
+            embeddings.put(new MemoryNoteId(row.noteId()), row.embedding());
+        }
+        return reranker.rerank(query, matches, embeddings, topK);
+    }
+
+    @Override
+    public void upsert(MemoryNoteId id, float[] embedding) {
+        upsertAll(Map.of(id, embedding));
+    }
+
+    /**
+     * The repository has already written the embeddings, including their coarse prefix.
+     */
+    @Override
+    public void upsertAll(Map<MemoryNoteId, float[]> embeddings) {
+        indexManager.recordChanges(embeddings.size());
+    }
+
+    @Override
+    public void remove(MemoryNoteId id) {
+        indexManager.recordChanges(1);
+    }
+
+    private List<VectorMatch> searchExact(float[] query, int topK) {
+        String cypher = """
+                MATCH (e:NoteEmbedding)
+                WITH e, %s AS distance
+                RETURN e.noteId AS id, distance ORDER BY distance LIMIT $limit
+                """.formatted(distanceExpression(indexManager.defaultParameters().metric(), query.length));
+        return template.query(cypher, Map.of("queryVector", query, "limit", (long) topK), VectorMatch.class);
+    }
+
+    /**
+     * Same distance as the HNSW index computes for the metric, so scores do not shift while the index is rebuilt.
+     */
+    static String distanceExpression(String metric, int dimensions) {
+        String query = "CAST($queryVector AS FLOAT[" + dimensions + "])";
+        return switch (metric.toLowerCase(Locale.ROOT)) {
+            case "cosine" -> "1.0 - array_cosine_similarity(e.embedding, " + query + ")";
+            case "l2", "euclidean" -> "array_distance(e.embedding, " + query + ")";
+            case "l2sq" -> "array_squared_distance(e.embedding, " + query + ")";
+            case "dotproduct", "dot_product" -> "1.0 - array_inner_product(e.embedding, " + query + ")";
+            default -> throw new IllegalArgumentException("Unsupported vector index metric: " + metric);
+        };
+    }
+}
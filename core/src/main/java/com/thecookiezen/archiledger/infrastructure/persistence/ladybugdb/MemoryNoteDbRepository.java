@@ -1,11 +1,16 @@
 package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb;
 
 import java.util.List;
+import java.util.Map;
 
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.VectorMatch;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.ContentHashProjection;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.EmbeddingCodeProjection;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.EmbeddingProjection;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LadybugMemoryNote;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LadybugNoteLink;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LinkProjection;
-import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.SimilarityResultProjection;
 import com.thecookiezen.ladybugdb.spring.annotation.Query;
 import com.thecookiezen.ladybugdb.spring.repository.NodeRepository;
 
@@ -21,6 +26,9 @@ public interface MemoryNoteDbRepository
         @Query("MATCH (source:MemoryNote)-[r:LINKED_TO]->(target:MemoryNote) WHERE source.id = $noteId RETURN source.id AS fromId, target.id AS toId, r.relationType AS relationType, r.context AS context")
         List<LinkProjection> findLinksFrom(String noteId);
 
+        @Query("MATCH (source:MemoryNote)-[r:LINKED_TO]->(target:MemoryNote) WHERE source.id IN $noteIds RETURN source.id AS fromId, target.id AS toId, r.relationType AS relationType, r.context AS context")
+        List<LinkProjection> findLinksFromAll(List<String> noteIds);
+
         @Query("MATCH (source:MemoryNote)-[r:LINKED_TO]->(target:MemoryNote) WHERE r.relationType = $relationType RETURN source.id AS fromId, target.id AS toId, r.relationType AS relationType, r.context AS context")
         List<LinkProjection> findLinksByRelationType(String relationType);
 
@@ -36,9 +44,18 @@ public interface MemoryNoteDbRepository
         @Query("MATCH (source:MemoryNote)-[r:LINKED_TO]->(target:MemoryNote) RETURN source.id AS fromId, target.id AS toId, r.relationType AS relationType, r.context AS context")
         List<LinkProjection> findAllLinks();
 
-        @Query(value = "CALL QUERY_VECTOR_INDEX('NoteEmbedding', 'note_embedding_idx', $queryVector, $limit) YIELD node, distance MATCH (n:MemoryNote)-[:HAS_EMBEDDING]->(node) RETURN n, distance AS score ORDER BY distance", loadExtensions = {
+        @Query("MATCH (n:MemoryNote) WHERE n.id IN $noteIds RETURN n")
+        List<LadybugMemoryNote> findByIds(List<String> noteIds);
+
+        @Query(value = "CALL QUERY_VECTOR_INDEX('NoteEmbedding', $indexName, $queryVector, $limit, efs := $efs) YIELD node, distance RETURN node.noteId AS id, distance ORDER BY distance", loadExtensions = {
                         "vector" })
-        List<SimilarityResultProjection> findSimilarRaw(float[] queryVector, long limit);
+        List<VectorMatch> findNearestRaw(String indexName, float[] queryVector, long limit, long efs);
+
+        @Query("MATCH (e:NoteEmbedding) WHERE e.noteId IN $noteIds RETURN e.noteId AS noteId, e.embedding AS embedding")
+        List<EmbeddingProjection> findEmbeddings(List<String> noteIds);
+
+        @Query("MATCH (e:NoteEmbedding) WHERE e.noteId IN $noteIds AND e.code IS NOT NULL RETURN e.noteId AS noteId, e.code AS code, e.codeScale AS codeScale, e.codeOffset AS codeOffset")
+        List<EmbeddingCodeProjection> findEmbeddingCodes(List<String> noteIds);
 
         @Query("MATCH (e:NoteEmbedding {noteId: $noteId}) DETACH DELETE e")
         void deleteEmbedding(String noteId);
@@ -49,4 +66,58 @@ public interface MemoryNoteDbRepository
         @Query(value = "MATCH (n:MemoryNote {id: $noteId}) CREATE (n)-[:HAS_EMBEDDING]->(e:NoteEmbedding {noteId: $noteId, embedding: $embedding})", loadExtensions = {
                         "vector" })
         void saveEmbedding(String noteId, float[] embedding);
+
+        @Query("MATCH (n:MemoryNote) WHERE n.id IN $noteIds RETURN n.id AS id")
+        List<MemoryNoteId> findExistingIds(List<String> noteIds);
+
+        @Query("MATCH (n:MemoryNote)-[:HAS_EMBEDDING]->(:NoteEmbedding) WHERE n.id IN $noteIds AND n.contentHash IS NOT NULL RETURN n.id AS id, n.contentHash AS contentHash")
+        List<ContentHashProjection> findEmbeddedContentHashes(List<String> noteIds);
+
+        @Query("UNWIND $notes AS note MERGE (n:MemoryNote {id: note.id}) SET n.content = note.content, n.keywords = note.keywords, n.context = note.context, n.tags = note.tags, n.timestamp = note.timestamp, n.timestampUtc = note.timestampUtc, n.retrievalCount = note.retrievalCount, n.contentHash = coalesce(note.contentHash, n.contentHash)")
+        void upsertNotes(List<Map<String, Object>> notes);
+
+        @Query("UNWIND $patches AS patch MATCH (n:MemoryNote {id: patch.id}) SET n.keywords = coalesce(patch.keywords, n.keywords), n.context = coalesce(patch.context, n.context), n.tags = coalesce(patch.tags, n.tags) RETURN DISTINCT n.id AS id")
+        List<MemoryNoteId> patchNotes(List<Map<String, Object>> patches);
+
+        @Query("MATCH (n:MemoryNote) WHERE n.timestampUtc IS NULL RETURN n")
+        List<LadybugMemoryNote> findWithoutSortableTimestamp();
+
+        @Query("UNWIND $rows AS row MATCH (n:MemoryNote {id: row.id}) WHERE n.timestampUtc IS NULL SET n.timestampUtc = row.timestampUtc")
+        void saveSortableTimestamps(List<Map<String, Object>> rows);
+
+        @Query("UNWIND $deltas AS d MATCH (n:MemoryNote {id: d.id}) SET n.retrievalCount = n.retrievalCount + d.delta")
+        void addRetrievalCounts(List<Map<String, Object>> deltas);
+
+        @Query("UNWIND $codes AS row MATCH (e:NoteEmbedding {noteId: row.noteId}) SET e.code = row.code, e.codeScale = row.scale, e.codeOffset = row.offset")
+        void saveEmbeddingCodes(List<Map<String, Object>> codes);
+
+        @Query("MATCH (e:NoteEmbedding) WHERE e.code IS NULL AND e.embedding IS NOT NULL RETURN e.noteId AS noteId, e.embedding AS embedding LIMIT $limit")
+        List<EmbeddingProjection> findEmbeddingsWithoutCode(long limit);
+
+        @Query("CALL TABLE_INFO('NoteEmbedding') RETURN name")
+        List<String> findEmbeddingColumns();
+
+        @Query("MATCH (e:NoteEmbedding) WHERE e.coarseEmbedding IS NULL RETURN e.noteId AS noteId, e.embedding AS embedding LIMIT $limit")
+        List<EmbeddingProjection> findEmbeddingsWithoutCoarse(long limit);
+
+        @Query("MATCH (e:NoteEmbedding) WHERE e.noteId IN $noteIds DETACH DELETE e")
+        void deleteEmbeddings(List<String> noteIds);
+
+        @Query(value = "UNWIND $embeddings AS row MATCH (n:MemoryNote {id: row.noteId}) CREATE (n)-[:HAS_EMBEDDING]->(e:NoteEmbedding {noteId: row.noteId, embedding: row.embedding})", loadExtensions = {
+                        "vector" })
+        void saveEmbeddings(List<Map<String, Object>> embeddings);
+
+        @Query(value = "UNWIND $embeddings AS row MATCH (n:MemoryNote {id: row.noteId}) CREATE (n)-[:HAS_EMBEDDING]->(e:NoteEmbedding {noteId: row.noteId, embedding: row.embedding, coarseEmbedding: row.coarseEmbedding})", loadExtensions = {
+                        "vector" })
+        void saveEmbeddingsWithCoarse(List<Map<String, Object>> embeddings);
+
+        @Query("UNWIND $embeddings AS row MATCH (n:MemoryNote {id: row.noteId}) CREATE (n)-[:HAS_EMBEDDING]->(e:NoteEmbedding {noteId: row.noteId, code: row.code, codeScale: row.scale, codeOffset: row.offset})")
+        void saveQuantizedEmbeddings(List<Map<String, Object>> embeddings);
+
+        @Query(value = "UNWIND $embeddings AS row MATCH (n:MemoryNote {id: row.noteId}) CREATE (n)-[:HAS_EMBEDDING]->(e:NoteEmbedding {noteId: row.noteId, embedding: row.embedding, code: row.code, codeScale: row.scale, codeOffset: row.offset})", loadExtensions = {
+                        "vector" })
+        void saveQuantizedEmbeddingsWithFullPrecision(List<Map<String, Object>> embeddings);
+
+        @Query("UNWIND $links AS link MATCH (s:MemoryNote {id: link.sourceId}), (t:MemoryNote {id: link.targetId}) MERGE (s)-[r:LINKED_TO {relationType: link.relationType}]->(t) SET r.context = link.context, r.name = link.name")
+        void mergeLinks(List<Map<String, Object>> links);
 }
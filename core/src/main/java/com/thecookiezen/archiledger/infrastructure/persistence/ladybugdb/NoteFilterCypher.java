@@ -0,0 +1,50 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb;
+
+import com.thecookiezen.archiledger.domain.model.NoteFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates a {@link NoteFilter} into Cypher conditions on a {@code MemoryNote} bound to {@code n}.
+ */
+final class NoteFilterCypher {
+
+    private NoteFilterCypher() {
+    }
+
+    /**
+     * @param params receives the query parameters the conditions refer to
+     * @return the conditions joined with {@code AND}, {@code true} for an empty filter
+     */
+    static String conditions(NoteFilter filter, Map<String, Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (!filter.anyTags().isEmpty()) {
+            conditions.add("any(tag IN $anyTags WHERE list_contains(n.tags, tag))");
+            params.put("anyTags", filter.anyTags());
+        }
+        if (!filter.allTags().isEmpty()) {
+            conditions.add("all(tag IN $allTags WHERE list_contains(n.tags, tag))");
+            params.put("allTags", filter.allTags());
+        }
+        // unparseable timestamps are stored as '', which sorts before every bound
+        if (filter.from() != null) {
+            conditions.add("n.timestampUtc >= $from");
+            params.put("from", SortableTimestamps.of(filter.from()));
+        }
+        if (filter.to() != null) {
+            conditions.add("n.timestampUtc <> '' AND n.timestampUtc <= $to");
+            params.put("to", SortableTimestamps.of(filter.to()));
+        }
+        if (filter.minRetrievalCount() != null) {
+            conditions.add("n.retrievalCount >= $minRetrievalCount");
+            params.put("minRetrievalCount", filter.minRetrievalCount().longValue());
+        }
+        if (filter.linkedTo() != null) {
+            conditions.add("EXISTS { MATCH (n)-[:LINKED_TO]-(:MemoryNote {id: $linkedTo}) }");
+            params.put("linkedTo", filter.linkedTo().value());
+        }
+        return conditions.isEmpty() ? "true" : String.join(" AND ", conditions);
+    }
+}
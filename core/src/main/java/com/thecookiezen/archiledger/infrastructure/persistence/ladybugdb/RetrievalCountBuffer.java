@@ -0,0 +1,133 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind buffer for retrieval count increments.
+ * <p>
+ * Increments are accumulated per note in a {@link ConcurrentHashMap} and written periodically, and on shutdown,
+ * as a single {@code UNWIND} statement that adds each delta to the stored count. Until then
+ * {@link #pending(String)} lets readers add the unflushed delta to the persisted value.
+ * <p>
+ * A flush excludes {@link #withoutFlush} sections, so a read never sees a delta both in the stored count and as
+ * pending, and a write that stores a count and discards the pending delta never overlaps a flush adding it.
+ */
+@Component
+public class RetrievalCountBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetrievalCountBuffer.class);
+
+    private final MemoryNoteDbRepository dbRepository;
+    private final long flushIntervalMillis;
+    private final ConcurrentHashMap<String, Long> pending = new ConcurrentHashMap<>();
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    private ScheduledExecutorService scheduler;
+
+    public RetrievalCountBuffer(MemoryNoteDbRepository dbRepository,
+            @Value("${ladybugdb.retrieval-count.flush-interval-ms:1000}") long flushIntervalMillis) {
+        if (flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Retrieval count flush interval must be positive: " + flushIntervalMillis);
+        }
+        this.dbRepository = dbRepository;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> Thread.ofPlatform()
+                .name("retrieval-count-flush")
+                .daemon(true)
+                .unstarted(runnable));
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flushQuietly();
+    }
+
+    public void increment(String noteId) {
+        pending.merge(noteId, 1L, Long::sum);
+    }
+
+    public long pending(String noteId) {
+        return pending.getOrDefault(noteId, 0L);
+    }
+
+    public void discard(String noteId) {
+        pending.remove(noteId);
+    }
+
+    /**
+     * Runs {@code action} while no flush is in progress. Reads that combine stored counts with {@link #pending} and
+     * writes that store a count and {@link #discard} the delta go through here.
+     */
+    public <T> T withoutFlush(Supplier<T> action) {
+        flushLock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    public int flush() {
+        flushLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            Map<String, Long> snapshot = new HashMap<>(pending);
+            List<Map<String, Object>> rows = new ArrayList<>(snapshot.size());
+            snapshot.forEach((noteId, delta) -> {
+                Map<String, Object> row = new HashMap<>();
+                row.put("id", noteId);
+                row.put("delta", delta);
+                rows.add(row);
+            });
+
+            dbRepository.addRetrievalCounts(rows);
+
+            snapshot.forEach((noteId, delta) -> pending.computeIfPresent(noteId,
+                    (id, current) -> current - delta <= 0 ? null : current - delta));
+            return rows.size();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to flush retrieval counts, keeping {} pending notes", pending.size(), e);
+        }
+    }
+}
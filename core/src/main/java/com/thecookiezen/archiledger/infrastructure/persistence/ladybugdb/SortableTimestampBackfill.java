@@ -0,0 +1,45 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb;
+
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LadybugMemoryNote;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills in {@code MemoryNote.timestampUtc} on startup for notes stored before the column existed.
+ */
+@Component
+public class SortableTimestampBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(SortableTimestampBackfill.class);
+
+    private final MemoryNoteDbRepository dbRepository;
+
+    public SortableTimestampBackfill(MemoryNoteDbRepository dbRepository) {
+        this.dbRepository = dbRepository;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        List<LadybugMemoryNote> notes = dbRepository.findWithoutSortableTimestamp();
+        if (notes.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> rows = notes.stream()
+                .map(note -> {
+                    Map<String, Object> row = new HashMap<>();
+                    row.put("id", note.getId());
+                    row.put("timestampUtc", SortableTimestamps.of(note.getTimestamp()));
+                    return row;
+                })
+                .toList();
+        dbRepository.saveSortableTimestamps(rows);
+        logger.info("Stored sortable timestamps of {} existing notes", rows.size());
+    }
+}
@@ -0,0 +1,36 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Fixed-width UTC form of note timestamps, stored in {@code MemoryNote.timestampUtc} so that range filters can compare
+ * strings. Timestamps as written by clients vary in fractional digits and offsets and do not sort chronologically.
+ */
+public final class SortableTimestamps {
+
+    /**
+     * Stored for timestamps that are not ISO-8601 instants, which match no timestamp range.
+     */
+    public static final String UNPARSEABLE = "";
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter
+            .ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSSSSSSS'Z'")
+            .withZone(ZoneOffset.UTC);
+
+    private SortableTimestamps() {
+    }
+
+    public static String of(String timestamp) {
+        if (timestamp == null) {
+            return UNPARSEABLE;
+        }
+        try {
+            return FORMAT.format(Instant.parse(timestamp));
+        } catch (DateTimeParseException e) {
+            return UNPARSEABLE;
+        }
+    }
+}
@@ -1,4 +1,4 @@
 package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model;
 
-public record SimilarityResultProjection(LadybugMemoryNote note, double score) {
+public record ContentHashProjection(String id, String contentHash) {
 }
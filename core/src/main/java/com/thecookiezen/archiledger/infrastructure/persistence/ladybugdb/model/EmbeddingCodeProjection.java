@@ -0,0 +1,4 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model;
+
+public record EmbeddingCodeProjection(String noteId, byte[] code, float codeScale, float codeOffset) {
+}
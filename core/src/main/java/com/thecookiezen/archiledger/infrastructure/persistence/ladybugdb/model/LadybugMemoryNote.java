@@ -24,6 +24,8 @@ public class LadybugMemoryNote {
 
     private int retrievalCount;
 
+    private String contentHash;
+
     public LadybugMemoryNote() {
     }
 
@@ -93,4 +95,12 @@ public class LadybugMemoryNote {
     public void setRetrievalCount(int retrievalCount) {
         this.retrievalCount = retrievalCount;
     }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
 }
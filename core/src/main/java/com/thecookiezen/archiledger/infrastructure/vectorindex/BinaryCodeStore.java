@@ -0,0 +1,133 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Sign-bit codes of embeddings, one bit per dimension packed into longs, in a direct buffer outside the heap.
+ * Removal moves the last code into the freed slot, so the codes stay contiguous for scanning.
+ * <p>
+ * Not thread-safe.
+ */
+final class BinaryCodeStore {
+
+    private final int dimensions;
+    private final int words;
+    private final Map<String, Integer> slots = new HashMap<>();
+    private String[] ids = new String[0];
+    private LongBuffer codes = allocate(0);
+    private int size;
+
+    BinaryCodeStore(int dimensions) {
+        if (dimensions <= 0) {
+            throw new IllegalArgumentException("Dimensions must be positive: " + dimensions);
+        }
+        this.dimensions = dimensions;
+        this.words = (dimensions + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void put(String id, float[] vector) {
+        long[] code = encode(vector);
+        Integer slot = slots.get(id);
+        if (slot == null) {
+            if (size == ids.length) {
+                grow(Math.max(16, size * 2));
+            }
+            slot = size++;
+            slots.put(id, slot);
+            ids[slot] = id;
+        }
+        codes.put(slot * words, code);
+    }
+
+    void remove(String id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return;
+        }
+        int last = --size;
+        if (slot != last) {
+            for (int w = 0; w < words; w++) {
+                codes.put(slot * words + w, codes.get(last * words + w));
+            }
+            ids[slot] = ids[last];
+            slots.put(ids[slot], slot);
+        }
+        ids[last] = null;
+    }
+
+    /**
+     * @return the {@code count} stored ids closest to {@code query} by Hamming distance, closest first
+     */
+    List<Match> nearest(float[] query, int count) {
+        if (count <= 0 || size == 0) {
+            return List.of();
+        }
+        long[] code = encode(query);
+        // max-heap of (distance << 32 | slot), the root is the farthest code kept so far
+        PriorityQueue<Long> closest = new PriorityQueue<>(Math.min(count, size) + 1, Collections.reverseOrder());
+        for (int slot = 0; slot < size; slot++) {
+            int base = slot * words;
+            int distance = 0;
+            for (int w = 0; w < words; w++) {
+                distance += Long.bitCount(codes.get(base + w) ^ code[w]);
+            }
+            if (closest.size() < count) {
+                closest.add(((long) distance << 32) | slot);
+            } else if (distance < (int) (closest.peek() >>> 32)) {
+                closest.poll();
+                closest.add(((long) distance << 32) | slot);
+            }
+        }
+        List<Match> matches = new ArrayList<>(closest.size());
+        while (!closest.isEmpty()) {
+            long entry = closest.poll();
+            matches.add(new Match(ids[(int) entry], (int) (entry >>> 32)));
+        }
+        Collections.reverse(matches);
+        return matches;
+    }
+
+    long[] encode(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+        long[] code = new long[words];
+        for (int i = 0; i < dimensions; i++) {
+            if (vector[i] > 0) {
+                code[i >>> 6] |= 1L << (i & 63);
+            }
+        }
+        return code;
+    }
+
+    private void grow(int capacity) {
+        LongBuffer grown = allocate(capacity * words);
+        grown.put(0, codes, 0, size * words);
+        codes = grown;
+        ids = Arrays.copyOf(ids, capacity);
+    }
+
+    private static LongBuffer allocate(int longs) {
+        return ByteBuffer.allocateDirect(Math.multiplyExact(longs, Long.BYTES)).order(ByteOrder.nativeOrder())
+                .asLongBuffer();
+    }
+
+    /**
+     * @param hamming number of differing sign bits
+     */
+    record Match(String id, int hamming) {
+    }
+}
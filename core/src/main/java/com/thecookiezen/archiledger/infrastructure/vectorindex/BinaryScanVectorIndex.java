@@ -0,0 +1,134 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import com.ladybugdb.Connection;
+import com.ladybugdb.Database;
+import com.ladybugdb.FlatTuple;
+import com.ladybugdb.QueryResult;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.VectorMatch;
+import com.thecookiezen.archiledger.domain.repository.VectorIndex;
+import com.thecookiezen.archiledger.infrastructure.config.LadybugDBConfig;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteDbRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.EmbeddingProjection;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Full-scan {@link VectorIndex} for small deployments, where scanning every note is cheaper than maintaining an
+ * HNSW graph. Each embedding is kept as one sign bit per dimension in an off-heap buffer; a search shortlists the
+ * {@code topK * ladybugdb.vector-index.binary.candidate-multiplier} codes with the smallest Hamming distance to the
+ * query, then re-scores them against their full-precision embeddings from the database. The Hamming scan is exact, the
+ * final ranking is not: a near note whose sign bits fall outside the shortlist is never re-scored.
+ * <p>
+ * The codes are rebuilt from the stored embeddings on startup. There is no search effort to tune, {@code efs} is
+ * ignored.
+ */
+@Component
+@ConditionalOnProperty(name = "ladybugdb.vector-index.backend", havingValue = "binary")
+public class BinaryScanVectorIndex implements VectorIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinaryScanVectorIndex.class);
+
+    private final Database database;
+    private final MemoryNoteDbRepository dbRepository;
+    private final ExactReranker reranker;
+    private final int candidateMultiplier;
+    private final BinaryCodeStore codes;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public BinaryScanVectorIndex(Database database, MemoryNoteDbRepository dbRepository, ExactReranker reranker,
+            @Value("${ladybugdb.embeddingDimensions:384}") int dimensions,
+            @Value("${ladybugdb.vector-index.binary.candidate-multiplier:10}") int candidateMultiplier,
+            @Value("${ladybugdb.vector-index.coarse.dimensions:0}") int coarseDimensions) {
+        if (candidateMultiplier < 1) {
+            throw new IllegalArgumentException("Binary candidate multiplier must be at least 1: " + candidateMultiplier);
+        }
+        if (coarseDimensions != 0) {
+            throw new IllegalStateException("ladybugdb.vector-index.coarse.dimensions requires ladybugdb.vector-index.backend=ladybug");
+        }
+        this.database = database;
+        this.dbRepository = dbRepository;
+        this.reranker = reranker;
+        this.candidateMultiplier = candidateMultiplier;
+        this.codes = new BinaryCodeStore(dimensions);
+    }
+
+    @PostConstruct
+    public void start() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try (Connection conn = new Connection(database);
+                QueryResult result = conn.query("MATCH (e:NoteEmbedding) RETURN e.noteId, e.embedding")) {
+            if (!result.isSuccess()) {
+                throw new IllegalStateException("Failed to read embeddings: " + result.getErrorMessage());
+            }
+            while (result.hasNext()) {
+                FlatTuple row = result.getNext();
+                codes.put(row.getValue(0).getValue(), LadybugDBConfig.asFloatArray(row.getValue(1).getValue()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Encoded {} embeddings as binary codes in {} ms", codes.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public List<VectorMatch> search(float[] query, int topK, int efs) {
+        int candidates = (int) Math.min(Integer.MAX_VALUE, (long) topK * candidateMultiplier);
+        List<BinaryCodeStore.Match> shortlist;
+        lock.readLock().lock();
+        try {
+            shortlist = codes.nearest(query, candidates);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (shortlist.isEmpty()) {
+            return List.of();
+        }
+        List<VectorMatch> matches = shortlist.stream()
+                .map(match -> new VectorMatch(new MemoryNoteId(match.id()), (double) match.hamming() / query.length))
+                .toList();
+        Map<MemoryNoteId, float[]> embeddings = new HashMap<>();
+        for (EmbeddingProjection row : dbRepository.findEmbeddings(shortlist.stream().map(BinaryCodeStore.Match::id).toList())) {
+            embeddings.put(new MemoryNoteId(row.noteId()), row.embedding());
+        }
+        return reranker.rerank(query, matches, embeddings, topK);
+    }
+
+    @Override
+    public void upsert(MemoryNoteId id, float[] embedding) {
+        upsertAll(Map.of(id, embedding));
+    }
+
+    @Override
+    public void upsertAll(Map<MemoryNoteId, float[]> embeddings) {
+        lock.writeLock().lock();
+        try {
+            embeddings.forEach((id, embedding) -> codes.put(id.value(), embedding));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(MemoryNoteId id) {
+        lock.writeLock().lock();
+        try {
+            codes.remove(id.value());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+/**
+ * Inner loops of the distance functions, so that a SIMD implementation can replace the scalar one.
+ */
+interface DistanceKernel {
+
+    float dot(float[] a, float[] b);
+
+    float squaredDistance(float[] a, float[] b);
+
+    /**
+     * Dot product of {@code a} with the vector {@code codes} encode, see {@link QuantizedVector}.
+     */
+    float dot(float[] a, byte[] codes, float scale, float offset);
+
+    float squaredDistance(float[] a, byte[] codes, float scale, float offset);
+}
@@ -0,0 +1,34 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class DistanceKernels {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistanceKernels.class);
+
+    private DistanceKernels() {
+    }
+
+    /**
+     * The SIMD kernel when core was built with the {@code simd} profile and the JVM was started with
+     * {@code --add-modules jdk.incubator.vector}, the scalar one otherwise. The SIMD class is only loaded in the
+     * second case, so its missing module cannot fail class loading.
+     */
+    static DistanceKernel best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (DistanceKernel) Class.forName(DistanceKernels.class.getPackageName() + ".SimdDistanceKernel")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ClassNotFoundException e) {
+                logger.info("Core was built without the simd profile, using scalar distance kernel");
+            } catch (ReflectiveOperationException | LinkageError e) {
+                logger.warn("Vector API is present but unusable, using scalar distance kernel", e);
+            }
+        } else {
+            logger.info("Start the JVM with --add-modules jdk.incubator.vector to use SIMD distance kernels");
+        }
+        return new ScalarDistanceKernel();
+    }
+}
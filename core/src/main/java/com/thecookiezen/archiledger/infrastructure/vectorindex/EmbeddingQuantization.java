@@ -0,0 +1,37 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import java.util.Locale;
+
+/**
+ * How embeddings are encoded for candidate generation, set with {@code ladybugdb.embedding.quantization}. With int8,
+ * {@code NoteEmbedding} stores the codes, and full precision vectors only when re-ranking is on by default.
+ */
+public enum EmbeddingQuantization {
+    /** Float vectors. */
+    NONE,
+    /** {@link QuantizedVector} codes, a quarter of the memory of float vectors at a small loss of accuracy. */
+    INT8;
+
+    public static EmbeddingQuantization parse(String quantization) {
+        return switch (quantization.toLowerCase(Locale.ROOT)) {
+            case "none", "" -> NONE;
+            case "int8" -> INT8;
+            default -> throw new IllegalArgumentException("Unsupported embedding quantization: " + quantization);
+        };
+    }
+
+    /**
+     * Whether {@code NoteEmbedding.embedding} is written: always for float vectors, for int8 codes only when
+     * {@code ladybugdb.vector-index.rerank.enabled} is set, since re-ranking is what reads it.
+     */
+    public boolean storesFullPrecision(boolean rerankByDefault) {
+        return this == NONE || rerankByDefault;
+    }
+
+    VectorStore newStore(int dimensions, DistanceKernel kernel) {
+        return switch (this) {
+            case NONE -> new FloatVectorStore(dimensions, kernel);
+            case INT8 -> new Int8VectorStore(dimensions, kernel);
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.VectorMatch;
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Second stage of a similarity search: re-scores the candidates of an approximate index against their full-precision
+ * embeddings and keeps the closest. Fetching {@code topK * oversample} candidates at a low search effort and
+ * re-ranking them is usually cheaper than raising the effort until the index alone finds the same neighbours.
+ * <p>
+ * Distances match the ones LadybugDB computes for {@code ladybugdb.hnsw.metric}, so re-ranked scores are comparable
+ * with unranked ones.
+ */
+@Component
+public class ExactReranker {
+
+    private final HnswGraph.Metric metric;
+    private final boolean enabledByDefault;
+    private final int defaultOversample;
+    private final DistanceKernel kernel;
+
+    public ExactReranker(@Value("${ladybugdb.hnsw.metric:cosine}") String metric,
+            @Value("${ladybugdb.vector-index.rerank.enabled:false}") boolean enabledByDefault,
+            @Value("${ladybugdb.vector-index.rerank.oversample:4}") int defaultOversample) {
+        this(HnswGraph.Metric.parse(metric), enabledByDefault, defaultOversample, DistanceKernels.best());
+    }
+
+    ExactReranker(HnswGraph.Metric metric, boolean enabledByDefault, int defaultOversample, DistanceKernel kernel) {
+        if (defaultOversample < 1) {
+            throw new IllegalArgumentException("Re-rank oversample must be at least 1: " + defaultOversample);
+        }
+        this.metric = metric;
+        this.enabledByDefault = enabledByDefault;
+        this.defaultOversample = defaultOversample;
+        this.kernel = kernel;
+    }
+
+    public boolean isEnabled(VectorSearchOptions options) {
+        return options.rerank() != null ? options.rerank() : enabledByDefault;
+    }
+
+    public boolean isEnabledByDefault() {
+        return enabledByDefault;
+    }
+
+    /**
+     * Number of candidates to ask the index for, {@code topK} when re-ranking is off.
+     */
+    public int candidateCount(int topK, VectorSearchOptions options) {
+        if (!isEnabled(options)) {
+            return topK;
+        }
+        int oversample = options.oversample() > 0 ? options.oversample() : defaultOversample;
+        return (int) Math.min(Integer.MAX_VALUE, (long) topK * oversample);
+    }
+
+    /**
+     * Re-scores {@code candidates} against {@code embeddings} and returns the closest {@code topK}. Candidates
+     * without a stored embedding, such as notes deleted since the index search, are dropped.
+     */
+    public List<VectorMatch> rerank(float[] query, List<VectorMatch> candidates, Map<MemoryNoteId, float[]> embeddings,
+            int topK) {
+        float queryNorm = (float) Math.sqrt(kernel.dot(query, query));
+        List<VectorMatch> rescored = new ArrayList<>(candidates.size());
+        for (VectorMatch candidate : candidates) {
+            float[] embedding = embeddings.get(candidate.id());
+            if (embedding != null) {
+                rescored.add(new VectorMatch(candidate.id(), distance(query, queryNorm, embedding)));
+            }
+        }
+        rescored.sort(Comparator.comparingDouble(VectorMatch::distance));
+        return rescored.size() > topK ? List.copyOf(rescored.subList(0, topK)) : rescored;
+    }
+
+    double distance(float[] query, float queryNorm, float[] embedding) {
+        return switch (metric) {
+            case COSINE -> {
+                double norms = queryNorm * Math.sqrt(kernel.dot(embedding, embedding));
+                yield norms == 0 ? 1.0 : 1.0 - kernel.dot(query, embedding) / norms;
+            }
+            case L2 -> Math.sqrt(kernel.squaredDistance(query, embedding));
+            case L2SQ -> kernel.squaredDistance(query, embedding);
+            case DOT_PRODUCT -> 1.0 - kernel.dot(query, embedding);
+        };
+    }
+}
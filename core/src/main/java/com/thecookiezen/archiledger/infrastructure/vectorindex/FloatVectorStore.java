@@ -0,0 +1,60 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+final class FloatVectorStore implements VectorStore {
+
+    private final int dimensions;
+    private final DistanceKernel kernel;
+    private float[][] vectors = new float[0][];
+
+    FloatVectorStore(int dimensions, DistanceKernel kernel) {
+        this.dimensions = dimensions;
+        this.kernel = kernel;
+    }
+
+    @Override
+    public float dot(float[] query, int node) {
+        return kernel.dot(query, vectors[node]);
+    }
+
+    @Override
+    public float squaredDistance(float[] query, int node) {
+        return kernel.squaredDistance(query, vectors[node]);
+    }
+
+    @Override
+    public float[] vector(int node) {
+        return vectors[node];
+    }
+
+    @Override
+    public void set(int node, float[] vector) {
+        vectors[node] = vector;
+    }
+
+    @Override
+    public void grow(int capacity) {
+        vectors = Arrays.copyOf(vectors, capacity);
+    }
+
+    @Override
+    public int bytesPerVector() {
+        return dimensions * Float.BYTES;
+    }
+
+    @Override
+    public void write(int node, ByteBuffer out) {
+        out.asFloatBuffer().put(vectors[node]);
+        out.position(out.position() + bytesPerVector());
+    }
+
+    @Override
+    public void read(int node, ByteBuffer in) {
+        float[] vector = new float[dimensions];
+        in.asFloatBuffer().get(vector);
+        in.position(in.position() + bytesPerVector());
+        vectors[node] = vector;
+    }
+}
@@ -0,0 +1,508 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Hierarchical navigable small world graph over float vectors, keyed by string ids. Vectors are kept in the
+ * encoding of an {@link EmbeddingQuantization}, so an int8 graph returns approximate distances.
+ * <p>
+ * Removed or replaced vectors stay in the graph as tombstones so that it stays navigable; they are skipped in
+ * results and dropped by {@link #compacted()}. Not thread-safe: callers serialize writes against reads.
+ */
+final class HnswGraph {
+
+    private static final int MAGIC = 0x484E5357;
+    private static final int VERSION = 2;
+    private static final int HEADER_INTS = 11;
+    private static final long WINDOW_BYTES = 64L * 1024 * 1024;
+
+    enum Metric {
+        COSINE, L2, L2SQ, DOT_PRODUCT;
+
+        static Metric parse(String metric) {
+            return switch (metric.toLowerCase(Locale.ROOT)) {
+                case "cosine" -> COSINE;
+                case "l2", "euclidean" -> L2;
+                case "l2sq" -> L2SQ;
+                case "dotproduct", "dot_product" -> DOT_PRODUCT;
+                default -> throw new IllegalArgumentException("Unsupported vector index metric: " + metric);
+            };
+        }
+    }
+
+    record Match(String id, float distance) {
+    }
+
+    private record Candidate(int node, float distance) {
+    }
+
+    private static final Comparator<Candidate> CLOSEST_FIRST = Comparator.comparingDouble(Candidate::distance);
+    private static final Comparator<Candidate> FARTHEST_FIRST = CLOSEST_FIRST.reversed();
+
+    private final int dimensions;
+    private final Metric metric;
+    private final int maxDegree;
+    private final int maxDegreeBase;
+    private final int efConstruction;
+    private final EmbeddingQuantization quantization;
+    private final DistanceKernel kernel;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+
+    private final Map<String, Integer> nodesById = new HashMap<>();
+    private final VectorStore vectors;
+    private String[] ids = new String[16];
+    private int[][][] neighbors = new int[16][][];
+    private final BitSet deleted = new BitSet();
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    /**
+     * @param maxDegree      max neighbours per node in the upper layers
+     * @param maxDegreeBase  max neighbours per node in the bottom layer
+     * @param efConstruction candidate list size while inserting
+     */
+    HnswGraph(int dimensions, Metric metric, int maxDegree, int maxDegreeBase, int efConstruction,
+            EmbeddingQuantization quantization, DistanceKernel kernel) {
+        if (dimensions <= 0 || maxDegree <= 1 || maxDegreeBase <= 1 || efConstruction <= 0) {
+            throw new IllegalArgumentException("Dimensions and efConstruction must be positive, degrees above one");
+        }
+        this.dimensions = dimensions;
+        this.metric = metric;
+        this.maxDegree = maxDegree;
+        this.maxDegreeBase = maxDegreeBase;
+        this.efConstruction = efConstruction;
+        this.quantization = quantization;
+        this.kernel = kernel;
+        this.levelMultiplier = 1.0 / Math.log(maxDegree);
+        this.vectors = quantization.newStore(dimensions, kernel);
+        this.vectors.grow(ids.length);
+    }
+
+    int dimensions() {
+        return dimensions;
+    }
+
+    Metric metric() {
+        return metric;
+    }
+
+    boolean hasParameters(int dimensions, Metric metric, int maxDegree, int maxDegreeBase, int efConstruction,
+            EmbeddingQuantization quantization) {
+        return this.dimensions == dimensions && this.metric == metric && this.maxDegree == maxDegree
+                && this.maxDegreeBase == maxDegreeBase && this.efConstruction == efConstruction
+                && this.quantization == quantization;
+    }
+
+    int liveCount() {
+        return nodesById.size();
+    }
+
+    int deletedCount() {
+        return size - nodesById.size();
+    }
+
+    void insert(String id, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Vector for " + id + " has " + vector.length + " dimensions, expected "
+                    + dimensions);
+        }
+        remove(id);
+        float[] stored = prepare(vector);
+        int level = (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+        int node = append(id, stored, level);
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        int current = entryPoint;
+        float currentDistance = distance(stored, current);
+        for (int l = maxLevel; l > level; l--) {
+            Candidate closest = greedyClosest(stored, current, currentDistance, l);
+            current = closest.node();
+            currentDistance = closest.distance();
+        }
+
+        List<Candidate> entryPoints = List.of(new Candidate(current, currentDistance));
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Candidate> candidates = searchLayer(stored, entryPoints, efConstruction, l);
+            int degree = l == 0 ? maxDegreeBase : maxDegree;
+            int[] selected = selectNeighbours(candidates, degree);
+            neighbors[node][l] = selected;
+            for (int neighbour : selected) {
+                connect(neighbour, node, l, degree);
+            }
+            entryPoints = candidates;
+        }
+
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+    }
+
+    void remove(String id) {
+        Integer node = nodesById.remove(id);
+        if (node != null) {
+            deleted.set(node);
+        }
+    }
+
+    /**
+     * @return up to {@code k} live vectors ordered by increasing distance
+     */
+    List<Match> search(float[] query, int k, int ef) {
+        if (entryPoint < 0 || nodesById.isEmpty()) {
+            return List.of();
+        }
+        float[] prepared = prepare(query);
+        // tombstones take up candidate slots, widen the search so they do not crowd out live results
+        int width = Math.max(ef, k) + Math.min(deletedCount(), Math.max(ef, k));
+
+        int current = entryPoint;
+        float currentDistance = distance(prepared, current);
+        for (int l = maxLevel; l > 0; l--) {
+            Candidate closest = greedyClosest(prepared, current, currentDistance, l);
+            current = closest.node();
+            currentDistance = closest.distance();
+        }
+
+        List<Candidate> candidates = searchLayer(prepared, List.of(new Candidate(current, currentDistance)), width, 0);
+        List<Match> matches = new ArrayList<>(Math.min(k, candidates.size()));
+        for (Candidate candidate : candidates) {
+            if (matches.size() == k) {
+                break;
+            }
+            if (!deleted.get(candidate.node())) {
+                matches.add(new Match(ids[candidate.node()], candidate.distance()));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * A new graph with only the live vectors.
+     */
+    HnswGraph compacted() {
+        HnswGraph graph = new HnswGraph(dimensions, metric, maxDegree, maxDegreeBase, efConstruction, quantization,
+                kernel);
+        for (int node = 0; node < size; node++) {
+            if (!deleted.get(node)) {
+                graph.insert(ids[node], vectors.vector(node));
+            }
+        }
+        return graph;
+    }
+
+    private float[] prepare(float[] vector) {
+        if (metric != Metric.COSINE) {
+            return vector;
+        }
+        float norm = (float) Math.sqrt(kernel.dot(vector, vector));
+        float[] normalized = new float[vector.length];
+        if (norm > 0f) {
+            for (int i = 0; i < vector.length; i++) {
+                normalized[i] = vector[i] / norm;
+            }
+        }
+        return normalized;
+    }
+
+    private float distance(float[] query, int node) {
+        return switch (metric) {
+            case COSINE, DOT_PRODUCT -> 1f - vectors.dot(query, node);
+            case L2 -> (float) Math.sqrt(vectors.squaredDistance(query, node));
+            case L2SQ -> vectors.squaredDistance(query, node);
+        };
+    }
+
+    private int append(String id, float[] vector, int level) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            vectors.grow(capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            neighbors = Arrays.copyOf(neighbors, capacity);
+        }
+        int node = size++;
+        vectors.set(node, vector);
+        ids[node] = id;
+        neighbors[node] = new int[level + 1][];
+        Arrays.fill(neighbors[node], new int[0]);
+        nodesById.put(id, node);
+        return node;
+    }
+
+    private Candidate greedyClosest(float[] query, int start, float startDistance, int level) {
+        int current = start;
+        float currentDistance = startDistance;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbour : neighbors[current][level]) {
+                float d = distance(query, neighbour);
+                if (d < currentDistance) {
+                    current = neighbour;
+                    currentDistance = d;
+                    improved = true;
+                }
+            }
+        }
+        return new Candidate(current, currentDistance);
+    }
+
+    /**
+     * @return the {@code ef} closest nodes found, ordered by increasing distance
+     */
+    private List<Candidate> searchLayer(float[] query, List<Candidate> entryPoints, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Candidate> toVisit = new PriorityQueue<>(CLOSEST_FIRST);
+        PriorityQueue<Candidate> found = new PriorityQueue<>(FARTHEST_FIRST);
+        for (Candidate entry : entryPoints) {
+            visited.set(entry.node());
+            toVisit.add(entry);
+            found.add(entry);
+        }
+        while (found.size() > ef) {
+            found.poll();
+        }
+
+        while (!toVisit.isEmpty()) {
+            Candidate closest = toVisit.poll();
+            if (found.size() >= ef && closest.distance() > found.peek().distance()) {
+                break;
+            }
+            for (int neighbour : neighbors[closest.node()][level]) {
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float d = distance(query, neighbour);
+                if (found.size() < ef || d < found.peek().distance()) {
+                    Candidate candidate = new Candidate(neighbour, d);
+                    toVisit.add(candidate);
+                    found.add(candidate);
+                    if (found.size() > ef) {
+                        found.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> result = new ArrayList<>(found);
+        result.sort(CLOSEST_FIRST);
+        return result;
+    }
+
+    /**
+     * The HNSW neighbour heuristic: a candidate is kept only if it is closer to the new node than to every
+     * neighbour kept so far, which spreads edges across directions instead of clustering them.
+     */
+    private int[] selectNeighbours(List<Candidate> candidates, int degree) {
+        List<Candidate> selected = new ArrayList<>(degree);
+        for (Candidate candidate : candidates) {
+            if (selected.size() == degree) {
+                break;
+            }
+            boolean diverse = true;
+            for (Candidate kept : selected) {
+                if (distance(vectors.vector(candidate.node()), kept.node()) < candidate.distance()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected.add(candidate);
+            }
+        }
+        // fill up with the closest remaining candidates so sparse regions stay connected
+        for (Candidate candidate : candidates) {
+            if (selected.size() == degree) {
+                break;
+            }
+            if (!selected.contains(candidate)) {
+                selected.add(candidate);
+            }
+        }
+        return selected.stream().mapToInt(Candidate::node).toArray();
+    }
+
+    private void connect(int node, int neighbour, int level, int degree) {
+        int[] current = neighbors[node][level];
+        int[] extended = Arrays.copyOf(current, current.length + 1);
+        extended[current.length] = neighbour;
+        if (extended.length <= degree) {
+            neighbors[node][level] = extended;
+            return;
+        }
+        float[] vector = vectors.vector(node);
+        List<Candidate> candidates = new ArrayList<>(extended.length);
+        for (int candidate : extended) {
+            candidates.add(new Candidate(candidate, distance(vector, candidate)));
+        }
+        candidates.sort(CLOSEST_FIRST);
+        neighbors[node][level] = selectNeighbours(candidates, degree);
+    }
+
+    /**
+     * Writes the graph through memory-mapped windows of the file, replacing it atomically.
+     */
+    void writeTo(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        long headerBytes = HEADER_INTS * Integer.BYTES;
+        long[] recordBytes = new long[size];
+        long totalBytes = headerBytes;
+        for (int node = 0; node < size; node++) {
+            recordBytes[node] = 1 + 2 * Integer.BYTES + ids[node].getBytes(StandardCharsets.UTF_8).length
+                    + vectors.bytesPerVector();
+            for (int[] level : neighbors[node]) {
+                recordBytes[node] += Integer.BYTES + (long) level.length * Integer.BYTES;
+            }
+            totalBytes += recordBytes[node];
+        }
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedWindow out = new MappedWindow(channel, FileChannel.MapMode.READ_WRITE, totalBytes);
+            out.ensure(headerBytes);
+            out.buffer.putInt(MAGIC).putInt(VERSION).putInt(dimensions).putInt(metric.ordinal()).putInt(maxDegree)
+                    .putInt(maxDegreeBase).putInt(efConstruction).putInt(quantization.ordinal()).putInt(size)
+                    .putInt(entryPoint).putInt(maxLevel);
+            for (int node = 0; node < size; node++) {
+                byte[] id = ids[node].getBytes(StandardCharsets.UTF_8);
+                int[][] levels = neighbors[node];
+                out.ensure(recordBytes[node]);
+                out.buffer.put((byte) (deleted.get(node) ? 1 : 0)).putInt(levels.length - 1).putInt(id.length).put(id);
+                vectors.write(node, out.buffer);
+                for (int[] level : levels) {
+                    out.buffer.putInt(level.length);
+                    out.buffer.asIntBuffer().put(level);
+                    out.skip((long) level.length * Integer.BYTES);
+                }
+            }
+            out.buffer.force();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static HnswGraph readFrom(Path path, DistanceKernel kernel) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedWindow in = new MappedWindow(channel, FileChannel.MapMode.READ_ONLY, channel.size());
+            in.ensure(HEADER_INTS * Integer.BYTES);
+            if (in.buffer.getInt() != MAGIC || in.buffer.getInt() != VERSION) {
+                throw new IOException("Not a vector index file: " + path);
+            }
+            int dimensions = in.buffer.getInt();
+            Metric metric = Metric.values()[in.buffer.getInt()];
+            int maxDegree = in.buffer.getInt();
+            int maxDegreeBase = in.buffer.getInt();
+            int efConstruction = in.buffer.getInt();
+            EmbeddingQuantization quantization = EmbeddingQuantization.values()[in.buffer.getInt()];
+            HnswGraph graph = new HnswGraph(dimensions, metric, maxDegree, maxDegreeBase, efConstruction, quantization,
+                    kernel);
+            int size = in.buffer.getInt();
+            int entryPoint = in.buffer.getInt();
+            int maxLevel = in.buffer.getInt();
+
+            graph.ids = new String[Math.max(size, 16)];
+            graph.vectors.grow(graph.ids.length);
+            graph.neighbors = new int[graph.ids.length][][];
+            for (int node = 0; node < size; node++) {
+                in.ensure(1 + 2 * Integer.BYTES);
+                boolean isDeleted = in.buffer.get() == 1;
+                int level = in.buffer.getInt();
+                byte[] id = new byte[in.buffer.getInt()];
+                in.ensure(id.length + (long) graph.vectors.bytesPerVector());
+                in.buffer.get(id);
+                graph.vectors.read(node, in.buffer);
+                int[][] levels = new int[level + 1][];
+                for (int l = 0; l <= level; l++) {
+                    in.ensure(Integer.BYTES);
+                    int[] adjacent = new int[in.buffer.getInt()];
+                    in.ensure((long) adjacent.length * Integer.BYTES);
+                    in.buffer.asIntBuffer().get(adjacent);
+                    in.skip((long) adjacent.length * Integer.BYTES);
+                    levels[l] = adjacent;
+                }
+
+                String nodeId = new String(id, StandardCharsets.UTF_8);
+                graph.ids[node] = nodeId;
+                graph.neighbors[node] = levels;
+                if (isDeleted) {
+                    graph.deleted.set(node);
+                } else {
+                    graph.nodesById.put(nodeId, node);
+                }
+            }
+            graph.size = size;
+            graph.entryPoint = entryPoint;
+            graph.maxLevel = maxLevel;
+            // keep the level distribution of new inserts independent of the one the file was built with
+            graph.random.setSeed(size);
+            return graph;
+        }
+    }
+
+    /**
+     * Sequential access through a sliding window, since a single mapping is limited to 2 GB.
+     */
+    private static final class MappedWindow {
+
+        private final FileChannel channel;
+        private final FileChannel.MapMode mode;
+        private final long fileBytes;
+        private MappedByteBuffer buffer;
+        private long windowStart;
+
+        MappedWindow(FileChannel channel, FileChannel.MapMode mode, long fileBytes) {
+            this.channel = channel;
+            this.mode = mode;
+            this.fileBytes = fileBytes;
+        }
+
+        void ensure(long bytes) throws IOException {
+            if (buffer != null && buffer.remaining() >= bytes) {
+                return;
+            }
+            long start = buffer == null ? 0 : windowStart + buffer.position();
+            if (start + bytes > fileBytes) {
+                throw new IOException("Vector index file is truncated");
+            }
+            if (buffer != null && mode == FileChannel.MapMode.READ_WRITE) {
+                buffer.force();
+            }
+            buffer = channel.map(mode, start, Math.min(Math.max(bytes, WINDOW_BYTES), fileBytes - start));
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            windowStart = start;
+        }
+
+        void skip(long bytes) {
+            buffer.position(buffer.position() + (int) bytes);
+        }
+    }
+}
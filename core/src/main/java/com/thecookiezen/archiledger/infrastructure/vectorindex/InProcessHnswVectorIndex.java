@@ -0,0 +1,321 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import com.ladybugdb.Connection;
+import com.ladybugdb.Database;
+import com.ladybugdb.FlatTuple;
+import com.ladybugdb.QueryResult;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.VectorMatch;
+import com.thecookiezen.archiledger.domain.repository.VectorIndex;
+import com.thecookiezen.archiledger.infrastructure.config.LadybugDBConfig;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link VectorIndex} that keeps an HNSW graph in the JVM heap instead of querying LadybugDB's vector index.
+ * <p>
+ * Distances run on the JDK Vector API when core is built with the {@code simd} profile and the
+ * {@code jdk.incubator.vector} module is added to the JVM. With a
+ * persistent {@code ladybugdb.data-path}, the graph is written next to the database, to
+ * {@code <database>.vector-index.hnsw}, through memory-mapped windows, periodically and on shutdown, and loaded from
+ * there on startup. The first change after a write deletes the file, so after an unclean shutdown the graph is rebuilt
+ * from the embeddings in the database rather than served stale.
+ * <p>
+ * Writers are serialized by a mutex and hold the write lock only while they change the graph. Compaction builds the
+ * replacement graph while holding just the mutex, so searches go on until the new graph is swapped in.
+ * <p>
+ * With {@code ladybugdb.embedding.quantization=int8} the graph holds int8 codes instead of floats, and is rebuilt
+ * from the codes {@code NoteEmbedding} stores.
+ */
+@Component
+@ConditionalOnProperty(name = "ladybugdb.vector-index.backend", havingValue = "in-process")
+public class InProcessHnswVectorIndex implements VectorIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(InProcessHnswVectorIndex.class);
+
+    static final String FILE_SUFFIX = ".vector-index.hnsw";
+
+    private final Database database;
+    private final Path file;
+    private final int dimensions;
+    private final HnswGraph.Metric metric;
+    private final int maxDegree;
+    private final int maxDegreeBase;
+    private final int efConstruction;
+    private final int defaultEfs;
+    private final EmbeddingQuantization quantization;
+    private final long flushIntervalMillis;
+    private final DistanceKernel kernel = DistanceKernels.best();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock writeMutex = new ReentrantLock();
+
+    private HnswGraph graph;
+    private boolean dirty;
+    private ScheduledExecutorService scheduler;
+
+    public InProcessHnswVectorIndex(Database database,
+            @Value("${ladybugdb.data-path:}") String dataPath,
+            @Value("${ladybugdb.embeddingDimensions:384}") int dimensions,
+            @Value("${ladybugdb.hnsw.metric:cosine}") String metric,
+            @Value("${ladybugdb.hnsw.mu:30}") int maxDegree,
+            @Value("${ladybugdb.hnsw.ml:60}") int maxDegreeBase,
+            @Value("${ladybugdb.hnsw.efc:300}") int efConstruction,
+            @Value("${ladybugdb.hnsw.efs:200}") int defaultEfs,
+            @Value("${ladybugdb.embedding.quantization:none}") String quantization,
+            @Value("${ladybugdb.vector-index.coarse.dimensions:0}") int coarseDimensions,
+            @Value("${ladybugdb.vector-index.flush-interval-ms:60000}") long flushIntervalMillis) {
+        if (defaultEfs <= 0) {
+            throw new IllegalArgumentException("Default HNSW efs must be positive: " + defaultEfs);
+        }
+        if (coarseDimensions != 0) {
+            throw new IllegalStateException("ladybugdb.vector-index.coarse.dimensions requires ladybugdb.vector-index.backend=ladybug");
+        }
+        if (flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Vector index flush interval must be positive: " + flushIntervalMillis);
+        }
+        this.database = database;
+        this.file = dataPath == null || dataPath.isBlank() ? null : snapshotFile(dataPath);
+        this.dimensions = dimensions;
+        this.metric = HnswGraph.Metric.parse(metric);
+        this.maxDegree = maxDegree;
+        this.maxDegreeBase = maxDegreeBase;
+        this.efConstruction = efConstruction;
+        this.defaultEfs = defaultEfs;
+        this.quantization = EmbeddingQuantization.parse(quantization);
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        graph = load();
+        if (file != null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> Thread.ofPlatform()
+                    .name("vector-index-flush")
+                    .daemon(true)
+                    .unstarted(runnable));
+            scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flushQuietly();
+    }
+
+    @Override
+    public List<VectorMatch> search(float[] query, int topK, int efs) {
+        int effectiveEfs = Math.max(efs > 0 ? efs : defaultEfs, topK);
+        lock.readLock().lock();
+        try {
+            return graph.search(query, topK, effectiveEfs).stream()
+                    .map(match -> new VectorMatch(new MemoryNoteId(match.id()), match.distance()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(MemoryNoteId id, float[] embedding) {
+        upsertAll(Map.of(id, embedding));
+    }
+
+    @Override
+    public void upsertAll(Map<MemoryNoteId, float[]> embeddings) {
+        writeMutex.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                markDirty();
+                embeddings.forEach((id, embedding) -> graph.insert(id.value(), embedding));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            compactIfNeeded();
+        } finally {
+            writeMutex.unlock();
+        }
+    }
+
+    @Override
+    public void remove(MemoryNoteId id) {
+        writeMutex.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                markDirty();
+                graph.remove(id.value());
+            } finally {
+                lock.writeLock().unlock();
+            }
+            compactIfNeeded();
+        } finally {
+            writeMutex.unlock();
+        }
+    }
+
+    /**
+     * Writes the graph to its snapshot file if it changed since the last write.
+     */
+    public void flush() {
+        if (file == null) {
+            return;
+        }
+        // the read lock keeps writers out while the snapshot is taken, searches can go on
+        lock.readLock().lock();
+        try {
+            synchronized (this) {
+                if (!dirty) {
+                    return;
+                }
+                long start = System.currentTimeMillis();
+                graph.writeTo(file);
+                dirty = false;
+                logger.debug("Wrote {} vectors to {} in {} ms", graph.liveCount(), file,
+                        System.currentTimeMillis() - start);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write vector index to " + file, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write vector index, it will be rebuilt from the database on next startup", e);
+        }
+    }
+
+    private synchronized void markDirty() {
+        if (dirty || file == null) {
+            return;
+        }
+        dirty = true;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to invalidate vector index file " + file, e);
+        }
+    }
+
+    /**
+     * Must hold {@link #writeMutex}, which keeps the graph unchanged while the replacement is built from it.
+     */
+    private void compactIfNeeded() {
+        if (graph.deletedCount() > Math.max(1000, graph.liveCount())) {
+            long start = System.currentTimeMillis();
+            int tombstones = graph.deletedCount();
+            HnswGraph compacted = graph.compacted();
+            lock.writeLock().lock();
+            try {
+                graph = compacted;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Compacted vector index, dropped {} removed vectors in {} ms", tombstones,
+                    System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * @return the snapshot file next to the database at {@code dataPath}, which names the database rather than a
+     *         directory
+     */
+    static Path snapshotFile(String dataPath) {
+        Path database = Path.of(dataPath).toAbsolutePath().normalize();
+        return database.resolveSibling(database.getFileName() + FILE_SUFFIX);
+    }
+
+    private HnswGraph load() {
+        if (file != null && Files.exists(file)) {
+            try {
+                long start = System.currentTimeMillis();
+                HnswGraph loaded = HnswGraph.readFrom(file, kernel);
+                if (loaded.hasParameters(dimensions, metric, maxDegree, maxDegreeBase, efConstruction, quantization)) {
+                    logger.info("Loaded {} vectors from {} in {} ms", loaded.liveCount(), file,
+                            System.currentTimeMillis() - start);
+                    return loaded;
+                }
+                logger.info("{} was built with other HNSW parameters, rebuilding it", file);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to read {}, rebuilding the vector index from the database", file, e);
+            }
+        }
+        return rebuildFromDatabase();
+    }
+
+    private HnswGraph rebuildFromDatabase() {
+        long start = System.currentTimeMillis();
+        HnswGraph rebuilt = new HnswGraph(dimensions, metric, maxDegree, maxDegreeBase, efConstruction, quantization,
+                kernel);
+        try (Connection conn = new Connection(database); QueryResult result = conn.query(rebuildQuery(conn))) {
+            if (!result.isSuccess()) {
+                throw new IllegalStateException("Failed to read embeddings: " + result.getErrorMessage());
+            }
+            while (result.hasNext()) {
+                FlatTuple row = result.getNext();
+                String noteId = row.getValue(0).getValue();
+                float[] embedding = LadybugDBConfig.asFloatArray(row.getValue(1).getValue());
+                if (embedding == null) {
+                    embedding = new QuantizedVector(LadybugDBConfig.asByteArray(row.getValue(2).getValue()),
+                            ((Number) row.getValue(3).getValue()).floatValue(),
+                            ((Number) row.getValue(4).getValue()).floatValue()).dequantize();
+                }
+                rebuilt.insert(noteId, embedding);
+            }
+        }
+        logger.info("Built in-process vector index over {} embeddings in {} ms", rebuilt.liveCount(),
+                System.currentTimeMillis() - start);
+        dirty = rebuilt.liveCount() > 0;
+        return rebuilt;
+    }
+
+    /**
+     * In int8 mode only rows written before codes were stored need their full precision vector, and a database
+     * created in int8 mode without re-ranking has no float column at all.
+     */
+    private String rebuildQuery(Connection conn) {
+        if (quantization != EmbeddingQuantization.INT8) {
+            return "MATCH (e:NoteEmbedding) RETURN e.noteId, e.embedding";
+        }
+        boolean hasFloats;
+        try (QueryResult columns = conn.query("CALL TABLE_INFO('NoteEmbedding') WHERE name = 'embedding' RETURN name")) {
+            hasFloats = columns.isSuccess() && columns.hasNext();
+        }
+        return hasFloats
+                ? "MATCH (e:NoteEmbedding) RETURN e.noteId, CASE WHEN e.code IS NULL THEN e.embedding ELSE NULL END, e.code, e.codeScale, e.codeOffset"
+                : "MATCH (e:NoteEmbedding) RETURN e.noteId, NULL, e.code, e.codeScale, e.codeOffset";
+    }
+}
@@ -0,0 +1,70 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * {@link VectorStore} of {@link QuantizedVector} codes. Distances are computed from the codes directly, decoding
+ * them inside the kernel loop instead of materializing float vectors.
+ */
+final class Int8VectorStore implements VectorStore {
+
+    private final int dimensions;
+    private final DistanceKernel kernel;
+    private byte[][] codes = new byte[0][];
+    private float[] scales = new float[0];
+    private float[] offsets = new float[0];
+
+    Int8VectorStore(int dimensions, DistanceKernel kernel) {
+        this.dimensions = dimensions;
+        this.kernel = kernel;
+    }
+
+    @Override
+    public float dot(float[] query, int node) {
+        return kernel.dot(query, codes[node], scales[node], offsets[node]);
+    }
+
+    @Override
+    public float squaredDistance(float[] query, int node) {
+        return kernel.squaredDistance(query, codes[node], scales[node], offsets[node]);
+    }
+
+    @Override
+    public float[] vector(int node) {
+        return new QuantizedVector(codes[node], scales[node], offsets[node]).dequantize();
+    }
+
+    @Override
+    public void set(int node, float[] vector) {
+        QuantizedVector quantized = QuantizedVector.of(vector);
+        codes[node] = quantized.codes();
+        scales[node] = quantized.scale();
+        offsets[node] = quantized.offset();
+    }
+
+    @Override
+    public void grow(int capacity) {
+        codes = Arrays.copyOf(codes, capacity);
+        scales = Arrays.copyOf(scales, capacity);
+        offsets = Arrays.copyOf(offsets, capacity);
+    }
+
+    @Override
+    public int bytesPerVector() {
+        return 2 * Float.BYTES + dimensions;
+    }
+
+    @Override
+    public void write(int node, ByteBuffer out) {
+        out.putFloat(scales[node]).putFloat(offsets[node]).put(codes[node]);
+    }
+
+    @Override
+    public void read(int node, ByteBuffer in) {
+        scales[node] = in.getFloat();
+        offsets[node] = in.getFloat();
+        codes[node] = new byte[dimensions];
+        in.get(codes[node]);
+    }
+}
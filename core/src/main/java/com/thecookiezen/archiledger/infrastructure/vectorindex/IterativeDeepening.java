@@ -0,0 +1,58 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Budget of an adaptive similarity search, which asks the index for twice as many candidates each round until
+ * {@code topK} of them clear the score threshold. Without it, a search asks for exactly {@code topK} candidates and
+ * returns fewer results when some of them fall below the threshold, even if qualifying notes sit just past the
+ * candidate boundary of an approximate index.
+ */
+@Component
+public class IterativeDeepening {
+
+    private final boolean enabledByDefault;
+    private final int maxCandidates;
+    private final long budgetNanos;
+
+    public IterativeDeepening(@Value("${ladybugdb.vector-index.adaptive.enabled:false}") boolean enabledByDefault,
+            @Value("${ladybugdb.vector-index.adaptive.max-candidates:1000}") int maxCandidates,
+            @Value("${ladybugdb.vector-index.adaptive.max-millis:200}") long maxMillis) {
+        if (maxCandidates < 1) {
+            throw new IllegalArgumentException("Adaptive search max candidates must be positive: " + maxCandidates);
+        }
+        if (maxMillis <= 0) {
+            throw new IllegalArgumentException("Adaptive search time budget must be positive: " + maxMillis);
+        }
+        this.enabledByDefault = enabledByDefault;
+        this.maxCandidates = maxCandidates;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(maxMillis);
+    }
+
+    public boolean isEnabled(VectorSearchOptions options) {
+        return options.adaptive() != null ? options.adaptive() : enabledByDefault;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} after which no further round starts
+     */
+    public long deadline() {
+        return System.nanoTime() + budgetNanos;
+    }
+
+    /**
+     * @return whether another round may start after one that asked for {@code limit} candidates
+     */
+    public boolean canGrow(int limit, long deadline) {
+        return limit < maxCandidates && System.nanoTime() - deadline < 0;
+    }
+
+    public int nextLimit(int limit) {
+        return (int) Math.min(maxCandidates, (long) limit * 2);
+    }
+}
@@ -0,0 +1,40 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+/**
+ * Scalar int8 encoding of a vector: component {@code i} is approximated by {@code codes[i] * scale + offset}. Scale
+ * and offset are chosen per vector so that its smallest and largest components map to the ends of the byte range,
+ * which keeps the rounding error below {@code scale / 2} at a quarter of the size of the float vector.
+ */
+public record QuantizedVector(byte[] codes, float scale, float offset) {
+
+    public static QuantizedVector of(float[] vector) {
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (float value : vector) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        if (vector.length == 0) {
+            return new QuantizedVector(new byte[0], 0f, 0f);
+        }
+        float scale = (max - min) / 255f;
+        float offset = min + 128 * scale;
+        byte[] codes = new byte[vector.length];
+        if (scale > 0f) {
+            for (int i = 0; i < vector.length; i++) {
+                codes[i] = (byte) Math.clamp(Math.round((vector[i] - offset) / scale), -128, 127);
+            }
+        } else {
+            offset = min;
+        }
+        return new QuantizedVector(codes, scale, offset);
+    }
+
+    public float[] dequantize() {
+        float[] vector = new float[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            vector[i] = codes[i] * scale + offset;
+        }
+        return vector;
+    }
+}
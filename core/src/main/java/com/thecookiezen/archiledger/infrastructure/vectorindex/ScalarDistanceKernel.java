@@ -0,0 +1,42 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+final class ScalarDistanceKernel implements DistanceKernel {
+
+    @Override
+    public float dot(float[] a, float[] b) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public float squaredDistance(float[] a, float[] b) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            float diff = a[i] - b[i];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    @Override
+    public float dot(float[] a, byte[] codes, float scale, float offset) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * (codes[i] * scale + offset);
+        }
+        return sum;
+    }
+
+    @Override
+    public float squaredDistance(float[] a, byte[] codes, float scale, float offset) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            float diff = a[i] - (codes[i] * scale + offset);
+            sum += diff * diff;
+        }
+        return sum;
+    }
+}
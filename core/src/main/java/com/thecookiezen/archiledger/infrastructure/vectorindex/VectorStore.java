@@ -0,0 +1,31 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Vectors of an {@link HnswGraph} by node, in the encoding of an {@link EmbeddingQuantization}.
+ */
+interface VectorStore {
+
+    float dot(float[] query, int node);
+
+    float squaredDistance(float[] query, int node);
+
+    /**
+     * The vector of {@code node}, decoded if the store is quantized.
+     */
+    float[] vector(int node);
+
+    void set(int node, float[] vector);
+
+    void grow(int capacity);
+
+    int bytesPerVector();
+
+    /**
+     * Writes the vector of {@code node} at the position of {@code out} and advances it by {@link #bytesPerVector()}.
+     */
+    void write(int node, ByteBuffer out);
+
+    void read(int node, ByteBuffer in);
+}
@@ -0,0 +1,92 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link DistanceKernel} on the JDK Vector API. Only loaded when the {@code jdk.incubator.vector} module is
+ * present, see {@link DistanceKernels#best()}.
+ */
+final class SimdDistanceKernel implements DistanceKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    // at least as many byte lanes as float lanes; the smallest byte shape is 64 bits, wider than 4 floats need
+    private static final VectorSpecies<Byte> CODE_SPECIES = VectorSpecies.of(byte.class,
+            VectorShape.forBitSize(Math.max(64, SPECIES.length() * Byte.SIZE)));
+    // lanes that must remain in the arrays for one step of the quantized loops
+    private static final int CODE_LANES = Math.max(SPECIES.length(), CODE_SPECIES.length());
+
+    @Override
+    public float dot(float[] a, float[] b) {
+        FloatVector sum = FloatVector.zero(SPECIES);
+        int i = 0;
+        int bound = SPECIES.loopBound(a.length);
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector va = FloatVector.fromArray(SPECIES, a, i);
+            FloatVector vb = FloatVector.fromArray(SPECIES, b, i);
+            sum = va.fma(vb, sum);
+        }
+        float result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            result += a[i] * b[i];
+        }
+        return result;
+    }
+
+    @Override
+    public float squaredDistance(float[] a, float[] b) {
+        FloatVector sum = FloatVector.zero(SPECIES);
+        int i = 0;
+        int bound = SPECIES.loopBound(a.length);
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector diff = FloatVector.fromArray(SPECIES, a, i).sub(FloatVector.fromArray(SPECIES, b, i));
+            sum = diff.fma(diff, sum);
+        }
+        float result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            float diff = a[i] - b[i];
+            result += diff * diff;
+        }
+        return result;
+    }
+
+    @Override
+    public float dot(float[] a, byte[] codes, float scale, float offset) {
+        FloatVector sum = FloatVector.zero(SPECIES);
+        int i = 0;
+        for (; i + CODE_LANES <= a.length; i += SPECIES.length()) {
+            FloatVector decoded = decode(codes, i, scale, offset);
+            sum = FloatVector.fromArray(SPECIES, a, i).fma(decoded, sum);
+        }
+        float result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            result += a[i] * (codes[i] * scale + offset);
+        }
+        return result;
+    }
+
+    @Override
+    public float squaredDistance(float[] a, byte[] codes, float scale, float offset) {
+        FloatVector sum = FloatVector.zero(SPECIES);
+        int i = 0;
+        for (; i + CODE_LANES <= a.length; i += SPECIES.length()) {
+            FloatVector diff = FloatVector.fromArray(SPECIES, a, i).sub(decode(codes, i, scale, offset));
+            sum = diff.fma(diff, sum);
+        }
+        float result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            float diff = a[i] - (codes[i] * scale + offset);
+            result += diff * diff;
+        }
+        return result;
+    }
+
+    private static FloatVector decode(byte[] codes, int from, float scale, float offset) {
+        FloatVector widened = (FloatVector) ByteVector.fromArray(CODE_SPECIES, codes, from)
+                .convertShape(VectorOperators.B2F, SPECIES, 0);
+        return widened.fma(scale, offset);
+    }
+}
@@ -3,7 +3,9 @@ package com.thecookiezen.archiledger.application.service;
 import com.thecookiezen.archiledger.domain.model.LinkDefinition;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
 import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
 import com.thecookiezen.archiledger.domain.repository.EmbeddingsService;
 import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
 import org.junit.jupiter.api.Test;
@@ -19,6 +21,7 @@ import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,6 +54,7 @@ class MemoryNoteServiceImplTest {
         MemoryNote note = sampleNote("note-1");
         float[] embedding = new float[] { 0.1f, 0.2f, 0.3f };
         MemoryNote noteWithEmbedding = note.withEmbedding(embedding);
+        when(embeddingsService.modelId()).thenReturn("model-a:384");
         when(embeddingsService.generateEmbeddings(note)).thenReturn(embedding);
         when(repository.save(noteWithEmbedding)).thenReturn(noteWithEmbedding);
 
@@ -65,14 +69,79 @@ class MemoryNoteServiceImplTest {
     void createNotes_savesMultiple() {
         MemoryNote note1 = sampleNote("note-1");
         MemoryNote note2 = sampleNote("note-2");
-        when(embeddingsService.generateEmbeddings(note1)).thenReturn(new float[] { 0.1f });
-        when(embeddingsService.generateEmbeddings(note2)).thenReturn(new float[] { 0.2f });
-        when(repository.save(any(MemoryNote.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(embeddingsService.modelId()).thenReturn("model-a:384");
+        when(embeddingsService.generateEmbeddings(List.of(note1, note2)))
+                .thenReturn(List.of(new float[] { 0.1f }, new float[] { 0.2f }));
+        when(repository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
 
         List<MemoryNote> result = service.createNotes(List.of(note1, note2));
 
         assertEquals(2, result.size());
-        verify(repository, times(2)).save(any(MemoryNote.class));
+        assertEquals(0.2f, result.get(1).embedding()[0]);
+        verify(embeddingsService, never()).generateEmbeddings(any(MemoryNote.class));
+        verify(repository, times(1)).saveAll(anyList());
+        verify(repository, never()).save(any(MemoryNote.class));
+    }
+
+    @Test
+    void createNote_withUnchangedContent_reusesStoredEmbedding() {
+        MemoryNote note = sampleNote("note-1");
+        when(embeddingsService.modelId()).thenReturn("model-a:384");
+        when(repository.findEmbeddedContentHashes(List.of(note.id())))
+                .thenReturn(Map.of(note.id(), note.contentHash("model-a:384")));
+        when(repository.save(any(MemoryNote.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        MemoryNote result = service.createNote(note);
+
+        assertNull(result.embedding());
+        verify(embeddingsService, never()).generateEmbeddings(any(MemoryNote.class));
+    }
+
+    @Test
+    void createNote_afterModelChange_reembedsUnchangedContent() {
+        MemoryNote note = sampleNote("note-1");
+        when(embeddingsService.modelId()).thenReturn("model-b:768");
+        when(repository.findEmbeddedContentHashes(List.of(note.id())))
+                .thenReturn(Map.of(note.id(), note.contentHash("model-a:384")));
+        when(embeddingsService.generateEmbeddings(note)).thenReturn(new float[] { 0.4f });
+        when(repository.save(any(MemoryNote.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        MemoryNote result = service.createNote(note);
+
+        assertEquals(0.4f, result.embedding()[0]);
+    }
+
+    @Test
+    void createNotes_embedsOnlyNotesWithChangedContent() {
+        MemoryNote unchanged = sampleNote("note-1");
+        MemoryNote changed = sampleNote("note-2");
+        MemoryNote added = sampleNote("note-3");
+        when(embeddingsService.modelId()).thenReturn("model-a:384");
+        when(repository.findEmbeddedContentHashes(List.of(unchanged.id(), changed.id(), added.id())))
+                .thenReturn(Map.of(unchanged.id(), unchanged.contentHash("model-a:384"), changed.id(), "stale-hash"));
+        when(embeddingsService.generateEmbeddings(List.of(changed, added)))
+                .thenReturn(List.of(new float[] { 0.2f }, new float[] { 0.3f }));
+        when(repository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<MemoryNote> result = service.createNotes(List.of(unchanged, changed, added));
+
+        assertNull(result.get(0).embedding());
+        assertEquals(0.2f, result.get(1).embedding()[0]);
+        assertEquals(0.3f, result.get(2).embedding()[0]);
+    }
+
+    @Test
+    void patchNotes_dropsEmptyPatchesAndSkipsEmbedding() {
+        NotePatch retag = new NotePatch("note-1", null, null, List.of("decision"));
+        NotePatch empty = new NotePatch("note-2", null, null, null);
+        when(repository.patchNotes(List.of(retag))).thenReturn(List.of(new MemoryNoteId("note-1")));
+
+        List<MemoryNoteId> patched = service.patchNotes(List.of(retag, empty));
+
+        assertEquals(List.of(new MemoryNoteId("note-1")), patched);
+        verifyNoInteractions(embeddingsService);
+        verify(repository, never()).findById(any());
+        verify(repository, never()).incrementRetrievalCount(any());
     }
 
     @Test
@@ -191,15 +260,26 @@ class MemoryNoteServiceImplTest {
         float[] queryEmbedding = new float[] { 0.1f, 0.2f, 0.3f };
         MemoryNote matchedNote = sampleNote("match-1");
         when(embeddingsService.embed("architecture")).thenReturn(queryEmbedding);
-        when(repository.findSimilar(queryEmbedding, 10))
+        when(repository.findSimilar(queryEmbedding, 10, 0.0, 0.0, VectorSearchOptions.DEFAULT))
                 .thenReturn(List.of(new SimilarityResult<>(matchedNote, 0.95)));
 
-        List<SimilarityResult<MemoryNote>> results = service.similaritySearch("architecture");
+        List<SimilarityResult<MemoryNote>> results = service.similaritySearch("architecture", 10, 0.0, 0.0,
+                VectorSearchOptions.DEFAULT);
 
         assertEquals(1, results.size());
         assertEquals("Sample content for match-1", results.get(0).item().content());
         verify(embeddingsService).embed("architecture");
-        verify(repository).findSimilar(queryEmbedding, 10);
+        verify(repository).findSimilar(queryEmbedding, 10, 0.0, 0.0, VectorSearchOptions.DEFAULT);
+    }
+
+    @Test
+    void similaritySearch_withEfs_passesSearchEffortToRepository() {
+        float[] queryEmbedding = new float[] { 0.1f, 0.2f };
+        when(embeddingsService.embed("architecture")).thenReturn(queryEmbedding);
+
+        service.similaritySearch("architecture", 5, 0.2, 0.0, VectorSearchOptions.withEfs(400));
+
+        verify(repository).findSimilar(queryEmbedding, 5, 0.2, 0.0, VectorSearchOptions.withEfs(400));
     }
 
     @Test
@@ -210,13 +290,14 @@ class MemoryNoteServiceImplTest {
         MemoryNote mediumMatch = sampleNote("medium-match");
 
         when(embeddingsService.embed("query")).thenReturn(queryEmbedding);
-        when(repository.findSimilar(queryEmbedding, 10))
+        when(repository.findSimilar(queryEmbedding, 10, 0.0, 0.0, VectorSearchOptions.DEFAULT))
                 .thenReturn(List.of(
                         new SimilarityResult<>(closeMatch, 0.95),
                         new SimilarityResult<>(mediumMatch, 0.50),
                         new SimilarityResult<>(farMatch, 0.10)));
 
-        List<SimilarityResult<MemoryNote>> results = service.similaritySearch("query");
+        List<SimilarityResult<MemoryNote>> results = service.similaritySearch("query", 10, 0.0, 0.0,
+                VectorSearchOptions.DEFAULT);
 
         assertEquals(3, results.size());
         assertTrue(results.get(0).score() > results.get(1).score(),
@@ -226,4 +307,44 @@ class MemoryNoteServiceImplTest {
         assertEquals("close-match", results.get(0).item().id().value());
         assertEquals("far-match", results.get(2).item().id().value());
     }
+
+    @Test
+    void hybridSearch_fusesLexicalAndSemanticRankings() {
+        float[] queryEmbedding = new float[] { 0.5f, 0.5f };
+        MemoryNote both = sampleNote("both");
+        MemoryNote lexicalOnly = sampleNote("lexical-only");
+        MemoryNote semanticOnly = sampleNote("semantic-only");
+        when(embeddingsService.embed("ERR_TIMEOUT_42")).thenReturn(queryEmbedding);
+        when(repository.findLexical("ERR_TIMEOUT_42", 20)).thenReturn(List.of(
+                new SimilarityResult<>(lexicalOnly, 7.5),
+                new SimilarityResult<>(both, 3.1)));
+        when(repository.findSimilar(queryEmbedding, 20, 0.0, 0.0, VectorSearchOptions.DEFAULT)).thenReturn(List.of(
+                new SimilarityResult<>(both, 0.9),
+                new SimilarityResult<>(semanticOnly, 0.8)));
+
+        List<SimilarityResult<MemoryNote>> results = service.hybridSearch("ERR_TIMEOUT_42", 2);
+
+        assertEquals(List.of("both", "lexical-only"), results.stream().map(r -> r.item().id().value()).toList());
+        assertEquals(1.0 / 62 + 1.0 / 61, results.get(0).score(), 1e-12);
+        assertEquals(1.0 / 61, results.get(1).score(), 1e-12);
+    }
+
+    @Test
+    void hybridSearch_fetchesTwiceTopKFromEachRetrieverForLargeRequests() {
+        float[] queryEmbedding = new float[] { 0.5f, 0.5f };
+        when(embeddingsService.embed("query")).thenReturn(queryEmbedding);
+        when(repository.findLexical("query", 50)).thenReturn(List.of());
+        when(repository.findSimilar(queryEmbedding, 50, 0.0, 0.0, VectorSearchOptions.DEFAULT)).thenReturn(List.of());
+
+        assertTrue(service.hybridSearch("query", 25).isEmpty());
+    }
+
+    @Test
+    void hybridSearch_propagatesEmbeddingFailures() {
+        when(embeddingsService.embed("query")).thenThrow(new IllegalStateException("model unavailable"));
+
+        assertThrows(IllegalStateException.class, () -> service.hybridSearch("query", 5));
+        verify(repository, never()).findSimilar(any(float[].class), anyInt(), anyDouble(), anyDouble(),
+                any(VectorSearchOptions.class));
+    }
 }
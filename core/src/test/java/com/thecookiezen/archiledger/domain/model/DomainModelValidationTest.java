@@ -183,5 +183,68 @@ class DomainModelValidationTest {
             assertEquals(1, updated.links().size());
             assertEquals("note-2", updated.links().get(0).target().value());
         }
+
+        @Test
+        void contentHashShouldDependOnlyOnContentAndModel() {
+            MemoryNote original = new MemoryNote(
+                    new MemoryNoteId("note-1"), "content", List.of(), null, List.of("a"), List.of(),
+                    "2026-03-04T16:00:00Z", 0, null);
+            MemoryNote retagged = new MemoryNote(
+                    new MemoryNoteId("note-1"), "content", List.of("k"), "ctx", List.of("b"), List.of(),
+                    "2026-03-05T16:00:00Z", 3, null);
+            MemoryNote edited = new MemoryNote(
+                    new MemoryNoteId("note-1"), "content changed", List.of(), null, List.of("a"), List.of(),
+                    "2026-03-04T16:00:00Z", 0, null);
+
+            assertEquals(64, original.contentHash("model:384").length());
+            assertEquals(original.contentHash("model:384"), retagged.contentHash("model:384"));
+            assertNotEquals(original.contentHash("model:384"), edited.contentHash("model:384"));
+            assertNotEquals(original.contentHash("model:384"), original.contentHash("model:768"));
+        }
+    }
+
+    @Nested
+    @DisplayName("NoteFilter Validation")
+    class NoteFilterTest {
+
+        @Test
+        void shouldAcceptInstantsWithOffsetsAndFractions() {
+            NoteFilter filter = new NoteFilter(null, null, "2026-03-04T16:00:00+02:00", "2026-03-04T16:00:00.5Z",
+                    null, null);
+            assertEquals("2026-03-04T16:00:00+02:00", filter.from());
+            assertFalse(filter.isEmpty());
+        }
+
+        @Test
+        void shouldRejectBoundsThatAreNotInstants() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new NoteFilter(null, null, "2026-03-04", null, null, null));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new NoteFilter(null, null, null, "yesterday", null, null));
+        }
+
+        @Test
+        void shouldRejectFromAfterTo() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new NoteFilter(null, null, "2026-03-05T00:00:00Z", "2026-03-05T01:00:00+02:00", null, null));
+        }
+    }
+
+    @Nested
+    @DisplayName("VectorSearchOptions Validation")
+    class VectorSearchOptionsTest {
+
+        @Test
+        void shouldRejectNegativeSearchEffortAndOversample() {
+            assertThrows(IllegalArgumentException.class, () -> VectorSearchOptions.withEfs(-1));
+            assertThrows(IllegalArgumentException.class, () -> new VectorSearchOptions(0, true, -4));
+        }
+
+        @Test
+        void shouldDefaultMissingFilterToNone() {
+            VectorSearchOptions options = new VectorSearchOptions(0, null, 0, null, null);
+            assertSame(NoteFilter.NONE, options.filter());
+            assertEquals(VectorSearchOptions.DEFAULT, options);
+        }
     }
 }
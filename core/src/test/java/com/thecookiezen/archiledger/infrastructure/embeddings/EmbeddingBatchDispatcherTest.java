@@ -0,0 +1,92 @@
+package com.thecookiezen.archiledger.infrastructure.embeddings;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class EmbeddingBatchDispatcherTest {
+
+    private final EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+    private EmbeddingBatchDispatcher dispatcher;
+
+    @AfterEach
+    void stopDispatcher() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void submit_groupsConcurrentRequestsIntoBatches() throws InterruptedException {
+        CountDownLatch allSubmitted = new CountDownLatch(1);
+        when(embeddingModel.embed(anyList())).thenAnswer(inv -> {
+            allSubmitted.await(5, TimeUnit.SECONDS);
+            List<String> texts = inv.getArgument(0);
+            return texts.stream().map(text -> new float[] { Float.parseFloat(text) }).toList();
+        });
+        dispatcher = new EmbeddingBatchDispatcher(embeddingModel, true, 20, 8);
+
+        List<CompletableFuture<float[]>> futures = IntStream.range(0, 24)
+                .mapToObj(i -> dispatcher.submit(String.valueOf(i)))
+                .toList();
+        allSubmitted.countDown();
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i, futures.get(i).join()[0]);
+        }
+        EmbeddingBatchDispatcher.DispatcherStats stats = dispatcher.stats();
+        assertEquals(24, stats.requests());
+        assertEquals(8, stats.largestBatch());
+        assertTrue(stats.batches() <= 4, "expected at most 4 batches but got " + stats.batches());
+        assertEquals(0, stats.queueDepth());
+    }
+
+    @Test
+    void bindTo_publishesBatchMetrics() {
+        when(embeddingModel.embed(anyList())).thenReturn(List.of(new float[] { 1f }));
+        dispatcher = new EmbeddingBatchDispatcher(embeddingModel, true, 0, 8);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dispatcher.bindTo(registry);
+
+        dispatcher.submit("1").join();
+
+        assertEquals(1, registry.get("archiledger.embedding.dispatcher.requests").functionCounter().count());
+        assertEquals(1, registry.get("archiledger.embedding.dispatcher.batches").functionCounter().count());
+        assertEquals(1, registry.get("archiledger.embedding.dispatcher.batch.size").summary().count());
+        assertEquals(0, registry.get("archiledger.embedding.dispatcher.queue.depth").gauge().value());
+    }
+
+    @Test
+    void submit_propagatesModelFailureToEveryCaller() {
+        when(embeddingModel.embed(anyList())).thenThrow(new IllegalStateException("model offline"));
+        dispatcher = new EmbeddingBatchDispatcher(embeddingModel, true, 50, 4);
+
+        CompletableFuture<float[]> first = dispatcher.submit("a");
+        CompletableFuture<float[]> second = dispatcher.submit("b");
+
+        CompletionException failure = assertThrows(CompletionException.class, first::join);
+        assertEquals("model offline", failure.getCause().getMessage());
+        assertThrows(CompletionException.class, second::join);
+    }
+
+    @Test
+    void submit_whenDisabled_failsFast() {
+        dispatcher = new EmbeddingBatchDispatcher(embeddingModel, false, 5, 32);
+
+        assertFalse(dispatcher.isEnabled());
+        assertThrows(CompletionException.class, () -> dispatcher.submit("text").join());
+        verifyNoInteractions(embeddingModel);
+    }
+}
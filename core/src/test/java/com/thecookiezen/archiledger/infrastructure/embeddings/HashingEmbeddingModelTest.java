@@ -0,0 +1,67 @@
+package com.thecookiezen.archiledger.infrastructure.embeddings;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashingEmbeddingModelTest {
+
+    private final HashingEmbeddingModel model = new HashingEmbeddingModel(384);
+
+    @Test
+    void embed_isDeterministicAndUnitLength() {
+        float[] first = model.embed("Spring Boot is a popular Java framework");
+        float[] second = new HashingEmbeddingModel(384).embed("Spring Boot is a popular Java framework");
+
+        assertEquals(384, first.length);
+        assertArrayEquals(first, second);
+        assertEquals(1.0, dot(first, first), 1e-5);
+    }
+
+    @Test
+    void embed_ignoresCaseAndPunctuation() {
+        assertArrayEquals(model.embed("Event sourcing, CQRS!"), model.embed("event   SOURCING cqrs"));
+    }
+
+    @Test
+    void embed_sharedWordsScoreHigherThanUnrelatedText() {
+        float[] query = model.embed("java spring framework");
+        float[] related = model.embed("Spring is a Java framework for microservices");
+        float[] unrelated = model.embed("Boil water and cook spaghetti until al dente");
+
+        assertTrue(dot(query, related) > dot(query, unrelated));
+    }
+
+    @Test
+    void embed_withoutTokens_returnsNonZeroVector() {
+        assertEquals(1.0, dot(model.embed(""), model.embed("")), 1e-5);
+        assertEquals(1.0, dot(model.embed("?!"), model.embed("?!")), 1e-5);
+    }
+
+    @Test
+    void call_returnsOneEmbeddingPerInputInOrder() {
+        EmbeddingResponse response = model.call(new EmbeddingRequest(List.of("first note", "second note"), null));
+
+        assertEquals(2, response.getResults().size());
+        assertArrayEquals(model.embed("second note"), response.getResults().get(1).getOutput());
+        assertEquals(1, response.getResults().get(1).getIndex());
+        assertEquals(384, model.dimensions());
+    }
+
+    @Test
+    void constructor_rejectsNonPositiveDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new HashingEmbeddingModel(0));
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,132 @@
+package com.thecookiezen.archiledger.infrastructure.embeddings;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.embedding.EmbeddingResponseMetadata;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LadybugEmbeddingsServiceTest {
+
+    @Mock
+    private EmbeddingModel embeddingModel;
+
+    private EmbeddingBatchDispatcher disabledDispatcher() {
+        return new EmbeddingBatchDispatcher(embeddingModel, false, 5, 32);
+    }
+
+    private QueryEmbeddingCache disabledCache() {
+        return new QueryEmbeddingCache(false, 100, 60);
+    }
+
+    @Test
+    void embed_withCacheHit_skipsModel() {
+        when(embeddingModel.embed(anyString())).thenReturn(new float[] { 0.5f, 0.25f });
+        QueryEmbeddingCache cache = new QueryEmbeddingCache(true, 100, 60);
+        LadybugEmbeddingsService service = new LadybugEmbeddingsService(embeddingModel, disabledDispatcher(), cache, 4, "");
+
+        float[] first = service.embed("event sourcing");
+        first[0] = 99f;
+        float[] second = service.embed("  event   sourcing ");
+
+        assertEquals(0.5f, second[0]);
+        verify(embeddingModel, times(1)).embed(anyString());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void embed_withDisabledCache_alwaysCallsModel() {
+        when(embeddingModel.embed("query")).thenReturn(new float[] { 0.1f });
+        LadybugEmbeddingsService service = new LadybugEmbeddingsService(embeddingModel, disabledDispatcher(), disabledCache(), 4, "");
+
+        service.embed("query");
+        service.embed("query");
+
+        verify(embeddingModel, times(2)).embed("query");
+    }
+
+    @Test
+    void generateEmbeddings_forOneNote_goesThroughTheDispatcher() {
+        when(embeddingModel.embed(anyList())).thenReturn(List.of(new float[] { 0.3f }));
+        EmbeddingBatchDispatcher dispatcher = new EmbeddingBatchDispatcher(embeddingModel, true, 0, 8);
+        QueryEmbeddingCache cache = new QueryEmbeddingCache(true, 100, 60);
+        LadybugEmbeddingsService service = new LadybugEmbeddingsService(embeddingModel, dispatcher, cache, 4, "");
+        try {
+            float[] embedding = service.generateEmbeddings(new MemoryNote(new MemoryNoteId("n"), "content", List.of(),
+                    "ctx", List.of(), List.of(), "2026-03-04T16:00:00Z", 0, null));
+
+            assertEquals(0.3f, embedding[0]);
+            verify(embeddingModel).embed(List.of("content"));
+            verify(embeddingModel, never()).embed(anyString());
+            assertEquals(0, cache.stats().missCount());
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void embedAll_splitsInputIntoConfiguredSubBatches() {
+        when(embeddingModel.embed(anyList())).thenAnswer(inv -> {
+            List<String> texts = inv.getArgument(0);
+            return texts.stream().map(text -> new float[] { text.length() }).toList();
+        });
+        LadybugEmbeddingsService service = new LadybugEmbeddingsService(embeddingModel, disabledDispatcher(), disabledCache(), 4, "");
+        List<String> texts = IntStream.range(0, 10).mapToObj("x"::repeat).toList();
+
+        List<float[]> embeddings = service.embedAll(texts);
+
+        assertEquals(10, embeddings.size());
+        assertEquals(9f, embeddings.get(9)[0]);
+        verify(embeddingModel, times(3)).embed(anyList());
+        verify(embeddingModel, never()).embed(anyString());
+    }
+
+    @Test
+    void embedAll_withEmptyInput_skipsModel() {
+        LadybugEmbeddingsService service = new LadybugEmbeddingsService(embeddingModel, disabledDispatcher(), disabledCache(), 4, "");
+
+        assertTrue(service.embedAll(List.of()).isEmpty());
+        verifyNoInteractions(embeddingModel);
+    }
+
+    @Test
+    void modelId_combinesTheReportedModelWithTheOutputDimensions() {
+        when(embeddingModel.embedForResponse(anyList())).thenReturn(new EmbeddingResponse(
+                List.of(new Embedding(new float[3], 0)), new EmbeddingResponseMetadata("text-embedding-3-small", null)));
+        LadybugEmbeddingsService service = new LadybugEmbeddingsService(embeddingModel, disabledDispatcher(), disabledCache(), 4, "");
+
+        assertEquals("text-embedding-3-small:3", service.modelId());
+        assertEquals("text-embedding-3-small:3", service.modelId());
+        verify(embeddingModel, times(1)).embedForResponse(anyList());
+    }
+
+    @Test
+    void modelId_prefersTheConfiguredModelId() {
+        when(embeddingModel.embedForResponse(anyList())).thenReturn(new EmbeddingResponse(
+                List.of(new Embedding(new float[384], 0))));
+        LadybugEmbeddingsService service = new LadybugEmbeddingsService(embeddingModel, disabledDispatcher(), disabledCache(), 4,
+                "bge-small-en-v1.5");
+
+        assertEquals("bge-small-en-v1.5:384", service.modelId());
+    }
+
+    @Test
+    void constructor_rejectsNonPositiveBatchSize() {
+        assertThrows(IllegalArgumentException.class, () -> new LadybugEmbeddingsService(embeddingModel, disabledDispatcher(), disabledCache(), 0, ""));
+    }
+}
@@ -0,0 +1,67 @@
+package com.thecookiezen.archiledger.infrastructure.embeddings;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryEmbeddingCacheTest {
+
+    @Test
+    void normalize_collapsesWhitespaceButKeepsCase() {
+        assertEquals("Event Sourcing", QueryEmbeddingCache.normalize("\tEvent \n  Sourcing  "));
+        assertEquals("caf\u00e9", QueryEmbeddingCache.normalize("cafe\u0301"));
+    }
+
+    @Test
+    void get_embedsTheOriginalTextAndSharesTheNormalizedKey() {
+        QueryEmbeddingCache cache = new QueryEmbeddingCache(true, 10, 60);
+        List<String> embedded = new ArrayList<>();
+
+        cache.get("  Event	Sourcing ", text -> {
+            embedded.add(text);
+            return new float[] { 1f };
+        });
+        float[] second = cache.get("Event Sourcing", text -> {
+            embedded.add(text);
+            return new float[] { 2f };
+        });
+
+        assertEquals(List.of("  Event	Sourcing "), embedded);
+        assertArrayEquals(new float[] { 1f }, second);
+    }
+
+    @Test
+    void get_doesNotCacheFailures() {
+        QueryEmbeddingCache cache = new QueryEmbeddingCache(true, 10, 60);
+
+        assertThrows(IllegalStateException.class, () -> cache.get("query", text -> {
+            throw new IllegalStateException("model offline");
+        }));
+
+        assertArrayEquals(new float[] { 3f }, cache.get("query", text -> new float[] { 3f }));
+    }
+
+    @Test
+    void get_evictsBeyondMaximumSize() {
+        QueryEmbeddingCache cache = new QueryEmbeddingCache(true, 2, 60);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            cache.get("query-" + i, text -> new float[] { calls.incrementAndGet() });
+        }
+
+        assertEquals(10, calls.get());
+        assertTrue(cache.size() <= 2);
+        assertTrue(cache.stats().evictionCount() >= 8);
+    }
+
+    @Test
+    void constructor_rejectsNonPositiveLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new QueryEmbeddingCache(true, 0, 60));
+        assertThrows(IllegalArgumentException.class, () -> new QueryEmbeddingCache(true, 10, 0));
+    }
+}
@@ -0,0 +1,54 @@
+package com.thecookiezen.archiledger.infrastructure.embeddings;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VectorIndexRebuildSchedulerTest {
+
+    @Mock
+    private LadybugVectorExtensionInitializer vectorIndex;
+
+    @Test
+    void rebuildsOnceChurnExceedsBothThresholds() {
+        VectorIndexRebuildScheduler scheduler = new VectorIndexRebuildScheduler(vectorIndex, 0.2, 100, 1000);
+
+        assertFalse(scheduler.shouldRebuild(99, 10));
+        assertFalse(scheduler.shouldRebuild(1999, 10_000));
+        assertTrue(scheduler.shouldRebuild(2000, 10_000));
+        assertTrue(scheduler.shouldRebuild(100, 0));
+    }
+
+    @Test
+    void startsRebuildWhenChurnIsHigh() {
+        VectorIndexRebuildScheduler scheduler = new VectorIndexRebuildScheduler(vectorIndex, 0.2, 100, 1000);
+        when(vectorIndex.status()).thenReturn(
+                new LadybugVectorExtensionInitializer.IndexStatus("note_embedding_idx", null, false, 1000, 500));
+        when(vectorIndex.rebuildIndexAsync()).thenReturn(true);
+
+        assertTrue(scheduler.check());
+        verify(vectorIndex).rebuildIndexAsync();
+    }
+
+    @Test
+    void skipsWhileRebuildIsRunning() {
+        VectorIndexRebuildScheduler scheduler = new VectorIndexRebuildScheduler(vectorIndex, 0.2, 100, 1000);
+        when(vectorIndex.status()).thenReturn(
+                new LadybugVectorExtensionInitializer.IndexStatus("note_embedding_idx", null, true, 1000, 500));
+
+        assertFalse(scheduler.check());
+        verify(vectorIndex, never()).rebuildIndexAsync();
+    }
+
+    @Test
+    void nonPositiveRatioDisablesRebuilds() {
+        VectorIndexRebuildScheduler scheduler = new VectorIndexRebuildScheduler(vectorIndex, 0, 0, 1000);
+
+        assertFalse(scheduler.shouldRebuild(1_000_000, 10));
+    }
+}
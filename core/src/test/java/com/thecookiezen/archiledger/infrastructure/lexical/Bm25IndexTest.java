@@ -0,0 +1,99 @@
+package com.thecookiezen.archiledger.infrastructure.lexical;
+
+import com.thecookiezen.archiledger.domain.model.LexicalMatch;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Bm25IndexTest {
+
+    private final Bm25Index index = new Bm25Index(null, 1.2, 0.75);
+
+    private static MemoryNote note(String id, String content, List<String> keywords, String context) {
+        return new MemoryNote(new MemoryNoteId(id), content, keywords, context, List.of(), List.of(),
+                "2026-03-04T16:00:00Z", 0, null);
+    }
+
+    private List<String> ids(String query) {
+        return index.search(query, 10).stream().map(match -> match.id().value()).toList();
+    }
+
+    @Test
+    void tokens_splitIdentifiersIntoTheirParts() {
+        assertEquals(List.of("nullpointerexception", "null", "pointer", "exception"),
+                Bm25Index.tokens("NullPointerException"));
+        assertEquals(List.of("err_timeout_42", "err", "timeout", "42", "http", "parser"),
+                Bm25Index.tokens("ERR_TIMEOUT_42 http-parser"));
+        assertEquals(List.of("httpclient2", "http", "client", "2"), Bm25Index.tokens("HTTPClient2"));
+    }
+
+    @Test
+    void search_ranksRareTermsAndShortNotesHigher() {
+        index.indexAll(List.of(
+                note("a", "The retry policy of the payment service", List.of(), "payments"),
+                note("b", "The payment service calls the ledger service and the payment gateway with a long "
+                        + "description of how the service works", List.of(), "payments"),
+                note("c", "Ledger compaction runs nightly", List.of("ledger"), "storage")));
+
+        assertEquals(List.of("a", "b"), ids("retry payment"));
+        assertEquals(List.of("c", "b"), ids("ledger"));
+        assertTrue(ids("kubernetes").isEmpty());
+    }
+
+    @Test
+    void search_matchesExactIdentifiersInKeywordsAndContext() {
+        index.indexAll(List.of(
+                note("a", "Startup fails when the config is missing", List.of("NullPointerException"), "boot"),
+                note("b", "Requests time out under load", List.of(), "error ERR_TIMEOUT_42 on the gateway"),
+                note("c", "Pointer arithmetic in the native codec", List.of(), "codec")));
+
+        assertEquals("a", ids("NullPointerException").get(0));
+        assertEquals(List.of("b"), ids("ERR_TIMEOUT_42"));
+        assertEquals(List.of("b"), ids("timeout"));
+    }
+
+    @Test
+    void search_limitsToTopKByDecreasingScore() {
+        index.indexAll(List.of(
+                note("a", "cache", List.of(), null),
+                note("b", "cache cache eviction policy for the cache", List.of(), null),
+                note("c", "unrelated", List.of(), null)));
+
+        List<LexicalMatch> matches = index.search("cache eviction", 1);
+
+        assertEquals(1, matches.size());
+        assertEquals("b", matches.get(0).id().value());
+        assertTrue(matches.get(0).score() > 0);
+    }
+
+    @Test
+    void index_replacesThePreviousVersionOfANote() {
+        index.index(note("a", "uses the legacy scheduler", List.of(), null));
+        index.index(note("a", "uses the quartz scheduler", List.of(), null));
+
+        assertTrue(ids("legacy").isEmpty());
+        assertEquals(List.of("a"), ids("quartz"));
+    }
+
+    @Test
+    void remove_dropsTheNoteFromResults() {
+        index.indexAll(List.of(note("a", "gateway timeout", List.of(), null), note("b", "gateway", List.of(), null)));
+
+        index.remove(new MemoryNoteId("a"));
+        index.remove(new MemoryNoteId("missing"));
+
+        assertTrue(ids("timeout").isEmpty());
+        assertEquals(List.of("b"), ids("gateway"));
+    }
+
+    @Test
+    void constructor_rejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new Bm25Index(null, -1, 0.75));
+        assertThrows(IllegalArgumentException.class, () -> new Bm25Index(null, 1.2, 1.5));
+    }
+}
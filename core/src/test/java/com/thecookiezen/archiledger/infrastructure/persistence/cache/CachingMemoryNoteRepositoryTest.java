@@ -0,0 +1,119 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.cache;
+
+import com.thecookiezen.archiledger.domain.model.LinkDefinition;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.LadybugMemoryNoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingMemoryNoteRepositoryTest {
+
+    private static final MemoryNoteId A = new MemoryNoteId("A");
+    private static final MemoryNoteId B = new MemoryNoteId("B");
+
+    @Mock
+    private LadybugMemoryNoteRepository delegate;
+
+    private CachingMemoryNoteRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CachingMemoryNoteRepository(delegate, true, 100, 0);
+    }
+
+    private MemoryNote note(MemoryNoteId id, List<NoteLink> links) {
+        return new MemoryNote(id, "Content for " + id.value(), List.of(), "ctx", List.of("tag"), links,
+                "2026-03-04T16:00:00Z", 0, null);
+    }
+
+    @Test
+    void findById_servesRepeatedReadsFromCache() {
+        when(delegate.findById(A)).thenReturn(Optional.of(note(A, List.of())));
+
+        repository.findById(A);
+        repository.findById(A);
+        Optional<MemoryNote> result = repository.findById(A);
+
+        assertTrue(result.isPresent());
+        verify(delegate, times(1)).findById(A);
+        assertEquals(2, repository.stats().hitCount());
+        assertEquals(1, repository.stats().missCount());
+    }
+
+    @Test
+    void findById_doesNotCacheMissingNotes() {
+        when(delegate.findById(A)).thenReturn(Optional.empty());
+
+        assertTrue(repository.findById(A).isEmpty());
+        assertTrue(repository.findById(A).isEmpty());
+
+        verify(delegate, times(2)).findById(A);
+    }
+
+    @Test
+    void writes_invalidateAffectedNotes() {
+        when(delegate.findById(A)).thenReturn(Optional.of(note(A, List.of())));
+
+        repository.findById(A);
+        repository.addLink(new LinkDefinition(A, B, "RELATED_TO", "A relates to B"));
+        repository.findById(A);
+        repository.removeLink(A, B, "RELATED_TO");
+        repository.findById(A);
+        repository.patchNotes(List.of(new NotePatch(A, null, "new", null)));
+        repository.findById(A);
+        repository.save(note(A, List.of()));
+        repository.findById(A);
+
+        verify(delegate, times(5)).findById(A);
+    }
+
+    @Test
+    void delete_evictsNotesLinkingToDeletedNote() {
+        when(delegate.findById(A)).thenReturn(Optional.of(note(A, List.of(new NoteLink(B, "RELATED_TO", "ctx")))));
+        when(delegate.findById(B)).thenReturn(Optional.of(note(B, List.of())));
+        repository.findById(A);
+        repository.findById(B);
+
+        repository.delete(B);
+        repository.findById(A);
+
+        verify(delegate, times(2)).findById(A);
+    }
+
+    @Test
+    void incrementRetrievalCount_updatesCachedNote() {
+        when(delegate.findById(A)).thenReturn(Optional.of(note(A, List.of())));
+        repository.findById(A);
+
+        repository.incrementRetrievalCount(A);
+        repository.incrementRetrievalCount(A);
+
+        assertEquals(2, repository.findById(A).orElseThrow().retrievalCount());
+        verify(delegate, times(2)).incrementRetrievalCount(A);
+        verify(delegate, times(1)).findById(A);
+    }
+
+    @Test
+    void disabledCache_readsThrough() {
+        repository = new CachingMemoryNoteRepository(delegate, false, 100, 0);
+        when(delegate.findById(A)).thenReturn(Optional.of(note(A, List.of())));
+
+        repository.findById(A);
+        repository.findById(A);
+
+        verify(delegate, times(2)).findById(A);
+    }
+}
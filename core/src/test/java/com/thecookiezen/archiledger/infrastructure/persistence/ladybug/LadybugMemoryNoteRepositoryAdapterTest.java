@@ -4,9 +4,13 @@ import com.thecookiezen.archiledger.domain.model.LinkDefinition;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
 import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
+import com.thecookiezen.archiledger.domain.repository.EmbeddingsService;
 import com.thecookiezen.archiledger.infrastructure.config.LadybugDBConfig;
+import com.thecookiezen.archiledger.infrastructure.embeddings.LadybugVectorExtensionInitializer;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.LadybugMemoryNoteRepository;
 import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteDbRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.RetrievalCountBuffer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,11 +31,20 @@ import static org.junit.jupiter.api.Assertions.*;
 class LadybugMemoryNoteRepositoryAdapterTest {
 
     @org.springframework.context.annotation.Configuration
-    @org.springframework.context.annotation.Import(LadybugDBConfig.class)
+    @org.springframework.context.annotation.Import({ LadybugDBConfig.class, LadybugVectorExtensionInitializer.class })
     @org.springframework.context.annotation.ComponentScan(basePackages = {
-            "com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb"
+            "com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb",
+            "com.thecookiezen.archiledger.infrastructure.vectorindex",
+            "com.thecookiezen.archiledger.infrastructure.lexical"
     })
     static class TestConfig {
+
+        @org.springframework.context.annotation.Bean
+        EmbeddingsService embeddingsService() {
+            EmbeddingsService embeddingsService = org.mockito.Mockito.mock(EmbeddingsService.class);
+            org.mockito.Mockito.when(embeddingsService.modelId()).thenReturn("test-model:384");
+            return embeddingsService;
+        }
     }
 
     @Autowired
@@ -40,8 +53,12 @@ class LadybugMemoryNoteRepositoryAdapterTest {
     @Autowired
     private MemoryNoteDbRepository dbRepository;
 
+    @Autowired
+    private RetrievalCountBuffer retrievalCounts;
+
     @BeforeEach
     void cleanDatabase() {
+        retrievalCounts.flush();
         dbRepository.deleteAll();
     }
 
@@ -113,6 +130,117 @@ class LadybugMemoryNoteRepositoryAdapterTest {
         assertEquals("B", result.get().links().get(0).target().value());
     }
 
+    @Test
+    void findAll_hydratesLinksOfEveryNote() {
+        repository.save(sampleNote("A", List.of()));
+        repository.save(sampleNote("B", List.of()));
+        repository.save(sampleNote("C", List.of()));
+        repository.addLink(new LinkDefinition("A", "B", "CALLS", "A calls B for processing"));
+        repository.addLink(new LinkDefinition("A", "C", "CALLS", "A calls C for processing"));
+        repository.addLink(new LinkDefinition("B", "C", "DEPENDS_ON", "B depends on C"));
+
+        Map<String, MemoryNote> notes = repository.findAll().stream()
+                .collect(java.util.stream.Collectors.toMap(n -> n.id().value(), n -> n));
+
+        assertEquals(2, notes.get("A").links().size());
+        assertEquals(1, notes.get("B").links().size());
+        assertEquals("C", notes.get("B").links().get(0).target().value());
+        assertTrue(notes.get("C").links().isEmpty());
+    }
+
+    @Test
+    void saveAll_persistsNotesAndLinksWithinBatch() {
+        MemoryNote a = sampleNote("A", List.of("batch"))
+                .withLinks(List.of(new NoteLink("B", "DEPENDS_ON", "A depends on B")));
+        MemoryNote b = sampleNote("B", List.of("batch"));
+
+        List<MemoryNote> saved = repository.saveAll(List.of(a, b));
+
+        assertEquals(2, saved.size());
+        assertEquals(2, repository.findByTag("batch").size());
+        List<NoteLink> links = repository.findLinksFrom(new MemoryNoteId("A"));
+        assertEquals(1, links.size());
+        assertEquals("B", links.get(0).target().value());
+    }
+
+    @Test
+    void saveAll_updatesExistingNotesWithoutDuplicatingLinks() {
+        repository.save(sampleNote("A", List.of()));
+        repository.save(sampleNote("B", List.of()));
+        MemoryNote updated = sampleNote("A", List.of("updated"))
+                .withLinks(List.of(new NoteLink("B", "CALLS", "A calls B for processing")));
+
+        repository.saveAll(List.of(updated));
+        repository.saveAll(List.of(updated));
+
+        Optional<MemoryNote> result = repository.findById(new MemoryNoteId("A"));
+        assertTrue(result.isPresent());
+        assertTrue(result.get().tags().contains("updated"));
+        assertEquals(1, result.get().links().size());
+        assertEquals(2, repository.findAll().size());
+    }
+
+    @Test
+    void saveAll_replacesTheContextOfAnExistingLink() {
+        repository.save(sampleNote("B", List.of()));
+        repository.saveAll(List.of(sampleNote("A", List.of())
+                .withLinks(List.of(new NoteLink("B", "CALLS", "A calls B")))));
+
+        repository.saveAll(List.of(sampleNote("A", List.of())
+                .withLinks(List.of(new NoteLink("B", "CALLS", "A calls B for billing")))));
+
+        List<NoteLink> links = repository.findLinksFrom(new MemoryNoteId("A"));
+        assertEquals(1, links.size());
+        assertEquals("A calls B for billing", links.get(0).context());
+    }
+
+    @Test
+    void saveAll_whenLinkTargetMissing_throws() {
+        MemoryNote a = sampleNote("A", List.of())
+                .withLinks(List.of(new NoteLink("missing", "CALLS", "dangling link")));
+
+        assertThrows(IllegalArgumentException.class, () -> repository.saveAll(List.of(a)));
+        assertTrue(repository.findAll().isEmpty());
+    }
+
+    @Test
+    void save_withoutEmbedding_keepsStoredEmbeddingAndContentHash() {
+        MemoryNote note = sampleNote("hashed", List.of("v1"));
+        repository.save(note.withEmbedding(new float[384]));
+        repository.save(sampleNote("plain", List.of()));
+
+        repository.save(sampleNote("hashed", List.of("v2")));
+
+        Map<MemoryNoteId, String> hashes = repository.findEmbeddedContentHashes(
+                List.of(new MemoryNoteId("hashed"), new MemoryNoteId("plain")));
+        assertEquals(Map.of(new MemoryNoteId("hashed"), note.contentHash("test-model:384")), hashes);
+        assertEquals(List.of("v2"), repository.findById(new MemoryNoteId("hashed")).orElseThrow().tags());
+    }
+
+    @Test
+    void patchNotes_updatesOnlyGivenProperties() {
+        repository.save(sampleNote("A", List.of("old")));
+        repository.save(sampleNote("B", List.of("keep")));
+        repository.addLink(new LinkDefinition("A", "B", "RELATED_TO", "A relates to B"));
+
+        List<MemoryNoteId> patched = repository.patchNotes(List.of(
+                new NotePatch("A", null, "new-context", List.of("new")),
+                new NotePatch("B", List.of("k"), null, null),
+                new NotePatch("missing", null, "ignored", null)));
+
+        assertEquals(Set.of(new MemoryNoteId("A"), new MemoryNoteId("B")), Set.copyOf(patched));
+        MemoryNote a = repository.findById(new MemoryNoteId("A")).orElseThrow();
+        assertEquals("new-context", a.context());
+        assertEquals(List.of("new"), a.tags());
+        assertEquals(List.of("keyword1", "keyword2"), a.keywords());
+        assertEquals("Content for A", a.content());
+        assertEquals(1, a.links().size());
+        MemoryNote b = repository.findById(new MemoryNoteId("B")).orElseThrow();
+        assertEquals(List.of("k"), b.keywords());
+        assertEquals("test-context", b.context());
+        assertEquals(List.of("keep"), b.tags());
+    }
+
     @Test
     void findByTag_returnsOnlyMatchingTags() {
         repository.save(sampleNote("n1", List.of("architecture", "backend")));
@@ -304,6 +432,18 @@ class LadybugMemoryNoteRepositoryAdapterTest {
         assertEquals(2, note.get().retrievalCount());
     }
 
+    @Test
+    void incrementRetrievalCount_flushAddsPendingDeltaToStoredCount() {
+        repository.save(sampleNote("note-1", List.of()).withRetrievalCount(3));
+        repository.incrementRetrievalCount(new MemoryNoteId("note-1"));
+        repository.incrementRetrievalCount(new MemoryNoteId("note-1"));
+
+        retrievalCounts.flush();
+
+        assertEquals(5, dbRepository.findById("note-1").orElseThrow().getRetrievalCount());
+        assertEquals(5, repository.findById(new MemoryNoteId("note-1")).orElseThrow().retrievalCount());
+    }
+
     @Test
     void getGraph_returnsAllNotesAndLinks() {
         repository.save(sampleNote("A", List.of()));
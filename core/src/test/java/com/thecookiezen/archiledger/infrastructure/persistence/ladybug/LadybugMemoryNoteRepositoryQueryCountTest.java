@@ -0,0 +1,561 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybug;
+
+import com.thecookiezen.archiledger.domain.model.LexicalMatch;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NoteFilter;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.model.NotePatch;
+import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.model.VectorMatch;
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
+import com.thecookiezen.archiledger.domain.repository.EmbeddingsService;
+import com.thecookiezen.archiledger.domain.repository.LexicalIndex;
+import com.thecookiezen.archiledger.domain.repository.VectorIndex;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.LadybugMemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteDbRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.RetrievalCountBuffer;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.EmbeddingCodeProjection;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.EmbeddingProjection;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LadybugMemoryNote;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.LinkProjection;
+import com.thecookiezen.archiledger.infrastructure.vectorindex.ExactReranker;
+import com.thecookiezen.archiledger.infrastructure.vectorindex.IterativeDeepening;
+import com.thecookiezen.ladybugdb.spring.core.LadybugDBTemplate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LadybugMemoryNoteRepositoryQueryCountTest {
+
+    private static final int NOTE_COUNT = 50;
+
+    @Mock
+    private MemoryNoteDbRepository dbRepository;
+
+    @Mock
+    private LadybugDBTemplate template;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private RetrievalCountBuffer retrievalCounts;
+
+    @Mock
+    private VectorIndex vectorIndex;
+
+    @Mock
+    private LexicalIndex lexicalIndex;
+
+    @Mock
+    private EmbeddingsService embeddingsService;
+
+    private final ExactReranker reranker = new ExactReranker("cosine", false, 4);
+
+    private final IterativeDeepening deepening = new IterativeDeepening(false, 1000, 60_000);
+
+    private LadybugMemoryNoteRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(embeddingsService.modelId()).thenReturn("test-model:2");
+        lenient().when(retrievalCounts.withoutFlush(any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(0).get());
+        repository = new LadybugMemoryNoteRepository(dbRepository, template, transactionManager, retrievalCounts, vectorIndex,
+                reranker, deepening, lexicalIndex, embeddingsService, "none", 1000, 10000, 0);
+    }
+
+    private List<LadybugMemoryNote> sampleNodes() {
+        return IntStream.range(0, NOTE_COUNT)
+                .mapToObj(i -> new LadybugMemoryNote("note-" + i, "Content " + i, List.of(), "ctx",
+                        List.of("architecture"), "2026-03-04T16:00:00Z", 0))
+                .toList();
+    }
+
+    private List<LinkProjection> chainLinks() {
+        return IntStream.range(0, NOTE_COUNT - 1)
+                .mapToObj(i -> new LinkProjection("note-" + i, "note-" + (i + 1), "RELATED_TO", "chain"))
+                .toList();
+    }
+
+    @Test
+    void findAll_hydratesLinksWithSingleQuery() {
+        when(dbRepository.findAll()).thenReturn(sampleNodes());
+        when(dbRepository.findLinksFromAll(anyList())).thenReturn(chainLinks());
+
+        List<MemoryNote> notes = repository.findAll();
+
+        assertEquals(NOTE_COUNT, notes.size());
+        assertEquals("note-1", notes.get(0).links().get(0).target().value());
+        assertTrue(notes.get(NOTE_COUNT - 1).links().isEmpty());
+        verify(dbRepository, times(1)).findLinksFromAll(anyList());
+        verify(dbRepository, never()).findLinksFrom(anyString());
+    }
+
+    @Test
+    void findByTag_hydratesLinksWithSingleQuery() {
+        when(dbRepository.findByTag("architecture")).thenReturn(sampleNodes());
+        when(dbRepository.findLinksFromAll(anyList())).thenReturn(chainLinks());
+
+        List<MemoryNote> notes = repository.findByTag("architecture");
+
+        assertEquals(NOTE_COUNT, notes.size());
+        verify(dbRepository, times(1)).findLinksFromAll(anyList());
+        verify(dbRepository, never()).findLinksFrom(anyString());
+    }
+
+    @Test
+    void findNotesUpward_hydratesLinksWithSingleQuery() {
+        when(template.query(anyString(), anyMap(), eq(LadybugMemoryNote.class))).thenReturn(sampleNodes());
+        when(dbRepository.findLinksFromAll(anyList())).thenReturn(chainLinks());
+
+        List<MemoryNote> notes = repository.findNotesUpward(new MemoryNoteId("root"), 3, NOTE_COUNT);
+
+        assertEquals(NOTE_COUNT, notes.size());
+        verify(dbRepository, times(1)).findLinksFromAll(anyList());
+        verify(dbRepository, never()).findLinksFrom(anyString());
+    }
+
+    @Test
+    void findSimilar_hydratesLinksWithSingleQueryAndKeepsScores() {
+        List<VectorMatch> matches = IntStream.range(0, NOTE_COUNT)
+                .mapToObj(i -> new VectorMatch(new MemoryNoteId("note-" + i), 0.25))
+                .toList();
+        when(vectorIndex.search(any(float[].class), eq(NOTE_COUNT), eq(0))).thenReturn(matches);
+        when(dbRepository.findByIds(anyList())).thenReturn(sampleNodes().reversed());
+        when(dbRepository.findLinksFromAll(anyList())).thenReturn(chainLinks());
+
+        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(new float[] { 0.1f }, NOTE_COUNT, 0.0, 0.0,
+                VectorSearchOptions.DEFAULT);
+
+        assertEquals(NOTE_COUNT, results.size());
+        assertEquals(0.75, results.get(0).score(), 1e-9);
+        assertEquals("note-0", results.get(0).item().id().value());
+        verify(dbRepository, times(1)).findByIds(anyList());
+        verify(dbRepository, times(1)).findLinksFromAll(anyList());
+        verify(dbRepository, never()).findLinksFrom(anyString());
+    }
+
+    @Test
+    void findSimilar_withRerank_oversamplesAndReordersByExactDistance() {
+        when(vectorIndex.search(any(float[].class), eq(4), eq(0))).thenReturn(List.of(
+                new VectorMatch(new MemoryNoteId("note-1"), 0.1),
+                new VectorMatch(new MemoryNoteId("note-2"), 0.2),
+                new VectorMatch(new MemoryNoteId("note-3"), 0.3),
+                new VectorMatch(new MemoryNoteId("gone"), 0.4)));
+        when(dbRepository.findEmbeddings(List.of("note-1", "note-2", "note-3", "gone"))).thenReturn(List.of(
+                new EmbeddingProjection("note-1", new float[] { 0f, 1f }),
+                new EmbeddingProjection("note-2", new float[] { 1f, 1f }),
+                new EmbeddingProjection("note-3", new float[] { 1f, 0f })));
+        when(dbRepository.findByIds(List.of("note-3", "note-2"))).thenReturn(sampleNodes().subList(2, 4));
+
+        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(new float[] { 1f, 0f }, 2, 0.0, 0.0,
+                new VectorSearchOptions(0, true, 2));
+
+        assertEquals(List.of("note-3", "note-2"), results.stream().map(r -> r.item().id().value()).toList());
+        assertEquals(1.0, results.get(0).score(), 1e-6);
+        assertEquals(Math.sqrt(0.5), results.get(1).score(), 1e-6);
+    }
+
+    @Test
+    void findSimilar_withSelectiveFilter_scansMatchingNotesExactly() {
+        when(template.query(contains("RETURN n.id AS id LIMIT $limit"),
+                eq(Map.of("anyTags", List.of("architecture"), "limit", 1001L)), eq(MemoryNoteId.class)))
+                .thenReturn(List.of(new MemoryNoteId("note-1"), new MemoryNoteId("note-2")));
+        when(dbRepository.findEmbeddings(List.of("note-1", "note-2"))).thenReturn(List.of(
+                new EmbeddingProjection("note-1", new float[] { 0f, 1f }),
+                new EmbeddingProjection("note-2", new float[] { 1f, 0f })));
+        when(dbRepository.findByIds(List.of("note-2"))).thenReturn(sampleNodes().subList(2, 3));
+        NoteFilter filter = new NoteFilter(List.of("architecture"), null, null, null, null, null);
+
+        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(new float[] { 1f, 0f }, 1, 0.0, 0.0,
+                VectorSearchOptions.DEFAULT.withFilter(filter));
+
+        assertEquals(List.of("note-2"), results.stream().map(r -> r.item().id().value()).toList());
+        assertEquals(1.0, results.get(0).score(), 1e-6);
+        verifyNoInteractions(vectorIndex);
+    }
+
+    @Test
+    void findSimilar_withTimestampRange_comparesNormalizedUtcTimestamps() {
+        when(template.query(contains("n.timestampUtc >= $from AND n.timestampUtc <> '' AND n.timestampUtc <= $to"),
+                eq(Map.of("from", "2026-03-04T14:00:00.000000000Z", "to", "2026-03-04T16:00:00.500000000Z",
+                        "limit", 1001L)),
+                eq(MemoryNoteId.class))).thenReturn(List.of());
+        NoteFilter filter = new NoteFilter(null, null, "2026-03-04T16:00:00+02:00", "2026-03-04T16:00:00.5Z", null,
+                null);
+
+        assertTrue(repository.findSimilar(new float[] { 1f, 0f }, 1, 0.0, 0.0,
+                VectorSearchOptions.DEFAULT.withFilter(filter)).isEmpty());
+        verifyNoInteractions(vectorIndex);
+    }
+
+    @Test
+    void findSimilar_withBroadFilter_widensCandidatePoolUntilEnoughNotesPass() {
+        repository = new LadybugMemoryNoteRepository(dbRepository, template, transactionManager, retrievalCounts, vectorIndex,
+                reranker, deepening, lexicalIndex, embeddingsService, "none", 1, 10000, 0);
+        when(template.query(contains("RETURN n.id AS id LIMIT $limit"), anyMap(), eq(MemoryNoteId.class)))
+                .thenReturn(List.of(new MemoryNoteId("note-1"), new MemoryNoteId("note-2")));
+        List<VectorMatch> firstPool = IntStream.range(0, 8)
+                .mapToObj(i -> new VectorMatch(new MemoryNoteId("note-" + i), 0.01 * i))
+                .toList();
+        List<VectorMatch> secondPool = IntStream.range(0, 20)
+                .mapToObj(i -> new VectorMatch(new MemoryNoteId("note-" + i), 0.01 * i))
+                .toList();
+        when(vectorIndex.search(any(float[].class), eq(8), eq(0))).thenReturn(firstPool);
+        when(vectorIndex.search(any(float[].class), eq(32), eq(0))).thenReturn(secondPool);
+        when(template.query(contains("WHERE n.id IN $noteIds AND n.retrievalCount >= $minRetrievalCount"),
+                argThat(params -> params != null && ((List<?>) params.get("noteIds")).size() == 8),
+                eq(LadybugMemoryNote.class))).thenReturn(sampleNodes().subList(7, 8));
+        when(template.query(contains("WHERE n.id IN $noteIds AND n.retrievalCount >= $minRetrievalCount"),
+                argThat(params -> params != null && ((List<?>) params.get("noteIds")).size() == 20),
+                eq(LadybugMemoryNote.class))).thenReturn(List.of(sampleNodes().get(7), sampleNodes().get(15),
+                        sampleNodes().get(19)));
+        NoteFilter filter = new NoteFilter(null, null, null, null, 3, null);
+
+        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(new float[] { 1f, 0f }, 2, 0.0, 0.0,
+                VectorSearchOptions.DEFAULT.withFilter(filter));
+
+        assertEquals(List.of("note-7", "note-15"), results.stream().map(r -> r.item().id().value()).toList());
+        verify(vectorIndex, times(2)).search(any(float[].class), anyInt(), anyInt());
+        verify(dbRepository, never()).findByIds(anyList());
+    }
+
+    private static List<VectorMatch> matches(double... distances) {
+        return IntStream.range(0, distances.length)
+                .mapToObj(i -> new VectorMatch(new MemoryNoteId("note-" + i), distances[i]))
+                .toList();
+    }
+
+    @Test
+    void findSimilar_adaptive_growsLimitUntilTopKClearTheThreshold() {
+        when(vectorIndex.search(any(float[].class), eq(2), eq(0))).thenReturn(List.of(
+                new VectorMatch(new MemoryNoteId("note-0"), 0.1),
+                new VectorMatch(new MemoryNoteId("gone"), 0.2)));
+        when(vectorIndex.search(any(float[].class), eq(4), eq(0))).thenReturn(List.of(
+                new VectorMatch(new MemoryNoteId("note-0"), 0.1),
+                new VectorMatch(new MemoryNoteId("gone"), 0.2),
+                new VectorMatch(new MemoryNoteId("note-1"), 0.3),
+                new VectorMatch(new MemoryNoteId("note-2"), 0.35)));
+        when(dbRepository.findEmbeddings(List.of("note-0", "gone"))).thenReturn(List.of(
+                new EmbeddingProjection("note-0", new float[] { 1f, 0f })));
+        when(dbRepository.findEmbeddings(List.of("gone", "note-1", "note-2"))).thenReturn(List.of(
+                new EmbeddingProjection("note-1", new float[] { 1f, 0f }),
+                new EmbeddingProjection("note-2", new float[] { 0f, 1f })));
+        when(dbRepository.findByIds(List.of("note-0", "note-1"))).thenReturn(sampleNodes().subList(0, 2));
+
+        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(new float[] { 1f, 0f }, 2, 0.6, 0.0,
+                new VectorSearchOptions(0, true, 1).withAdaptive(true));
+
+        assertEquals(List.of("note-0", "note-1"), results.stream().map(r -> r.item().id().value()).toList());
+        verify(vectorIndex, times(2)).search(any(float[].class), anyInt(), anyInt());
+    }
+
+    @Test
+    void findSimilar_adaptive_stopsOnceTheFurthestCandidateIsBelowTheThreshold() {
+        when(vectorIndex.search(any(float[].class), eq(3), eq(0))).thenReturn(matches(0.1, 0.5, 0.5));
+        when(dbRepository.findByIds(List.of("note-0"))).thenReturn(sampleNodes().subList(0, 1));
+
+        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(new float[] { 1f }, 3, 0.6, 0.0,
+                VectorSearchOptions.DEFAULT.withAdaptive(true));
+
+        assertEquals(1, results.size());
+        verify(vectorIndex, times(1)).search(any(float[].class), anyInt(), anyInt());
+    }
+
+    @Test
+    void findSimilar_adaptive_stopsAtCandidateBudget() {
+        repository = new LadybugMemoryNoteRepository(dbRepository, template, transactionManager, retrievalCounts, vectorIndex,
+                reranker, new IterativeDeepening(false, 5, 60_000), lexicalIndex, embeddingsService, "none", 1000, 10000, 0);
+        when(vectorIndex.search(any(float[].class), eq(3), eq(0))).thenReturn(List.of(
+                new VectorMatch(new MemoryNoteId("note-0"), 0.1),
+                new VectorMatch(new MemoryNoteId("gone"), 0.2),
+                new VectorMatch(new MemoryNoteId("note-1"), 0.3)));
+        when(vectorIndex.search(any(float[].class), eq(5), eq(0))).thenReturn(List.of(
+                new VectorMatch(new MemoryNoteId("note-0"), 0.1),
+                new VectorMatch(new MemoryNoteId("gone"), 0.2),
+                new VectorMatch(new MemoryNoteId("note-1"), 0.3),
+                new VectorMatch(new MemoryNoteId("gone-2"), 0.35),
+                new VectorMatch(new MemoryNoteId("gone-3"), 0.4)));
+        when(dbRepository.findEmbeddings(List.of("note-0", "gone", "note-1"))).thenReturn(List.of(
+                new EmbeddingProjection("note-0", new float[] { 1f, 0f }),
+                new EmbeddingProjection("note-1", new float[] { 1f, 0f })));
+        when(dbRepository.findEmbeddings(List.of("gone", "gone-2", "gone-3"))).thenReturn(List.of());
+        when(dbRepository.findByIds(List.of("note-0", "note-1"))).thenReturn(sampleNodes().subList(0, 2));
+
+        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(new float[] { 1f, 0f }, 3, 0.6, 0.0,
+                new VectorSearchOptions(0, true, 1).withAdaptive(true));
+
+        assertEquals(2, results.size());
+        verify(vectorIndex, times(2)).search(any(float[].class), anyInt(), anyInt());
+    }
+
+    @Test
+    void findSimilar_skipsMatchesDeletedBeforeHydration() {
+        when(vectorIndex.search(any(float[].class), eq(2), eq(50))).thenReturn(List.of(
+                new VectorMatch(new MemoryNoteId("gone"), 0.1),
+                new VectorMatch(new MemoryNoteId("note-1"), 0.2)));
+        when(dbRepository.findByIds(List.of("gone", "note-1"))).thenReturn(List.of(sampleNodes().get(1)));
+
+        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(new float[] { 0.1f }, 2, 0.0, 0.0,
+                VectorSearchOptions.withEfs(50));
+
+        assertEquals(1, results.size());
+        assertEquals("note-1", results.get(0).item().id().value());
+        assertEquals(0.8, results.get(0).score(), 1e-9);
+    }
+
+    @Test
+    void getGraph_reusesAllLinksForHydration() {
+        when(dbRepository.findAll()).thenReturn(sampleNodes());
+        when(dbRepository.findAllLinks()).thenReturn(chainLinks());
+
+        Map<String, Object> graph = repository.getGraph();
+
+        assertEquals(NOTE_COUNT, ((List<?>) graph.get("notes")).size());
+        verify(dbRepository, times(1)).findAllLinks();
+        verify(dbRepository, never()).findLinksFromAll(anyList());
+        verify(dbRepository, never()).findLinksFrom(anyString());
+    }
+
+    @Test
+    void saveAll_writesWholeBatchWithOneStatementPerKind() {
+        List<MemoryNote> batch = IntStream.range(0, NOTE_COUNT)
+                .mapToObj(i -> new MemoryNote(new MemoryNoteId("note-" + i), "Content " + i, List.of(), "ctx",
+                        List.of(), List.of(new NoteLink("note-" + ((i + 1) % NOTE_COUNT), "RELATED_TO", "ring")),
+                        "2026-03-04T16:00:00Z", 0, new float[] { 0.1f, 0.2f }))
+                .toList();
+
+        List<MemoryNote> saved = repository.saveAll(batch);
+
+        assertEquals(NOTE_COUNT, saved.size());
+        verify(dbRepository, times(1)).upsertNotes(argThat(rows -> rows.size() == NOTE_COUNT));
+        verify(dbRepository, times(1)).deleteEmbeddings(argThat(ids -> ids.size() == NOTE_COUNT));
+        verify(dbRepository, times(1)).saveEmbeddings(argThat(rows -> rows.size() == NOTE_COUNT));
+        verify(dbRepository, times(1)).mergeLinks(argThat(rows -> rows.size() == NOTE_COUNT));
+        verify(vectorIndex).upsertAll(argThat(embeddings -> embeddings.size() == NOTE_COUNT));
+        verify(lexicalIndex).indexAll(argThat(notes -> notes.size() == NOTE_COUNT));
+        verify(dbRepository, never()).saveEmbeddingCodes(anyList());
+        verify(dbRepository, never()).findExistingIds(anyList());
+        verify(dbRepository, never()).findById(anyString());
+        verify(dbRepository, never()).save(any(LadybugMemoryNote.class));
+    }
+
+    @Test
+    void saveAll_leavesIndexesUntouchedWhenTheTransactionFails() {
+        doThrow(new IllegalStateException("write failed")).when(dbRepository).upsertNotes(anyList());
+        MemoryNote note = new MemoryNote(new MemoryNoteId("A"), "Content", List.of(), "ctx", List.of(), List.of(),
+                "2026-03-04T16:00:00Z", 0, new float[] { 0.1f, 0.2f });
+
+        assertThrows(IllegalStateException.class, () -> repository.saveAll(List.of(note)));
+        verify(vectorIndex, never()).upsertAll(anyMap());
+        verifyNoInteractions(lexicalIndex);
+    }
+
+    @Test
+    void patchNotes_reindexesPatchedNotesLexically() {
+        when(dbRepository.patchNotes(anyList())).thenReturn(List.of(new MemoryNoteId("note-1")));
+        when(dbRepository.findByIds(List.of("note-1"))).thenReturn(sampleNodes().subList(1, 2));
+
+        repository.patchNotes(List.of(new NotePatch(new MemoryNoteId("note-1"), List.of("NullPointerException"),
+                null, null)));
+
+        verify(lexicalIndex).indexAll(argThat(notes -> notes.size() == 1
+                && notes.iterator().next().id().value().equals("note-1")));
+    }
+
+    @Test
+    void findLexical_hydratesMatchesInIndexOrderWithTheirScores() {
+        when(lexicalIndex.search("pointer", 3)).thenReturn(List.of(
+                new LexicalMatch(new MemoryNoteId("note-2"), 2.5),
+                new LexicalMatch(new MemoryNoteId("gone"), 1.5),
+                new LexicalMatch(new MemoryNoteId("note-1"), 0.5)));
+        when(dbRepository.findByIds(List.of("note-2", "gone", "note-1")))
+                .thenReturn(List.of(sampleNodes().get(1), sampleNodes().get(2)));
+
+        List<SimilarityResult<MemoryNote>> results = repository.findLexical("pointer", 3);
+
+        assertEquals(List.of("note-2", "note-1"), results.stream().map(r -> r.item().id().value()).toList());
+        assertEquals(2.5, results.get(0).score(), 1e-9);
+        verify(dbRepository, times(1)).findLinksFromAll(anyList());
+        verifyNoInteractions(vectorIndex);
+    }
+
+    private List<MemoryNote> int8Batch() {
+        return IntStream.range(0, NOTE_COUNT)
+                .mapToObj(i -> new MemoryNote(new MemoryNoteId("note-" + i), "Content " + i, List.of(), "ctx",
+                        List.of(), List.of(), "2026-03-04T16:00:00Z", 0, new float[] { -1f, 1f, 1f }))
+                .toList();
+    }
+
+    @Test
+    void saveAll_withInt8Quantization_storesOnlyCodes() {
+        repository = new LadybugMemoryNoteRepository(dbRepository, template, transactionManager, retrievalCounts, vectorIndex,
+                reranker, deepening, lexicalIndex, embeddingsService, "int8", 1000, 10000, 0);
+
+        repository.saveAll(int8Batch());
+
+        verify(dbRepository, times(1)).saveQuantizedEmbeddings(argThat(rows -> rows.size() == NOTE_COUNT
+                && rows.get(0).get("code").equals(List.of((byte) -128, (byte) 127, (byte) 127))
+                && !rows.get(0).containsKey("embedding")));
+        verify(dbRepository, never()).saveEmbeddings(anyList());
+        verify(dbRepository, never()).saveEmbeddingCodes(anyList());
+        verify(dbRepository, never()).saveQuantizedEmbeddingsWithFullPrecision(anyList());
+    }
+
+    @Test
+    void saveAll_withInt8QuantizationAndRerank_keepsFullPrecisionInTheSameStatement() {
+        repository = new LadybugMemoryNoteRepository(dbRepository, template, transactionManager, retrievalCounts, vectorIndex,
+                new ExactReranker("cosine", true, 4), deepening, lexicalIndex, embeddingsService, "int8", 1000, 10000, 0);
+
+        repository.saveAll(int8Batch());
+
+        verify(dbRepository, times(1)).saveQuantizedEmbeddingsWithFullPrecision(argThat(rows -> rows.size() == NOTE_COUNT
+                && rows.get(0).containsKey("code") && rows.get(0).containsKey("embedding")));
+        verify(dbRepository, never()).saveQuantizedEmbeddings(anyList());
+        verify(dbRepository, never()).saveEmbeddings(anyList());
+    }
+
+    @Test
+    void findSimilar_withInt8Quantization_reranksDecodedCodes() {
+        repository = new LadybugMemoryNoteRepository(dbRepository, template, transactionManager, retrievalCounts, vectorIndex,
+                reranker, deepening, lexicalIndex, embeddingsService, "int8", 1000, 10000, 0);
+        when(vectorIndex.search(any(float[].class), eq(2), eq(0))).thenReturn(matches(0.1, 0.2));
+        when(dbRepository.findEmbeddingCodes(List.of("note-0", "note-1"))).thenReturn(List.of(
+                new EmbeddingCodeProjection("note-0", new byte[] { -128, -128 }, 0f, 0f),
+                new EmbeddingCodeProjection("note-1", new byte[] { 127, -128 }, 1f / 255f, 0.5f - 127f / 255f)));
+        when(dbRepository.findByIds(List.of("note-1", "note-0"))).thenReturn(sampleNodes().subList(0, 2));
+
+        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(new float[] { 1f, 0f }, 2, 0.0, 0.0,
+                new VectorSearchOptions(0, true, 1));
+
+        assertEquals(List.of("note-1", "note-0"), results.stream().map(r -> r.item().id().value()).toList());
+        verify(dbRepository, never()).findEmbeddings(anyList());
+    }
+
+    @Test
+    void saveAll_withCoarseIndex_writesPrefixInTheEmbeddingStatement() {
+        repository = new LadybugMemoryNoteRepository(dbRepository, template, transactionManager, retrievalCounts, vectorIndex,
+                reranker, deepening, lexicalIndex, embeddingsService, "none", 1000, 10000, 2);
+        MemoryNote note = new MemoryNote(new MemoryNoteId("note-1"), "Content", List.of(), "ctx", List.of(), List.of(),
+                "2026-03-04T16:00:00Z", 0, new float[] { 1f, 2f, 3f });
+
+        repository.saveAll(List.of(note));
+
+        verify(dbRepository, times(1)).saveEmbeddingsWithCoarse(argThat(rows -> rows.size() == 1
+                && Arrays.equals((float[]) rows.get(0).get("coarseEmbedding"), new float[] { 1f, 2f })));
+        verify(dbRepository, never()).saveEmbeddings(anyList());
+    }
+
+    @Test
+    void saveAll_rejectsLinksToUnknownNotesInsideTheTransaction() {
+        when(dbRepository.findExistingIds(List.of("missing"))).thenReturn(List.of());
+        MemoryNote note = new MemoryNote(new MemoryNoteId("A"), "Content", List.of(), "ctx", List.of(),
+                List.of(new NoteLink("missing", "RELATED_TO", "dangling")), "2026-03-04T16:00:00Z", 0, null);
+
+        assertThrows(IllegalArgumentException.class, () -> repository.saveAll(List.of(note)));
+        InOrder inOrder = inOrder(transactionManager, dbRepository);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(dbRepository).findExistingIds(List.of("missing"));
+        inOrder.verify(transactionManager).rollback(any());
+        verify(dbRepository, never()).upsertNotes(anyList());
+        verify(dbRepository, never()).mergeLinks(anyList());
+    }
+
+    @Test
+    void incrementRetrievalCount_isBufferedUntilFlush() {
+        RetrievalCountBuffer buffer = new RetrievalCountBuffer(dbRepository, 1000);
+        repository = new LadybugMemoryNoteRepository(dbRepository, template, transactionManager, buffer, vectorIndex, reranker,
+                deepening, lexicalIndex, embeddingsService, "none", 1000, 10000, 0);
+        when(dbRepository.findById("note-1")).thenReturn(Optional.of(sampleNodes().get(1)));
+
+        for (int i = 0; i < 5; i++) {
+            repository.incrementRetrievalCount(new MemoryNoteId("note-1"));
+        }
+        repository.incrementRetrievalCount(new MemoryNoteId("note-2"));
+
+        assertEquals(5, repository.findById(new MemoryNoteId("note-1")).orElseThrow().retrievalCount());
+        verify(dbRepository, never()).save(any(LadybugMemoryNote.class));
+        verify(dbRepository, never()).addRetrievalCounts(anyList());
+
+        assertEquals(2, buffer.flush());
+        verify(dbRepository, times(1)).addRetrievalCounts(argThat(rows -> rows.size() == 2
+                && rows.contains(Map.of("id", "note-1", "delta", 5L))));
+        assertEquals(0, buffer.pending("note-1"));
+        assertEquals(0, buffer.flush());
+    }
+
+    @Test
+    void flush_doesNotAddADeltaThatAConcurrentSaveAlreadyStored() throws Exception {
+        RetrievalCountBuffer buffer = new RetrievalCountBuffer(dbRepository, 1000);
+        repository = new LadybugMemoryNoteRepository(dbRepository, template, transactionManager, buffer, vectorIndex, reranker,
+                deepening, lexicalIndex, embeddingsService, "none", 1000, 10000, 0);
+        AtomicLong storedCount = new AtomicLong();
+        CountDownLatch flushWriting = new CountDownLatch(1);
+        CountDownLatch saveStored = new CountDownLatch(1);
+        doAnswer(inv -> {
+            flushWriting.countDown();
+            saveStored.await(200, TimeUnit.MILLISECONDS);
+            List<Map<String, Object>> rows = inv.getArgument(0);
+            rows.forEach(row -> storedCount.addAndGet((Long) row.get("delta")));
+            return null;
+        }).when(dbRepository).addRetrievalCounts(anyList());
+        when(dbRepository.save(any(LadybugMemoryNote.class))).thenAnswer(inv -> {
+            LadybugMemoryNote saved = inv.getArgument(0);
+            storedCount.set(saved.getRetrievalCount());
+            saveStored.countDown();
+            return saved;
+        });
+        for (int i = 0; i < 3; i++) {
+            repository.incrementRetrievalCount(new MemoryNoteId("note-1"));
+        }
+        MemoryNote read = new MemoryNote(new MemoryNoteId("note-1"), "Content", List.of(), "ctx", List.of(), List.of(),
+                "2026-03-04T16:00:00Z", 3, null);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> flush = executor.submit(buffer::flush);
+            assertTrue(flushWriting.await(5, TimeUnit.SECONDS));
+            Future<MemoryNote> save = executor.submit(() -> repository.save(read));
+
+            flush.get(5, TimeUnit.SECONDS);
+            save.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(3, storedCount.get() + buffer.pending("note-1"));
+    }
+
+    @Test
+    void emptyResult_skipsLinkQuery() {
+        when(dbRepository.findByTag("missing")).thenReturn(List.of());
+
+        assertTrue(repository.findByTag("missing").isEmpty());
+        verifyNoMoreInteractions(ignoreStubs(dbRepository));
+        verify(dbRepository, never()).findLinksFromAll(anyList());
+    }
+}
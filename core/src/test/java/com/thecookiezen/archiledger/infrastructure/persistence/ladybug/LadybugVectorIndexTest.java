@@ -0,0 +1,132 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybug;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.VectorMatch;
+import com.thecookiezen.archiledger.infrastructure.embeddings.HnswParameters;
+import com.thecookiezen.archiledger.infrastructure.embeddings.LadybugVectorExtensionInitializer;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.LadybugVectorIndex;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteDbRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.EmbeddingProjection;
+import com.thecookiezen.archiledger.infrastructure.vectorindex.ExactReranker;
+import com.thecookiezen.ladybugdb.spring.core.LadybugDBTemplate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LadybugVectorIndexTest {
+
+    @Mock
+    private MemoryNoteDbRepository dbRepository;
+
+    @Mock
+    private LadybugDBTemplate template;
+
+    @Mock
+    private LadybugVectorExtensionInitializer indexManager;
+
+    private final ExactReranker reranker = new ExactReranker("l2", false, 4);
+
+    private LadybugVectorIndex vectorIndex;
+
+    @BeforeEach
+    void setUp() {
+        vectorIndex = new LadybugVectorIndex(dbRepository, template, indexManager, reranker, 200, "none", 0, 8);
+    }
+
+    private void activeIndex(String indexName) {
+        when(indexManager.withActiveIndex(any())).thenAnswer(invocation ->
+                invocation.<Function<String, ?>>getArgument(0).apply(indexName));
+    }
+
+    @Test
+    void search_usesDefaultEfsUnlessOverriddenAndNeverBelowTopK() {
+        float[] query = new float[] { 0.1f };
+        activeIndex("note_embedding_idx_v2");
+
+        vectorIndex.search(query, 10, 0);
+        vectorIndex.search(query, 10, 50);
+        vectorIndex.search(query, 300, 50);
+
+        verify(dbRepository).findNearestRaw("note_embedding_idx_v2", query, 10L, 200L);
+        verify(dbRepository).findNearestRaw("note_embedding_idx_v2", query, 10L, 50L);
+        verify(dbRepository).findNearestRaw("note_embedding_idx_v2", query, 300L, 300L);
+    }
+
+    @Test
+    void search_fallsBackToExactSearchWhileIndexIsRebuilt() {
+        float[] query = new float[] { 0.1f, 0.2f };
+        List<VectorMatch> exact = List.of(new VectorMatch(new MemoryNoteId("note-1"), 0.1));
+        activeIndex(null);
+        when(indexManager.defaultParameters()).thenReturn(new HnswParameters(30, 60, 0.1, 300, "cosine"));
+        when(template.query(contains("array_cosine_similarity(e.embedding, CAST($queryVector AS FLOAT[2]))"),
+                eq(Map.of("queryVector", query, "limit", 3L)), eq(VectorMatch.class))).thenReturn(exact);
+
+        assertEquals(exact, vectorIndex.search(query, 3, 0));
+        verify(dbRepository, never()).findNearestRaw(anyString(), any(float[].class), anyLong(), anyLong());
+    }
+
+    @Test
+    void updates_countTowardsRebuildChurn() {
+        vectorIndex.upsertAll(Map.of(new MemoryNoteId("a"), new float[] { 1f }, new MemoryNoteId("b"), new float[] { 1f }));
+        vectorIndex.remove(new MemoryNoteId("a"));
+
+        verify(indexManager).recordChanges(2);
+        verify(indexManager).recordChanges(1);
+    }
+
+    @Test
+    void coarseSearch_queriesPrefixIndexWithWiderPoolAndRescoresWithFullEmbeddings() {
+        LadybugVectorIndex coarse = new LadybugVectorIndex(dbRepository, template, indexManager, reranker, 20, "none", 2, 4);
+        float[] query = new float[] { 1f, 0f, 0f };
+        activeIndex("note_embedding_coarse_idx");
+        when(dbRepository.findNearestRaw(eq("note_embedding_coarse_idx"), aryEq(new float[] { 1f, 0f }), eq(8L),
+                eq(20L))).thenReturn(List.of(
+                        new VectorMatch(new MemoryNoteId("prefix-only"), 0.0),
+                        new VectorMatch(new MemoryNoteId("close"), 0.1),
+                        new VectorMatch(new MemoryNoteId("far"), 0.2)));
+        when(dbRepository.findEmbeddings(List.of("prefix-only", "close", "far"))).thenReturn(List.of(
+                new EmbeddingProjection("prefix-only", new float[] { 1f, 0f, 3f }),
+                new EmbeddingProjection("close", new float[] { 1f, 0f, 1f }),
+                new EmbeddingProjection("far", new float[] { 1f, 0f, 2f })));
+
+        List<VectorMatch> matches = coarse.search(query, 2, 0);
+
+        assertEquals(List.of(new VectorMatch(new MemoryNoteId("close"), 1.0),
+                new VectorMatch(new MemoryNoteId("far"), 2.0)), matches);
+    }
+
+    @Test
+    void coarseUpserts_onlyCountChanges() {
+        LadybugVectorIndex coarse = new LadybugVectorIndex(dbRepository, template, indexManager, reranker, 200, "none", 2, 8);
+
+        coarse.upsert(new MemoryNoteId("a"), new float[] { 1f, 2f, 3f });
+
+        verify(indexManager).recordChanges(1);
+        verifyNoInteractions(dbRepository);
+    }
+
+    @Test
+    void rejectsNonPositiveDefaultEfs() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new LadybugVectorIndex(dbRepository, template, indexManager, reranker, 0, "none", 0, 8));
+    }
+
+    @Test
+    void rejectsQuantizedEmbeddings() {
+        assertThrows(IllegalStateException.class,
+                () -> new LadybugVectorIndex(dbRepository, template, indexManager, reranker, 200, "int8", 0, 8));
+    }
+}
@@ -1,8 +1,12 @@
 package com.thecookiezen.archiledger.infrastructure.persistence.ladybug;
 
+import com.ladybugdb.Connection;
+import com.ladybugdb.Database;
+import com.ladybugdb.QueryResult;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
 import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
 import com.thecookiezen.archiledger.domain.repository.EmbeddingsService;
 import com.thecookiezen.archiledger.infrastructure.config.LadybugDBConfig;
 import com.thecookiezen.archiledger.infrastructure.embeddings.LadybugVectorExtensionInitializer;
@@ -35,7 +39,9 @@ class SimilaritySearchIntegrationTest {
     @Import(LadybugDBConfig.class)
     @ComponentScan(basePackages = {
             "com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb",
-            "com.thecookiezen.archiledger.infrastructure.embeddings"
+            "com.thecookiezen.archiledger.infrastructure.embeddings",
+            "com.thecookiezen.archiledger.infrastructure.vectorindex",
+            "com.thecookiezen.archiledger.infrastructure.lexical"
     })
     static class TestConfig {
 
@@ -58,6 +64,9 @@ class SimilaritySearchIntegrationTest {
     @Autowired
     private LadybugVectorExtensionInitializer vectorExtensionInitializer;
 
+    @Autowired
+    private Database database;
+
     @BeforeEach
     void cleanDatabase() {
         dbRepository.deleteAllNotesWithEmbeddings();
@@ -81,7 +90,7 @@ class SimilaritySearchIntegrationTest {
         saveNoteWithEmbedding(gardeningNote);
 
         float[] queryEmbedding = embeddingsService.embed("programming languages and software development");
-        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(queryEmbedding, 10);
+        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(queryEmbedding, 10, 0.0, 0.0, VectorSearchOptions.DEFAULT);
 
         assertEquals(4, results.size());
 
@@ -119,7 +128,7 @@ class SimilaritySearchIntegrationTest {
         saveNoteWithEmbedding(recipeNote);
 
         float[] queryEmbedding = embeddingsService.embed("software architecture patterns");
-        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(queryEmbedding, 10, -1, 0);
+        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(queryEmbedding, 10, -1, 0, VectorSearchOptions.DEFAULT);
 
         assertEquals(3, results.size());
 
@@ -148,7 +157,7 @@ class SimilaritySearchIntegrationTest {
         saveNoteWithEmbedding(note3);
 
         float[] queryEmbedding = embeddingsService.embed("building web APIs");
-        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(queryEmbedding, 10);
+        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(queryEmbedding, 10, 0.0, 0.0, VectorSearchOptions.DEFAULT);
 
         for (int i = 0; i < results.size() - 1; i++) {
             assertTrue(results.get(i).score() >= results.get(i +1).score(),
@@ -172,7 +181,7 @@ class SimilaritySearchIntegrationTest {
         saveNoteWithEmbedding(gardeningNote);
 
         float[] queryEmbedding = embeddingsService.embed("programming languages and software development");
-        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(queryEmbedding, 10, 0.3, 0.0);
+        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(queryEmbedding, 10, 0.3, 0.0, VectorSearchOptions.DEFAULT);
 
         assertEquals(2, results.size());
         double javaScore = findScoreForNote(results, "java-note");
@@ -198,7 +207,7 @@ class SimilaritySearchIntegrationTest {
         float[] queryEmbedding = embeddingsService.embed("programming languages and software development");
         
         double temperature = 0.5;
-        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(queryEmbedding, 10, -1, temperature);
+        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(queryEmbedding, 10, -1, temperature, VectorSearchOptions.DEFAULT);
 
         
         assertEquals(4, results.size());
@@ -230,7 +239,7 @@ class SimilaritySearchIntegrationTest {
         float[] queryEmbedding = embeddingsService.embed("programming languages and software development");
         double temperature = 0.5;
         double threshold = 0.3;
-        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(queryEmbedding, 10, threshold, temperature);
+        List<SimilarityResult<MemoryNote>> results = repository.findSimilar(queryEmbedding, 10, threshold, temperature, VectorSearchOptions.DEFAULT);
 
         
         assertTrue(results.size() == 2, "Should return at least 2 results with threshold 0.3");
@@ -254,13 +263,36 @@ class SimilaritySearchIntegrationTest {
 
         float[] queryEmbedding = embeddingsService.embed("software development frameworks");
         
-        double lowTempScore = findScoreForNote(repository.findSimilar(queryEmbedding, 10, 0.0, 0.1), "note-1");
-        double highTempScore = findScoreForNote(repository.findSimilar(queryEmbedding, 10, 0.0, 1.0), "note-1");
+        double lowTempScore = findScoreForNote(repository.findSimilar(queryEmbedding, 10, 0.0, 0.1, VectorSearchOptions.DEFAULT), "note-1");
+        double highTempScore = findScoreForNote(repository.findSimilar(queryEmbedding, 10, 0.0, 1.0, VectorSearchOptions.DEFAULT), "note-1");
         
         assertTrue(lowTempScore < highTempScore, 
                 "Lower temperature should give lower score for same distance");
     }
 
+    @Test
+    void initialize_keepsTheMostRecentlyBuiltIndexAndDeletesStaleMetadata() {
+        saveNoteWithEmbedding(createNote("note-1", "Spring Boot microservices"));
+        assertTrue(vectorExtensionInitializer.rebuildIndex(vectorExtensionInitializer.defaultParameters()));
+        String active = vectorExtensionInitializer.status().activeIndex();
+        String other = active.equals("note_embedding_idx") ? "note_embedding_idx_v2" : "note_embedding_idx";
+        try (Connection conn = new Connection(database);
+                QueryResult result = conn.query("CREATE (m:VectorIndexMeta {name: '" + other
+                        + "', parameters: 'stale', dimensions: 384, builtAt: 1})")) {
+            assertTrue(result.isSuccess(), result.getErrorMessage());
+        }
+
+        vectorExtensionInitializer.initialize();
+
+        assertEquals(active, vectorExtensionInitializer.status().activeIndex());
+        try (Connection conn = new Connection(database);
+                QueryResult result = conn.query("MATCH (m:VectorIndexMeta) RETURN m.name")) {
+            assertTrue(result.hasNext());
+            assertEquals(active, result.getNext().getValue(0).getValue());
+            assertFalse(result.hasNext());
+        }
+    }
+
     private MemoryNote createNote(String id, String content) {
         return new MemoryNote(
                 new MemoryNoteId(id),
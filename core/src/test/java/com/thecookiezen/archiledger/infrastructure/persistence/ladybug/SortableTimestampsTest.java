@@ -0,0 +1,42 @@
+package com.thecookiezen.archiledger.infrastructure.persistence.ladybug;
+
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.SortableTimestamps;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortableTimestampsTest {
+
+    @Test
+    void of_normalizesPrecisionAndOffsetsToFixedWidthUtc() {
+        assertEquals("2026-03-04T16:00:00.000000000Z", SortableTimestamps.of("2026-03-04T16:00:00Z"));
+        assertEquals("2026-03-04T14:00:00.500000000Z", SortableTimestamps.of("2026-03-04T16:00:00.5+02:00"));
+        assertEquals("2026-03-04T16:00:00.123456789Z", SortableTimestamps.of("2026-03-04T16:00:00.123456789Z"));
+    }
+
+    @Test
+    void of_sortsChronologicallyAsStrings() {
+        // raw strings would order the offset and the shorter fraction wrongly
+        List<String> chronological = List.of(
+                "2026-03-04T15:30:00+02:00",
+                "2026-03-04T14:00:00Z",
+                "2026-03-04T14:00:00.25Z",
+                "2026-03-04T14:00:00.3Z",
+                "2026-03-04T16:00:00.1234Z");
+
+        List<String> sorted = chronological.stream().map(SortableTimestamps::of).sorted().toList();
+
+        assertEquals(chronological.stream().map(SortableTimestamps::of).toList(), sorted);
+        assertNotEquals(chronological, chronological.stream().sorted().toList());
+    }
+
+    @Test
+    void of_marksUnparseableTimestamps() {
+        Stream.of(null, "", "2026-03-04", "last tuesday")
+                .forEach(timestamp -> assertEquals(SortableTimestamps.UNPARSEABLE, SortableTimestamps.of(timestamp)));
+    }
+}
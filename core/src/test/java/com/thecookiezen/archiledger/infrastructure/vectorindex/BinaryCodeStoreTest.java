@@ -0,0 +1,76 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCodeStoreTest {
+
+    private static float[] signs(int dimensions, int... positive) {
+        float[] vector = new float[dimensions];
+        Arrays.fill(vector, -1f);
+        for (int i : positive) {
+            vector[i] = 1f;
+        }
+        return vector;
+    }
+
+    @Test
+    void nearest_ordersByHammingDistanceAcrossWords() {
+        BinaryCodeStore store = new BinaryCodeStore(130);
+        store.put("same", signs(130, 0, 64, 129));
+        store.put("one-off", signs(130, 0, 64));
+        store.put("three-off", signs(130, 1, 65));
+
+        List<BinaryCodeStore.Match> nearest = store.nearest(signs(130, 0, 64, 129), 2);
+
+        assertEquals(List.of(new BinaryCodeStore.Match("same", 0), new BinaryCodeStore.Match("one-off", 1)), nearest);
+    }
+
+    @Test
+    void putReplacesAndRemoveKeepsOtherCodesReachable() {
+        BinaryCodeStore store = new BinaryCodeStore(8);
+        for (int i = 0; i < 40; i++) {
+            store.put("n" + i, signs(8, i % 8));
+        }
+        store.put("n0", signs(8, 7));
+        store.remove("n1");
+        store.remove("n39");
+        store.remove("missing");
+
+        assertEquals(38, store.size());
+        List<BinaryCodeStore.Match> all = store.nearest(signs(8, 7), 100);
+        assertEquals(38, all.size());
+        assertTrue(all.stream().noneMatch(match -> match.id().equals("n1") || match.id().equals("n39")));
+        assertEquals(0, all.stream().filter(match -> match.id().equals("n0")).findFirst().orElseThrow().hamming());
+        assertEquals(0, all.get(0).hamming());
+    }
+
+    @Test
+    void shortlistContainsTrueNearestNeighbourOfRandomVectors() {
+        int dimensions = 64;
+        Random random = new Random(42);
+        BinaryCodeStore store = new BinaryCodeStore(dimensions);
+        float[][] vectors = new float[500][dimensions];
+        for (int i = 0; i < vectors.length; i++) {
+            for (int d = 0; d < dimensions; d++) {
+                vectors[i][d] = (float) random.nextGaussian();
+            }
+            store.put("n" + i, vectors[i]);
+        }
+        float[] query = vectors[123].clone();
+        query[0] += 0.01f;
+
+        assertTrue(store.nearest(query, 10).stream().anyMatch(match -> match.id().equals("n123")));
+    }
+
+    @Test
+    void rejectsWrongDimensions() {
+        BinaryCodeStore store = new BinaryCodeStore(4);
+        assertThrows(IllegalArgumentException.class, () -> store.put("a", new float[3]));
+    }
+}
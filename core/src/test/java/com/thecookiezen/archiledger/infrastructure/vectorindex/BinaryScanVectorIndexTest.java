@@ -0,0 +1,69 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.VectorMatch;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.MemoryNoteDbRepository;
+import com.thecookiezen.archiledger.infrastructure.persistence.ladybugdb.model.EmbeddingProjection;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BinaryScanVectorIndexTest {
+
+    @Mock
+    private MemoryNoteDbRepository dbRepository;
+
+    private BinaryScanVectorIndex vectorIndex;
+
+    @BeforeEach
+    void setUp() {
+        vectorIndex = new BinaryScanVectorIndex(null, dbRepository, new ExactReranker("l2", false, 4), 2, 2, 0);
+    }
+
+    private static MemoryNoteId id(String value) {
+        return new MemoryNoteId(value);
+    }
+
+    @Test
+    void search_shortlistsByHammingDistanceAndRescoresExactly() {
+        vectorIndex.upsertAll(Map.of(
+                id("far-quadrant"), new float[] { -1f, -1f },
+                id("near"), new float[] { 1f, 1f },
+                id("nearer"), new float[] { 2f, 3f }));
+        vectorIndex.upsert(id("other-quadrant"), new float[] { 3f, -1f });
+        when(dbRepository.findEmbeddings(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of("near", "nearer")))))
+                .thenReturn(List.of(
+                        new EmbeddingProjection("near", new float[] { 1f, 1f }),
+                        new EmbeddingProjection("nearer", new float[] { 2f, 3f })));
+
+        List<VectorMatch> matches = vectorIndex.search(new float[] { 2f, 2f }, 1, 0);
+
+        assertEquals(List.of(new VectorMatch(id("nearer"), 1.0)), matches);
+    }
+
+    @Test
+    void search_skipsRemovedNotes() {
+        vectorIndex.upsert(id("a"), new float[] { 1f, 1f });
+        vectorIndex.remove(id("a"));
+
+        assertEquals(List.of(), vectorIndex.search(new float[] { 1f, 1f }, 5, 0));
+        verify(dbRepository, never()).findEmbeddings(any());
+    }
+
+    @Test
+    void rejectsCoarseIndexSettings() {
+        assertThrows(IllegalStateException.class,
+                () -> new BinaryScanVectorIndex(null, dbRepository, new ExactReranker("l2", false, 4), 2, 2, 128));
+    }
+}
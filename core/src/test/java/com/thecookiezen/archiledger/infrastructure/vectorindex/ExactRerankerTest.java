@@ -0,0 +1,71 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.VectorMatch;
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExactRerankerTest {
+
+    private final DistanceKernel kernel = new ScalarDistanceKernel();
+
+    private static VectorMatch match(String id, double distance) {
+        return new VectorMatch(new MemoryNoteId(id), distance);
+    }
+
+    @Test
+    void candidateCount_usesServerDefaultsUnlessOverridden() {
+        ExactReranker reranker = new ExactReranker(HnswGraph.Metric.COSINE, false, 4, kernel);
+
+        assertEquals(10, reranker.candidateCount(10, VectorSearchOptions.DEFAULT));
+        assertEquals(40, reranker.candidateCount(10, new VectorSearchOptions(0, true, 0)));
+        assertEquals(30, reranker.candidateCount(10, new VectorSearchOptions(0, true, 3)));
+
+        ExactReranker enabled = new ExactReranker(HnswGraph.Metric.COSINE, true, 4, kernel);
+        assertEquals(40, enabled.candidateCount(10, VectorSearchOptions.DEFAULT));
+        assertEquals(10, enabled.candidateCount(10, new VectorSearchOptions(0, false, 8)));
+    }
+
+    @Test
+    void rerank_ordersByExactDistanceAndDropsMissingEmbeddings() {
+        ExactReranker reranker = new ExactReranker(HnswGraph.Metric.L2, false, 4, kernel);
+        float[] query = { 0f, 0f };
+        List<VectorMatch> candidates = List.of(match("far", 0.1), match("near", 0.2), match("gone", 0.0),
+                match("middle", 0.3));
+        Map<MemoryNoteId, float[]> embeddings = Map.of(
+                new MemoryNoteId("far"), new float[] { 3f, 4f },
+                new MemoryNoteId("near"), new float[] { 1f, 0f },
+                new MemoryNoteId("middle"), new float[] { 0f, 2f });
+
+        List<VectorMatch> reranked = reranker.rerank(query, candidates, embeddings, 2);
+
+        assertEquals(List.of(match("near", 1.0), match("middle", 2.0)), reranked);
+    }
+
+    @Test
+    void distance_matchesLadybugMetrics() {
+        float[] query = { 2f, 0f };
+        float[] embedding = { 1f, 1f };
+        float queryNorm = 2f;
+
+        assertEquals(1 - Math.sqrt(0.5), new ExactReranker(HnswGraph.Metric.COSINE, false, 4, kernel)
+                .distance(query, queryNorm, embedding), 1e-6);
+        assertEquals(Math.sqrt(2), new ExactReranker(HnswGraph.Metric.L2, false, 4, kernel)
+                .distance(query, queryNorm, embedding), 1e-6);
+        assertEquals(2.0, new ExactReranker(HnswGraph.Metric.L2SQ, false, 4, kernel)
+                .distance(query, queryNorm, embedding), 1e-6);
+        assertEquals(-1.0, new ExactReranker(HnswGraph.Metric.DOT_PRODUCT, false, 4, kernel)
+                .distance(query, queryNorm, embedding), 1e-6);
+    }
+
+    @Test
+    void rejectsOversampleBelowOne() {
+        assertThrows(IllegalArgumentException.class, () -> new ExactReranker("cosine", false, 0));
+    }
+}
@@ -0,0 +1,207 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class HnswGraphTest {
+
+    private static final int DIMENSIONS = 32;
+
+    private final DistanceKernel kernel = new ScalarDistanceKernel();
+
+    private static List<float[]> randomVectors(int count, long seed) {
+        Random random = new Random(seed);
+        List<float[]> vectors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            float[] vector = new float[DIMENSIONS];
+            for (int d = 0; d < DIMENSIONS; d++) {
+                vector[d] = (float) random.nextGaussian();
+            }
+            vectors.add(vector);
+        }
+        return vectors;
+    }
+
+    private HnswGraph graphOf(List<float[]> vectors, HnswGraph.Metric metric) {
+        return graphOf(vectors, metric, EmbeddingQuantization.NONE);
+    }
+
+    private HnswGraph graphOf(List<float[]> vectors, HnswGraph.Metric metric, EmbeddingQuantization quantization) {
+        HnswGraph graph = new HnswGraph(DIMENSIONS, metric, 16, 32, 100, quantization, kernel);
+        for (int i = 0; i < vectors.size(); i++) {
+            graph.insert("v" + i, vectors.get(i));
+        }
+        return graph;
+    }
+
+    private static Set<String> exactNeighbours(List<float[]> vectors, float[] query, int k) {
+        return IntStream.range(0, vectors.size()).boxed()
+                .sorted(Comparator.comparingDouble(i -> squaredDistance(vectors.get(i), query)))
+                .limit(k)
+                .map(i -> "v" + i)
+                .collect(Collectors.toSet());
+    }
+
+    private static double squaredDistance(float[] a, float[] b) {
+        double sum = 0;
+        for (int d = 0; d < a.length; d++) {
+            sum += (a[d] - b[d]) * (a[d] - b[d]);
+        }
+        return sum;
+    }
+
+    @Test
+    void findsMostExactNeighbours() {
+        List<float[]> vectors = randomVectors(2000, 1);
+        HnswGraph graph = graphOf(vectors, HnswGraph.Metric.L2);
+
+        int found = 0;
+        List<float[]> queries = randomVectors(50, 2);
+        for (float[] query : queries) {
+            Set<String> exact = exactNeighbours(vectors, query, 10);
+            List<HnswGraph.Match> matches = graph.search(query, 10, 100);
+            assertEquals(10, matches.size());
+            found += (int) matches.stream().filter(match -> exact.contains(match.id())).count();
+        }
+        assertTrue(found / (50.0 * 10) > 0.9, "recall@10 was " + found / 500.0);
+    }
+
+    @Test
+    void ordersMatchesByDistance() {
+        List<float[]> vectors = randomVectors(300, 3);
+        HnswGraph graph = graphOf(vectors, HnswGraph.Metric.COSINE);
+
+        List<HnswGraph.Match> matches = graph.search(vectors.get(7), 5, 50);
+
+        assertEquals("v7", matches.get(0).id());
+        assertEquals(0.0, matches.get(0).distance(), 1e-5);
+        for (int i = 1; i < matches.size(); i++) {
+            assertTrue(matches.get(i - 1).distance() <= matches.get(i).distance());
+        }
+    }
+
+    @Test
+    void removedAndReplacedVectorsAreNotReturned() {
+        List<float[]> vectors = randomVectors(300, 4);
+        HnswGraph graph = graphOf(vectors, HnswGraph.Metric.L2);
+
+        graph.remove("v1");
+        graph.insert("v2", vectors.get(3));
+
+        assertTrue(graph.search(vectors.get(1), 10, 50).stream().noneMatch(match -> match.id().equals("v1")));
+        List<HnswGraph.Match> matches = graph.search(vectors.get(3), 2, 50);
+        assertEquals(Set.of("v2", "v3"), matches.stream().map(HnswGraph.Match::id).collect(Collectors.toSet()));
+        assertEquals(299, graph.liveCount());
+        assertEquals(2, graph.deletedCount());
+
+        HnswGraph compacted = graph.compacted();
+        assertEquals(299, compacted.liveCount());
+        assertEquals(0, compacted.deletedCount());
+        assertEquals(Set.of("v2", "v3"), compacted.search(vectors.get(3), 2, 50).stream()
+                .map(HnswGraph.Match::id)
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void survivesWriteAndRead(@TempDir Path dir) throws Exception {
+        List<float[]> vectors = randomVectors(500, 5);
+        HnswGraph graph = graphOf(vectors, HnswGraph.Metric.COSINE);
+        graph.remove("v10");
+        Path file = dir.resolve("index.hnsw");
+
+        graph.writeTo(file);
+        HnswGraph loaded = HnswGraph.readFrom(file, kernel);
+
+        assertTrue(loaded.hasParameters(DIMENSIONS, HnswGraph.Metric.COSINE, 16, 32, 100, EmbeddingQuantization.NONE));
+        assertEquals(graph.liveCount(), loaded.liveCount());
+        assertEquals(graph.deletedCount(), loaded.deletedCount());
+        for (float[] query : randomVectors(20, 6)) {
+            assertEquals(graph.search(query, 10, 50), loaded.search(query, 10, 50));
+        }
+        loaded.insert("new", vectors.get(0));
+        assertEquals(500, loaded.liveCount());
+    }
+
+    @Test
+    void int8GraphFindsMostExactNeighbours() {
+        List<float[]> vectors = randomVectors(2000, 1);
+        HnswGraph graph = graphOf(vectors, HnswGraph.Metric.L2, EmbeddingQuantization.INT8);
+
+        int found = 0;
+        List<float[]> queries = randomVectors(50, 2);
+        for (float[] query : queries) {
+            Set<String> exact = exactNeighbours(vectors, query, 10);
+            found += (int) graph.search(query, 10, 100).stream().filter(match -> exact.contains(match.id())).count();
+        }
+        assertTrue(found / (50.0 * 10) > 0.85, "recall@10 was " + found / 500.0);
+    }
+
+    @Test
+    void int8GraphSurvivesWriteAndRead(@TempDir Path dir) throws Exception {
+        List<float[]> vectors = randomVectors(300, 8);
+        HnswGraph graph = graphOf(vectors, HnswGraph.Metric.COSINE, EmbeddingQuantization.INT8);
+        Path file = dir.resolve("index.hnsw");
+
+        graph.writeTo(file);
+        HnswGraph loaded = HnswGraph.readFrom(file, kernel);
+
+        assertTrue(loaded.hasParameters(DIMENSIONS, HnswGraph.Metric.COSINE, 16, 32, 100, EmbeddingQuantization.INT8));
+        assertFalse(loaded.hasParameters(DIMENSIONS, HnswGraph.Metric.COSINE, 16, 32, 100, EmbeddingQuantization.NONE));
+        for (float[] query : randomVectors(20, 9)) {
+            assertEquals(graph.search(query, 10, 50), loaded.search(query, 10, 50));
+        }
+        // int8 codes take a quarter of the space of floats, plus scale and offset
+        graphOf(vectors, HnswGraph.Metric.COSINE).writeTo(dir.resolve("float.hnsw"));
+        assertTrue(Files.size(file) < Files.size(dir.resolve("float.hnsw")));
+    }
+
+    @Test
+    void quantizedVectorStaysWithinHalfAStep() {
+        float[] vector = randomVectors(1, 10).get(0);
+
+        QuantizedVector quantized = QuantizedVector.of(vector);
+        float[] decoded = quantized.dequantize();
+
+        for (int i = 0; i < vector.length; i++) {
+            assertEquals(vector[i], decoded[i], quantized.scale() / 2 + 1e-6);
+        }
+        assertArrayEquals(new float[] { 0.5f, 0.5f }, QuantizedVector.of(new float[] { 0.5f, 0.5f }).dequantize());
+    }
+
+    @Test
+    void simdKernelMatchesScalarKernel() {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+        DistanceKernel simd = DistanceKernels.best();
+        assumeTrue(simd.getClass().getSimpleName().equals("SimdDistanceKernel"));
+
+        Random random = new Random(7);
+        for (int length : new int[] { 1, 7, 16, 33, 384 }) {
+            float[] a = new float[length];
+            float[] b = new float[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = (float) random.nextGaussian();
+                b[i] = (float) random.nextGaussian();
+            }
+            assertEquals(kernel.dot(a, b), simd.dot(a, b), 1e-3);
+            assertEquals(kernel.squaredDistance(a, b), simd.squaredDistance(a, b), 1e-3);
+            QuantizedVector codes = QuantizedVector.of(b);
+            assertEquals(kernel.dot(a, codes.codes(), codes.scale(), codes.offset()),
+                    simd.dot(a, codes.codes(), codes.scale(), codes.offset()), 1e-3);
+            assertEquals(kernel.squaredDistance(a, codes.codes(), codes.scale(), codes.offset()),
+                    simd.squaredDistance(a, codes.codes(), codes.scale(), codes.offset()), 1e-3);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InProcessHnswVectorIndexTest {
+
+    @Test
+    void snapshotFile_isASiblingOfTheDatabase() {
+        assertEquals(Path.of("/data/archiledger.lbdb.vector-index.hnsw"),
+                InProcessHnswVectorIndex.snapshotFile("/data/archiledger.lbdb"));
+        assertEquals(Path.of("archiledger.lbdb.vector-index.hnsw").toAbsolutePath(),
+                InProcessHnswVectorIndex.snapshotFile("./archiledger.lbdb"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.thecookiezen.archiledger.infrastructure.vectorindex;
+
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IterativeDeepeningTest {
+
+    @Test
+    void isEnabled_usesServerDefaultUnlessOverridden() {
+        IterativeDeepening disabled = new IterativeDeepening(false, 100, 200);
+        IterativeDeepening enabled = new IterativeDeepening(true, 100, 200);
+
+        assertFalse(disabled.isEnabled(VectorSearchOptions.DEFAULT));
+        assertTrue(disabled.isEnabled(VectorSearchOptions.DEFAULT.withAdaptive(true)));
+        assertTrue(enabled.isEnabled(VectorSearchOptions.DEFAULT));
+        assertFalse(enabled.isEnabled(VectorSearchOptions.DEFAULT.withAdaptive(false)));
+    }
+
+    @Test
+    void limitDoublesUpToMaxCandidates() {
+        IterativeDeepening deepening = new IterativeDeepening(true, 100, 60_000);
+        long deadline = deepening.deadline();
+
+        assertEquals(20, deepening.nextLimit(10));
+        assertEquals(100, deepening.nextLimit(80));
+        assertTrue(deepening.canGrow(80, deadline));
+        assertFalse(deepening.canGrow(100, deadline));
+    }
+
+    @Test
+    void cannotGrowPastDeadline() {
+        IterativeDeepening deepening = new IterativeDeepening(true, 100, 200);
+
+        assertFalse(deepening.canGrow(10, System.nanoTime() - 1));
+    }
+
+    @Test
+    void rejectsNonPositiveBudgets() {
+        assertThrows(IllegalArgumentException.class, () -> new IterativeDeepening(true, 0, 200));
+        assertThrows(IllegalArgumentException.class, () -> new IterativeDeepening(true, 100, 0));
+    }
+}
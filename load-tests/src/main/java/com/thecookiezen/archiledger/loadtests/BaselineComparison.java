@@ -0,0 +1,90 @@
+package com.thecookiezen.archiledger.loadtests;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the metrics of a run against a stored baseline report.
+ * <p>
+ * A metric regresses when it is worse than the baseline by more than the tolerance, a fraction of the baseline
+ * value: throughput below {@code baseline * (1 - tolerance)}, or latency, errors, heap and GC above
+ * {@code baseline * (1 + tolerance)}. A lower-is-better metric that was zero in the baseline regresses as soon as
+ * it is non-zero. Metrics present in only one of the two reports are listed but never fail the comparison.
+ */
+public class BaselineComparison {
+
+    private final double tolerance;
+    private final List<Delta> deltas = new ArrayList<>();
+    private final List<String> missing = new ArrayList<>();
+
+    public BaselineComparison(PerformanceReport baseline, PerformanceReport current, double tolerance) {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("Tolerance must not be negative: " + tolerance);
+        }
+        this.tolerance = tolerance;
+
+        Map<String, PerformanceReport.Metric> baselineMetrics = new LinkedHashMap<>();
+        baseline.metrics().forEach(metric -> baselineMetrics.put(metric.key(), metric));
+        for (PerformanceReport.Metric metric : current.metrics()) {
+            PerformanceReport.Metric before = baselineMetrics.remove(metric.key());
+            if (before == null) {
+                missing.add(metric.key() + " (not in baseline)");
+            } else {
+                deltas.add(new Delta(metric.key(), before.value(), metric.value(), regressed(before, metric)));
+            }
+        }
+        baselineMetrics.keySet().forEach(key -> missing.add(key + " (not in current run)"));
+    }
+
+    private boolean regressed(PerformanceReport.Metric baseline, PerformanceReport.Metric current) {
+        if (current.higherIsBetter()) {
+            return current.value() < baseline.value() * (1 - tolerance);
+        }
+        if (baseline.value() == 0) {
+            return current.value() > 0;
+        }
+        return current.value() > baseline.value() * (1 + tolerance);
+    }
+
+    public List<Delta> regressions() {
+        return deltas.stream().filter(Delta::regressed).toList();
+    }
+
+    public boolean hasRegressions() {
+        return deltas.stream().anyMatch(Delta::regressed);
+    }
+
+    public String generateMarkdownTable() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("\n# Baseline Comparison (tolerance %.1f%%)\n\n", tolerance * 100));
+        sb.append("| Metric | Baseline | Current | Change | Status |\n");
+        sb.append("|--------|----------|---------|--------|--------|\n");
+        for (Delta delta : deltas) {
+            sb.append(String.format("| %s | %.3f | %.3f | %s | %s |\n",
+                    delta.key(), delta.baseline(), delta.current(), delta.formattedChange(),
+                    delta.regressed() ? "REGRESSION" : "ok"));
+        }
+        sb.append("\n");
+        if (!missing.isEmpty()) {
+            sb.append("Not compared:\n");
+            missing.forEach(key -> sb.append("- ").append(key).append('\n'));
+            sb.append("\n");
+        }
+        sb.append(hasRegressions()
+                ? regressions().size() + " of " + deltas.size() + " metrics regressed.\n"
+                : "No regressions in " + deltas.size() + " metrics.\n");
+        return sb.toString();
+    }
+
+    public record Delta(String key, double baseline, double current, boolean regressed) {
+
+        String formattedChange() {
+            if (baseline == 0) {
+                return current == 0 ? "0.0%" : "n/a";
+            }
+            return String.format("%+.1f%%", (current - baseline) / baseline * 100);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.thecookiezen.archiledger.loadtests;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.thecookiezen.archiledger.application.service.MemoryNoteService;
+import com.thecookiezen.archiledger.domain.model.LinkDefinition;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
+
+/**
+ * Drives a weighted mix of service operations from several worker threads against a pre-seeded graph.
+ * <p>
+ * With a target rate every worker follows a fixed schedule and latency is measured from the intended start of each
+ * request, so time spent waiting behind a slow request counts against the service (open loop). Without a target
+ * rate workers issue requests back to back and latency is measured from the actual start (closed loop).
+ */
+public class MixedWorkloadRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MixedWorkloadRunner.class);
+
+    private final MemoryNoteService memoryNoteService;
+    private final Supplier<String> contentSupplier;
+    private final List<MemoryNoteId> notePool;
+
+    public MixedWorkloadRunner(MemoryNoteService memoryNoteService, Supplier<String> contentSupplier,
+            List<MemoryNoteId> seededNotes) {
+        if (seededNotes.isEmpty()) {
+            throw new IllegalArgumentException("Mixed workload needs seeded notes");
+        }
+        this.memoryNoteService = memoryNoteService;
+        this.contentSupplier = contentSupplier;
+        this.notePool = Collections.synchronizedList(new ArrayList<>(seededNotes));
+    }
+
+    public void run(MixedWorkloadScenario scenario, PerformanceReport report) {
+        Map<WorkloadOperation, Histogram> latencies = new EnumMap<>(WorkloadOperation.class);
+        Map<WorkloadOperation, AtomicLong> errors = new EnumMap<>(WorkloadOperation.class);
+        for (WorkloadOperation operation : WorkloadOperation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(3));
+            errors.put(operation, new AtomicLong());
+        }
+        WorkloadOperation[] operations = scenario.mix().keySet().toArray(WorkloadOperation[]::new);
+        int[] cumulativeWeights = new int[operations.length];
+        int totalWeight = 0;
+        for (int i = 0; i < operations.length; i++) {
+            totalWeight += scenario.mix().get(operations[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        log.info("Mixed workload: {} {} threads, {}s ({}s warmup), target rate {}, mix {}",
+                scenario.threads(), scenario.threadType(), scenario.durationSeconds(), scenario.warmupSeconds(),
+                scenario.openLoop() ? scenario.targetRate() + " ops/sec" : "unbounded (closed loop)", scenario.mix());
+
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + TimeUnit.SECONDS.toNanos(scenario.warmupSeconds());
+        long endNanos = startNanos + TimeUnit.SECONDS.toNanos(scenario.durationSeconds());
+        long intervalNanos = scenario.openLoop()
+                ? (long) (scenario.threads() * 1_000_000_000.0 / scenario.targetRate())
+                : 0;
+
+        List<Future<?>> workers = new ArrayList<>(scenario.threads());
+        try (ExecutorService executor = newExecutor(scenario)) {
+            for (int w = 0; w < scenario.threads(); w++) {
+                long firstStart = startNanos + (intervalNanos * w) / scenario.threads();
+                workers.add(executor.submit(() -> workerLoop(scenario, operations, cumulativeWeights, firstStart,
+                        intervalNanos, measureFromNanos, endNanos, latencies, errors)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Mixed workload interrupted", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Mixed workload worker failed", e);
+        }
+
+        long measuredMillis = TimeUnit.SECONDS.toMillis(scenario.measuredSeconds());
+        for (WorkloadOperation operation : operations) {
+            report.addLatencyResult(scenario.name(), operation.key(), latencies.get(operation),
+                    errors.get(operation).get(), measuredMillis);
+        }
+    }
+
+    private void workerLoop(MixedWorkloadScenario scenario, WorkloadOperation[] operations, int[] cumulativeWeights,
+            long firstStart, long intervalNanos, long measureFromNanos, long endNanos,
+            Map<WorkloadOperation, Histogram> latencies, Map<WorkloadOperation, AtomicLong> errors) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long intendedStart = firstStart;
+        while (true) {
+            if (scenario.openLoop()) {
+                long wait;
+                while ((wait = intendedStart - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                intendedStart = System.nanoTime();
+            }
+            if (intendedStart >= endNanos) {
+                return;
+            }
+
+            WorkloadOperation operation = pick(operations, cumulativeWeights, random);
+            boolean failed = false;
+            try {
+                execute(operation, scenario, random);
+            } catch (RuntimeException e) {
+                failed = true;
+                log.debug("{} failed", operation, e);
+            }
+            long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+            if (intendedStart >= measureFromNanos) {
+                if (failed) {
+                    errors.get(operation).incrementAndGet();
+                } else {
+                    latencies.get(operation).recordValue(latencyMicros);
+                }
+            }
+            intendedStart += intervalNanos;
+        }
+    }
+
+    private static WorkloadOperation pick(WorkloadOperation[] operations, int[] cumulativeWeights,
+            ThreadLocalRandom random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private void execute(WorkloadOperation operation, MixedWorkloadScenario scenario, ThreadLocalRandom random) {
+        switch (operation) {
+            case CREATE_NOTES -> {
+                List<MemoryNote> notes = new ArrayList<>(scenario.notesPerCreate());
+                for (int i = 0; i < scenario.notesPerCreate(); i++) {
+                    notes.add(new MemoryNote(new MemoryNoteId(UUID.randomUUID().toString()), contentSupplier.get(),
+                            List.of("load-test", "mixed"), "load-test-scenario", List.of("test"), List.of(),
+                            Instant.now().toString(), 0, null));
+                }
+                memoryNoteService.createNotes(notes);
+                notes.forEach(note -> notePool.add(note.id()));
+            }
+            case GET_NOTE -> memoryNoteService.getNote(randomNote(random));
+            case SIMILARITY_SEARCH -> memoryNoteService.similaritySearch(contentSupplier.get(), 10, 0.0, 0.0,
+                    VectorSearchOptions.DEFAULT);
+            case GET_NOTES_UPWARD -> memoryNoteService.getNotesUpward(randomNote(random), 3, 20);
+            case ADD_LINK -> {
+                MemoryNoteId source = randomNote(random);
+                MemoryNoteId target = randomNote(random);
+                if (!source.equals(target)) {
+                    memoryNoteService.addLink(new LinkDefinition(source, target, "RELATED_TO", "Mixed workload link"));
+                }
+            }
+        }
+    }
+
+    private MemoryNoteId randomNote(ThreadLocalRandom random) {
+        synchronized (notePool) {
+            return notePool.get(random.nextInt(notePool.size()));
+        }
+    }
+
+    private static ExecutorService newExecutor(MixedWorkloadScenario scenario) {
+        return switch (scenario.threadType()) {
+            case VIRTUAL -> Executors.newVirtualThreadPerTaskExecutor();
+            case PLATFORM -> Executors.newFixedThreadPool(scenario.threads());
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.thecookiezen.archiledger.loadtests;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+public record MixedWorkloadScenario(
+        String name,
+        int threads,
+        ThreadType threadType,
+        int durationSeconds,
+        int warmupSeconds,
+        double targetRate,
+        int notesPerCreate,
+        Map<WorkloadOperation, Integer> mix) {
+
+    public MixedWorkloadScenario {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Mixed workload needs at least one thread");
+        }
+        if (durationSeconds <= 0) {
+            throw new IllegalArgumentException("Mixed workload duration must be positive");
+        }
+        if (warmupSeconds < 0 || warmupSeconds >= durationSeconds) {
+            throw new IllegalArgumentException("Warmup must be shorter than the workload duration");
+        }
+        if (targetRate < 0) {
+            throw new IllegalArgumentException("Target rate cannot be negative");
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Operation mix needs at least one positive weight");
+        }
+        mix = Collections.unmodifiableMap(new EnumMap<>(mix));
+    }
+
+    public boolean openLoop() {
+        return targetRate > 0;
+    }
+
+    public int measuredSeconds() {
+        return durationSeconds - warmupSeconds;
+    }
+
+    public static Map<WorkloadOperation, Integer> parseMix(String mix) {
+        Map<WorkloadOperation, Integer> weights = new EnumMap<>(WorkloadOperation.class);
+        for (String entry : mix.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid operation mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Operation weight cannot be negative: " + entry);
+            }
+            weights.put(WorkloadOperation.fromKey(parts[0]), weight);
+        }
+        return weights;
+    }
+
+    public enum ThreadType {
+        VIRTUAL,
+        PLATFORM;
+
+        public static ThreadType fromKey(String key) {
+            return valueOf(key.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+}
@@ -1,33 +1,228 @@
 package com.thecookiezen.archiledger.loadtests;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 public class PerformanceReport {
 
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
     private final List<Result> results = new ArrayList<>();
+    private final List<LatencyResult> latencyResults = new ArrayList<>();
+    private final List<ResourceResult> resourceResults = new ArrayList<>();
+    private final List<RecallResult> recallResults = new ArrayList<>();
+
+    public void addResult(String scenarioName, String writeMode, long noteCount, long linkCount, long durationMs) {
+        double throughput = durationMs > 0 ? (noteCount + linkCount) / (durationMs / 1000.0) : 0.0;
+        results.add(new Result(scenarioName, writeMode, noteCount, linkCount, durationMs, throughput));
+    }
+
+    public void addLatencyResult(String scenarioName, String operation, Histogram latencyMicros, long errors,
+            long durationMs) {
+        long count = latencyMicros.getTotalCount();
+        latencyResults.add(new LatencyResult(scenarioName, operation, count, errors, durationMs,
+                durationMs > 0 ? count / (durationMs / 1000.0) : 0.0,
+                latencyMicros.getValueAtPercentile(50.0),
+                latencyMicros.getValueAtPercentile(99.0),
+                latencyMicros.getValueAtPercentile(99.9),
+                latencyMicros.getMaxValue()));
+    }
 
-    public void addResult(String scenarioName, long noteCount, long linkCount, long durationMs) {
-        results.add(new Result(scenarioName, noteCount, linkCount, durationMs));
+    public void addResourceUsage(String scenarioName, String phase, ResourceUsage usage) {
+        resourceResults.add(new ResourceResult(scenarioName, phase, usage.heapPeakBytes(), usage.gcCount(),
+                usage.gcPauseMs()));
+    }
+
+    public void addRecallResult(String scenarioName, String setting, int k, double recall, Histogram latencyMicros,
+            long buildMs, long dbSizeBytes) {
+        recallResults.add(new RecallResult(scenarioName, setting, k, recall,
+                latencyMicros.getValueAtPercentile(50.0),
+                latencyMicros.getValueAtPercentile(99.0),
+                buildMs, dbSizeBytes));
     }
 
     public String generateMarkdownTable() {
         StringBuilder sb = new StringBuilder();
         sb.append("\n# Performance Test Results\n\n");
-        sb.append("| Scenario | Notes | Links | Duration (ms) | Throughput (ops/sec) |\n");
-        sb.append("|----------|-------|-------|---------------|----------------------|\n");
+        sb.append("| Scenario | Write Mode | Notes | Links | Duration (ms) | Throughput (ops/sec) |\n");
+        sb.append("|----------|------------|-------|-------|---------------|----------------------|\n");
 
         for (Result r : results) {
-            long totalOps = r.noteCount + r.linkCount;
-            double throughput = (double) totalOps / (r.durationMs / 1000.0);
-
-            sb.append(String.format("| %-8s | %-5d | %-5d | %-13d | %-20.2f |\n",
-                    r.scenarioName, r.noteCount, r.linkCount, r.durationMs, throughput));
+            sb.append(String.format("| %-8s | %-10s | %-5d | %-5d | %-13d | %-20.2f |\n",
+                    r.scenarioName, r.writeMode, r.noteCount, r.linkCount, r.durationMs, r.throughput));
         }
         sb.append("\n");
+
+        if (!latencyResults.isEmpty()) {
+            sb.append("## Latency Percentiles (ms)\n\n");
+            sb.append("| Scenario | Operation | Count | Errors | Throughput (ops/sec) | p50 | p99 | p99.9 | Max |\n");
+            sb.append("|----------|-----------|-------|--------|----------------------|-----|-----|-------|-----|\n");
+            for (LatencyResult r : latencyResults) {
+                sb.append(String.format("| %-8s | %-17s | %-5d | %-6d | %-20.2f | %.3f | %.3f | %.3f | %.3f |\n",
+                        r.scenarioName, r.operation, r.count, r.errors, r.throughput,
+                        r.p50Micros / 1000.0, r.p99Micros / 1000.0, r.p999Micros / 1000.0, r.maxMicros / 1000.0));
+            }
+            sb.append("\n");
+        }
+
+        if (!recallResults.isEmpty()) {
+            sb.append("## Vector Recall\n\n");
+            sb.append("| Scenario | HNSW Parameters | Recall@k | p50 (ms) | p99 (ms) | Build (ms) | DB Size (MB) |\n");
+            sb.append("|----------|-----------------|----------|----------|----------|------------|--------------|\n");
+            for (RecallResult r : recallResults) {
+                sb.append(String.format("| %-8s | %s | %.4f (k=%d) | %.3f | %.3f | %d | %s |\n",
+                        r.scenarioName, r.setting, r.recall, r.k, r.p50Micros / 1000.0, r.p99Micros / 1000.0,
+                        r.buildMs, r.dbSizeBytes < 0 ? "in-memory" : String.format("%.1f", r.dbSizeBytes / (1024.0 * 1024.0))));
+            }
+            sb.append("\n");
+        }
+
+        if (!resourceResults.isEmpty()) {
+            sb.append("## JVM Resources\n\n");
+            sb.append("| Scenario | Phase | Heap Peak (MB) | GC Count | GC Pause (ms) |\n");
+            sb.append("|----------|-------|----------------|----------|---------------|\n");
+            for (ResourceResult r : resourceResults) {
+                sb.append(String.format("| %-8s | %-5s | %-14.1f | %-8d | %-13d |\n",
+                        r.scenarioName, r.phase, r.heapPeakBytes / (1024.0 * 1024.0), r.gcCount, r.gcPauseMs));
+            }
+            sb.append("\n");
+        }
         return sb.toString();
     }
 
-    private record Result(String scenarioName, long noteCount, long linkCount, long durationMs) {
+    public void writeJson(Path path) {
+        try {
+            createParent(path);
+            MAPPER.writeValue(path.toFile(),
+                    new Document(Instant.now().toString(), results, latencyResults, resourceResults,
+                            recallResults));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write JSON report to " + path, e);
+        }
+    }
+
+    /**
+     * Writes every metric as one {@code scenario,subject,metric,value} row, the same flattened view that
+     * {@link BaselineComparison} compares.
+     */
+    public void writeCsv(Path path) {
+        StringBuilder sb = new StringBuilder("scenario,subject,metric,value\n");
+        for (Metric metric : metrics()) {
+            sb.append(csv(metric.scenario())).append(',')
+                    .append(csv(metric.subject())).append(',')
+                    .append(metric.name()).append(',')
+                    .append(String.format(Locale.ROOT, "%.3f", metric.value())).append('\n');
+        }
+        try {
+            createParent(path);
+            Files.writeString(path, sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write CSV report to " + path, e);
+        }
+    }
+
+    public static PerformanceReport readJson(Path path) {
+        Document document;
+        try {
+            document = MAPPER.readValue(path.toFile(), Document.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read JSON report from " + path, e);
+        }
+        PerformanceReport report = new PerformanceReport();
+        if (document.results() != null) {
+            report.results.addAll(document.results());
+        }
+        if (document.latencies() != null) {
+            report.latencyResults.addAll(document.latencies());
+        }
+        if (document.resources() != null) {
+            report.resourceResults.addAll(document.resources());
+        }
+        if (document.recall() != null) {
+            report.recallResults.addAll(document.recall());
+        }
+        return report;
+    }
+
+    List<Metric> metrics() {
+        List<Metric> metrics = new ArrayList<>();
+        for (Result r : results) {
+            String subject = "write-" + r.writeMode.toLowerCase(Locale.ROOT);
+            metrics.add(new Metric(r.scenarioName, subject, "throughput", r.throughput, true));
+        }
+        for (LatencyResult r : latencyResults) {
+            metrics.add(new Metric(r.scenarioName, r.operation, "throughput", r.throughput, true));
+            metrics.add(new Metric(r.scenarioName, r.operation, "errors", r.errors, false));
+            metrics.add(new Metric(r.scenarioName, r.operation, "p50_ms", r.p50Micros / 1000.0, false));
+            metrics.add(new Metric(r.scenarioName, r.operation, "p99_ms", r.p99Micros / 1000.0, false));
+            metrics.add(new Metric(r.scenarioName, r.operation, "p99_9_ms", r.p999Micros / 1000.0, false));
+            metrics.add(new Metric(r.scenarioName, r.operation, "max_ms", r.maxMicros / 1000.0, false));
+        }
+        for (RecallResult r : recallResults) {
+            metrics.add(new Metric(r.scenarioName, r.setting, "recall_at_" + r.k, r.recall, true));
+            metrics.add(new Metric(r.scenarioName, r.setting, "p50_ms", r.p50Micros / 1000.0, false));
+            metrics.add(new Metric(r.scenarioName, r.setting, "p99_ms", r.p99Micros / 1000.0, false));
+            metrics.add(new Metric(r.scenarioName, r.setting, "build_ms", r.buildMs, false));
+            if (r.dbSizeBytes >= 0) {
+                metrics.add(new Metric(r.scenarioName, r.setting, "db_size_mb", r.dbSizeBytes / (1024.0 * 1024.0), false));
+            }
+        }
+        for (ResourceResult r : resourceResults) {
+            metrics.add(new Metric(r.scenarioName, r.phase, "heap_peak_mb", r.heapPeakBytes / (1024.0 * 1024.0), false));
+            metrics.add(new Metric(r.scenarioName, r.phase, "gc_count", r.gcCount, false));
+            metrics.add(new Metric(r.scenarioName, r.phase, "gc_pause_ms", r.gcPauseMs, false));
+        }
+        return metrics;
+    }
+
+    private static String csv(String value) {
+        if (value.contains(",") || value.contains("\"")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private static void createParent(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    record Metric(String scenario, String subject, String name, double value, boolean higherIsBetter) {
+
+        String key() {
+            return scenario + " / " + subject + " / " + name;
+        }
+    }
+
+    record Document(String generatedAt, List<Result> results, List<LatencyResult> latencies,
+            List<ResourceResult> resources, List<RecallResult> recall) {
+    }
+
+    record Result(String scenarioName, String writeMode, long noteCount, long linkCount, long durationMs,
+            double throughput) {
+    }
+
+    record LatencyResult(String scenarioName, String operation, long count, long errors, long durationMs,
+            double throughput, long p50Micros, long p99Micros, long p999Micros, long maxMicros) {
+    }
+
+    record RecallResult(String scenarioName, String setting, int k, double recall, long p50Micros, long p99Micros,
+            long buildMs, long dbSizeBytes) {
+    }
+
+    record ResourceResult(String scenarioName, String phase, long heapPeakBytes, long gcCount, long gcPauseMs) {
     }
 }
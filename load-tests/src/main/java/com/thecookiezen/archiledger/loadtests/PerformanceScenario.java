@@ -4,8 +4,14 @@ public record PerformanceScenario(
         String name,
         int noteCount,
         int linksPerNote,
-        int batchSize) {
+        int batchSize,
+        WriteMode writeMode) {
     public int totalLinks() {
         return noteCount * linksPerNote;
     }
+
+    public enum WriteMode {
+        SINGLE,
+        BULK
+    }
 }
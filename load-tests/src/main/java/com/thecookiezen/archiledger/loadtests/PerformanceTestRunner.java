@@ -1,9 +1,14 @@
 package com.thecookiezen.archiledger.loadtests;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.slf4j.Logger;
@@ -12,10 +17,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import com.ladybugdb.Database;
 import com.thecookiezen.archiledger.application.service.MemoryNoteService;
 import com.thecookiezen.archiledger.domain.model.LinkDefinition;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NoteLink;
+import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.embeddings.LadybugVectorExtensionInitializer;
 
 @Component
 public class PerformanceTestRunner implements CommandLineRunner {
@@ -43,6 +52,9 @@ public class PerformanceTestRunner implements CommandLineRunner {
     };
 
     private final MemoryNoteService memoryNoteService;
+    private final MemoryNoteRepository memoryNoteRepository;
+    private final LadybugVectorExtensionInitializer vectorIndexInitializer;
+    private final Database database;
 
     @Value("${loadtest.scenario.name:Manual Run}")
     private String scenarioName;
@@ -56,8 +68,99 @@ public class PerformanceTestRunner implements CommandLineRunner {
     @Value("${loadtest.batch-size:25}")
     private int batchSize;
 
-    public PerformanceTestRunner(MemoryNoteService memoryNoteService) {
+    @Value("${loadtest.write-mode:bulk}")
+    private String writeMode;
+
+    @Value("${loadtest.mode:write}")
+    private String mode;
+
+    @Value("${loadtest.mixed.threads:16}")
+    private int mixedThreads;
+
+    @Value("${loadtest.mixed.thread-type:virtual}")
+    private String mixedThreadType;
+
+    @Value("${loadtest.mixed.duration-seconds:60}")
+    private int mixedDurationSeconds;
+
+    @Value("${loadtest.mixed.warmup-seconds:10}")
+    private int mixedWarmupSeconds;
+
+    @Value("${loadtest.mixed.target-rate:0}")
+    private double mixedTargetRate;
+
+    @Value("${loadtest.mixed.notes-per-create:5}")
+    private int mixedNotesPerCreate;
+
+    @Value("${loadtest.mixed.mix:create_notes=5,get_note=50,similarity_search=25,get_notes_upward=15,add_link=5}")
+    private String mixedMix;
+
+    @Value("${loadtest.recall.vector-count:10000}")
+    private int recallVectorCount;
+
+    @Value("${loadtest.recall.query-count:200}")
+    private int recallQueryCount;
+
+    @Value("${loadtest.recall.k:10}")
+    private int recallK;
+
+    @Value("${loadtest.recall.vectors-path:}")
+    private String recallVectorsPath;
+
+    @Value("${loadtest.recall.clusters:100}")
+    private int recallClusters;
+
+    @Value("${loadtest.recall.spread:0.5}")
+    private double recallSpread;
+
+    @Value("${loadtest.recall.seed:42}")
+    private long recallSeed;
+
+    @Value("${loadtest.recall.mu:${ladybugdb.hnsw.mu:30}}")
+    private String recallMu;
+
+    @Value("${loadtest.recall.ml:${ladybugdb.hnsw.ml:60}}")
+    private String recallMl;
+
+    @Value("${loadtest.recall.pu:${ladybugdb.hnsw.pu:0.1}}")
+    private String recallPu;
+
+    @Value("${loadtest.recall.efc:100,200,300}")
+    private String recallEfc;
+
+    @Value("${loadtest.recall.metric:${ladybugdb.hnsw.metric:cosine}}")
+    private String recallMetric;
+
+    @Value("${loadtest.recall.efs:0}")
+    private String recallEfs;
+
+    @Value("${loadtest.recall.oversample:0}")
+    private String recallOversample;
+
+    @Value("${ladybugdb.embeddingDimensions:384}")
+    private int embeddingDimensions;
+
+    @Value("${ladybugdb.data-path:}")
+    private String dataPath;
+
+    @Value("${loadtest.report.json-path:}")
+    private String reportJsonPath;
+
+    @Value("${loadtest.report.csv-path:}")
+    private String reportCsvPath;
+
+    @Value("${loadtest.compare.baseline-path:}")
+    private String baselinePath;
+
+    @Value("${loadtest.compare.tolerance:0.10}")
+    private double compareTolerance;
+
+    public PerformanceTestRunner(MemoryNoteService memoryNoteService, MemoryNoteRepository memoryNoteRepository,
+            LadybugVectorExtensionInitializer vectorIndexInitializer, Database database) {
         this.memoryNoteService = memoryNoteService;
+        this.memoryNoteRepository = memoryNoteRepository;
+        this.vectorIndexInitializer = vectorIndexInitializer;
+        this.database = database;
     }
 
     @Override
@@ -65,25 +168,90 @@ public class PerformanceTestRunner implements CommandLineRunner {
         log.info("Starting Performance Test Runner...");
 
         PerformanceScenario scenario = new PerformanceScenario(scenarioName, noteCount, linksPerNote,
-                batchSize);
+                batchSize, PerformanceScenario.WriteMode.valueOf(writeMode.toUpperCase(Locale.ROOT)));
         PerformanceReport report = new PerformanceReport();
 
-        runScenario(scenario, report);
+        if ("recall".equalsIgnoreCase(mode)) {
+            runRecall(report);
+        } else {
+            runWorkload(scenario, report);
+        }
 
         System.out.println(report.generateMarkdownTable());
 
-        System.exit(0);
+        if (!reportJsonPath.isBlank()) {
+            report.writeJson(Path.of(reportJsonPath));
+            log.info("JSON report written to {}", reportJsonPath);
+        }
+        if (!reportCsvPath.isBlank()) {
+            report.writeCsv(Path.of(reportCsvPath));
+            log.info("CSV report written to {}", reportCsvPath);
+        }
+
+        System.exit(compareWithBaseline(report) ? 1 : 0);
+    }
+
+    private void runWorkload(PerformanceScenario scenario, PerformanceReport report) {
+        List<MemoryNoteId> seededNotes = runScenario(scenario, report);
+
+        if ("mixed".equalsIgnoreCase(mode)) {
+            ResourceUsage.Tracker resources = ResourceUsage.track();
+            MixedWorkloadScenario mixed = new MixedWorkloadScenario(scenarioName, mixedThreads,
+                    MixedWorkloadScenario.ThreadType.fromKey(mixedThreadType), mixedDurationSeconds,
+                    mixedWarmupSeconds, mixedTargetRate, mixedNotesPerCreate,
+                    MixedWorkloadScenario.parseMix(mixedMix));
+            new MixedWorkloadRunner(memoryNoteService, this::generateRandomContent, seededNotes)
+                    .run(mixed, report);
+            report.addResourceUsage(scenarioName, "mixed", resources.stop());
+        }
+    }
+
+    private void runRecall(PerformanceReport report) {
+        VectorDataset dataset = recallVectorsPath.isBlank()
+                ? VectorDataset.synthetic(recallVectorCount, recallQueryCount, embeddingDimensions, recallClusters,
+                        recallSpread, recallSeed)
+                : VectorDataset.fvecs(Path.of(recallVectorsPath), recallVectorCount, recallQueryCount,
+                        embeddingDimensions);
+        ResourceUsage.Tracker resources = ResourceUsage.track();
+        new VectorRecallRunner(memoryNoteRepository, vectorIndexInitializer, database, dataPath)
+                .run(scenarioName, dataset, recallK,
+                        VectorRecallRunner.parseGrid(recallMu, recallMl, recallPu, recallEfc, recallMetric),
+                        VectorRecallRunner.parseEfs(recallEfs), VectorRecallRunner.parseOversample(recallOversample),
+                        report);
+        report.addResourceUsage(scenarioName, "recall", resources.stop());
+    }
+
+    private boolean compareWithBaseline(PerformanceReport report) {
+        if (baselinePath.isBlank()) {
+            return false;
+        }
+        Path baselineFile = Path.of(baselinePath);
+        if (!Files.exists(baselineFile)) {
+            log.warn("Baseline report {} does not exist, skipping comparison", baselineFile);
+            return false;
+        }
+        BaselineComparison comparison = new BaselineComparison(PerformanceReport.readJson(baselineFile), report,
+                compareTolerance);
+        System.out.println(comparison.generateMarkdownTable());
+        if (comparison.hasRegressions()) {
+            log.error("{} metrics regressed against baseline {}", comparison.regressions().size(), baselineFile);
+            return true;
+        }
+        return false;
     }
 
-    private void runScenario(PerformanceScenario scenario, PerformanceReport report) {
+    private List<MemoryNoteId> runScenario(PerformanceScenario scenario, PerformanceReport report) {
         log.info("--------------------------------------------------");
         log.info("Running Scenario: {}", scenario.name());
-        log.info("Notes: {}, Links/Note: {}", scenario.noteCount(), scenario.linksPerNote());
+        log.info("Notes: {}, Links/Note: {}, Write mode: {}", scenario.noteCount(), scenario.linksPerNote(),
+                scenario.writeMode());
 
+        ResourceUsage.Tracker resources = ResourceUsage.track();
         long startTime = System.currentTimeMillis();
+        List<MemoryNoteId> created = new ArrayList<>(scenario.noteCount());
 
         try {
-            processBatches(scenario);
+            processBatches(scenario, created);
         } catch (Exception e) {
             log.error("Scenario {} failed", scenario.name(), e);
         }
@@ -92,7 +260,10 @@ public class PerformanceTestRunner implements CommandLineRunner {
         long duration = endTime - startTime;
 
         log.info("Finished Scenario: {} in {} ms", scenario.name(), duration);
-        report.addResult(scenario.name(), scenario.noteCount(), scenario.totalLinks(), duration);
+        report.addResult(scenario.name(), scenario.writeMode().name(), scenario.noteCount(), scenario.totalLinks(),
+                duration);
+        report.addResourceUsage(scenario.name(), "write", resources.stop());
+        return created;
     }
 
     private String generateRandomContent() {
@@ -112,7 +283,7 @@ public class PerformanceTestRunner implements CommandLineRunner {
         return sentence;
     }
 
-    private void processBatches(PerformanceScenario scenario) {
+    private void processBatches(PerformanceScenario scenario, List<MemoryNoteId> created) {
         log.info("Generating and saving data in batches...");
         int batches = (int) Math.ceil((double) scenario.noteCount() / scenario.batchSize());
         int linksPerNote = scenario.linksPerNote();
@@ -138,12 +309,9 @@ public class PerformanceTestRunner implements CommandLineRunner {
                     })
                     .toList();
 
-            memoryNoteService.createNotes(batchNotes);
-
             final int currentBatchSize = batchNotes.size();
-            int createdLinksCount = 0;
+            List<LinkDefinition> batchLinks = new ArrayList<>();
             if (currentBatchSize > 0 && linksPerNote > 0) {
-                List<MemoryNoteId[]> linkPairs = new ArrayList<>();
                 for (int j = 0; j < currentBatchSize; j++) {
                     MemoryNote source = batchNotes.get(j);
                     for (int k = 0; k < linksPerNote; k++) {
@@ -151,16 +319,19 @@ public class PerformanceTestRunner implements CommandLineRunner {
                         MemoryNote target = batchNotes.get(targetIndex);
 
                         if (!source.id().equals(target.id())) {
-                            linkPairs.add(new MemoryNoteId[] { source.id(), target.id() });
+                            batchLinks.add(new LinkDefinition(source.id(), target.id(), "RELATED_TO", "Performance test link"));
                         }
                     }
                 }
-                for (MemoryNoteId[] pair : linkPairs) {
-                    memoryNoteService.addLink(new LinkDefinition(pair[0], pair[1], "RELATED_TO", "Performance test link"));
-                }
-                createdLinksCount = linkPairs.size();
             }
 
+            switch (scenario.writeMode()) {
+                case BULK -> writeBulk(batchNotes, batchLinks);
+                case SINGLE -> writeSingle(batchNotes, batchLinks);
+            }
+            batchNotes.forEach(note -> created.add(note.id()));
+            int createdLinksCount = batchLinks.size();
+
             long batchEndTime = System.currentTimeMillis();
             long batchDuration = batchEndTime - batchStartTime;
             int totalOps = currentBatchSize + createdLinksCount;
@@ -171,4 +342,22 @@ public class PerformanceTestRunner implements CommandLineRunner {
                     String.format("%.2f", throughput));
         }
     }
+
+    private void writeSingle(List<MemoryNote> notes, List<LinkDefinition> links) {
+        for (MemoryNote note : notes) {
+            memoryNoteService.createNote(note);
+        }
+        for (LinkDefinition link : links) {
+            memoryNoteService.addLink(link);
+        }
+    }
+
+    private void writeBulk(List<MemoryNote> notes, List<LinkDefinition> links) {
+        Map<MemoryNoteId, List<NoteLink>> linksBySource = links.stream()
+                .collect(Collectors.groupingBy(LinkDefinition::source,
+                        Collectors.mapping(LinkDefinition::toNoteLink, Collectors.toList())));
+        memoryNoteService.createNotes(notes.stream()
+                .map(note -> note.withLinks(linksBySource.getOrDefault(note.id(), List.of())))
+                .toList());
+    }
 }
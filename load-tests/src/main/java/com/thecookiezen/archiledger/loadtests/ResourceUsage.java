@@ -0,0 +1,56 @@
+package com.thecookiezen.archiledger.loadtests;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+
+/**
+ * Heap high-water mark and garbage collection totals for one phase of a load test run.
+ * <p>
+ * The heap peak is the sum of the peak usage of every heap memory pool since the phase started, which can
+ * overstate the true simultaneous peak but moves with it. GC pause totals only count collectors that report
+ * stop-the-world pauses; the concurrent cycle beans exposed by G1, ZGC and Shenandoah are skipped.
+ */
+public record ResourceUsage(long heapPeakBytes, long gcCount, long gcPauseMs) {
+
+    public static Tracker track() {
+        return new Tracker();
+    }
+
+    public static final class Tracker {
+
+        private final long gcCountAtStart;
+        private final long gcPauseMsAtStart;
+
+        private Tracker() {
+            heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+            this.gcCountAtStart = pauseCollectors().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                    .filter(count -> count > 0).sum();
+            this.gcPauseMsAtStart = pauseCollectors().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                    .filter(time -> time > 0).sum();
+        }
+
+        public ResourceUsage stop() {
+            long heapPeak = heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            long gcCount = pauseCollectors().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                    .filter(count -> count > 0).sum();
+            long gcPauseMs = pauseCollectors().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                    .filter(time -> time > 0).sum();
+            return new ResourceUsage(heapPeak, gcCount - gcCountAtStart, gcPauseMs - gcPauseMsAtStart);
+        }
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+                .toList();
+    }
+
+    private static List<GarbageCollectorMXBean> pauseCollectors() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .filter(gc -> !gc.getName().contains("Concurrent") && !gc.getName().contains("Cycles"))
+                .toList();
+    }
+}
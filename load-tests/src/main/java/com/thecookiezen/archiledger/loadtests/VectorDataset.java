@@ -0,0 +1,116 @@
+package com.thecookiezen.archiledger.loadtests;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Base vectors to index and query vectors to search with, either generated or read from an {@code .fvecs} file.
+ */
+public record VectorDataset(String source, List<float[]> base, List<float[]> queries) {
+
+    /**
+     * Gaussian clusters around random unit centers, normalized to unit length. Queries are drawn from the same
+     * clusters but are not part of the base set, so search has to generalize like it does for real questions.
+     */
+    public static VectorDataset synthetic(int baseCount, int queryCount, int dimensions, int clusters, double spread,
+            long seed) {
+        if (baseCount <= 0 || queryCount <= 0 || dimensions <= 0 || clusters <= 0) {
+            throw new IllegalArgumentException("Vector, query, dimension and cluster counts must be positive");
+        }
+        Random random = new Random(seed);
+        List<float[]> centers = new ArrayList<>(clusters);
+        for (int c = 0; c < clusters; c++) {
+            centers.add(normalize(gaussian(random, dimensions, 1.0)));
+        }
+        return new VectorDataset(
+                "synthetic(" + clusters + " clusters, spread " + spread + ", seed " + seed + ")",
+                sampleAround(centers, baseCount, spread, random),
+                sampleAround(centers, queryCount, spread, random));
+    }
+
+    /**
+     * Reads the little-endian {@code .fvecs} format used by the common ANN benchmark datasets: every vector is its
+     * dimension as a 4-byte int followed by that many floats. The first {@code queryCount} vectors become queries,
+     * the following {@code baseCount} vectors are indexed.
+     */
+    public static VectorDataset fvecs(Path path, int baseCount, int queryCount, int dimensions) {
+        List<float[]> vectors = new ArrayList<>(queryCount + baseCount);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path), 1 << 16);
+                DataInputStream data = new DataInputStream(in)) {
+            byte[] header = new byte[Integer.BYTES];
+            while (vectors.size() < queryCount + baseCount) {
+                try {
+                    data.readFully(header);
+                } catch (EOFException e) {
+                    break;
+                }
+                int dim = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN).getInt();
+                if (dim != dimensions) {
+                    throw new IllegalArgumentException("Vector " + vectors.size() + " in " + path + " has " + dim
+                            + " dimensions, expected " + dimensions);
+                }
+                byte[] body = new byte[dim * Float.BYTES];
+                data.readFully(body);
+                float[] vector = new float[dim];
+                ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+                vectors.add(vector);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read vectors from " + path, e);
+        }
+        if (vectors.size() <= queryCount) {
+            throw new IllegalArgumentException(path + " holds " + vectors.size() + " vectors, need more than "
+                    + queryCount + " queries");
+        }
+        return new VectorDataset(path.toString(), vectors.subList(queryCount, vectors.size()),
+                vectors.subList(0, queryCount));
+    }
+
+    public int dimensions() {
+        return base.get(0).length;
+    }
+
+    private static List<float[]> sampleAround(List<float[]> centers, int count, double spread, Random random) {
+        List<float[]> vectors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            float[] center = centers.get(random.nextInt(centers.size()));
+            float[] noise = gaussian(random, center.length, spread / Math.sqrt(center.length));
+            for (int d = 0; d < center.length; d++) {
+                noise[d] += center[d];
+            }
+            vectors.add(normalize(noise));
+        }
+        return vectors;
+    }
+
+    private static float[] gaussian(Random random, int dimensions, double sigma) {
+        float[] vector = new float[dimensions];
+        for (int d = 0; d < dimensions; d++) {
+            vector[d] = (float) (random.nextGaussian() * sigma);
+        }
+        return vector;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double sumOfSquares = 0;
+        for (float value : vector) {
+            sumOfSquares += value * value;
+        }
+        float scale = (float) (1.0 / Math.sqrt(sumOfSquares));
+        for (int d = 0; d < vector.length; d++) {
+            vector[d] *= scale;
+        }
+        return vector;
+    }
+}
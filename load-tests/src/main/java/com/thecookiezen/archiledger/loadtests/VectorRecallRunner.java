@@ -0,0 +1,256 @@
+package com.thecookiezen.archiledger.loadtests;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ladybugdb.Connection;
+import com.ladybugdb.Database;
+import com.ladybugdb.QueryResult;
+import com.thecookiezen.archiledger.domain.model.MemoryNote;
+import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
+import com.thecookiezen.archiledger.domain.repository.MemoryNoteRepository;
+import com.thecookiezen.archiledger.infrastructure.embeddings.HnswParameters;
+import com.thecookiezen.archiledger.infrastructure.embeddings.LadybugVectorExtensionInitializer;
+
+/**
+ * Measures recall and latency of the HNSW index over a grid of build parameters.
+ * <p>
+ * The dataset is stored once, exact top-k neighbours of every query are computed by brute force, and then for each
+ * parameter set the index is rebuilt and every query is run through {@link MemoryNoteRepository#findSimilar} once
+ * per search effort (efs) and re-rank oversample value. Recall@k is the fraction of the exact neighbours found,
+ * averaged over all queries.
+ */
+public class VectorRecallRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(VectorRecallRunner.class);
+
+    private static final String ID_PREFIX = "recall-";
+    private static final int LOAD_BATCH_SIZE = 500;
+    private static final int WARMUP_QUERIES = 20;
+
+    private final MemoryNoteRepository repository;
+    private final LadybugVectorExtensionInitializer indexInitializer;
+    private final Database database;
+    private final String dataPath;
+
+    public VectorRecallRunner(MemoryNoteRepository repository, LadybugVectorExtensionInitializer indexInitializer,
+            Database database, String dataPath) {
+        this.repository = repository;
+        this.indexInitializer = indexInitializer;
+        this.database = database;
+        this.dataPath = dataPath;
+    }
+
+    public void run(String scenarioName, VectorDataset dataset, int k, List<HnswParameters> grid,
+            List<Integer> efsValues, List<Integer> oversampleValues, PerformanceReport report) {
+        log.info("Vector recall: {} base vectors, {} queries, {} dimensions, k={}, source {}",
+                dataset.base().size(), dataset.queries().size(), dataset.dimensions(), k, dataset.source());
+
+        long loadStart = System.currentTimeMillis();
+        load(dataset.base());
+        log.info("Stored {} vectors in {} ms", dataset.base().size(), System.currentTimeMillis() - loadStart);
+
+        Map<String, int[][]> groundTruthByMetric = new HashMap<>();
+        for (HnswParameters parameters : grid) {
+            int[][] groundTruth = groundTruthByMetric.computeIfAbsent(parameters.metric(), metric -> {
+                long start = System.currentTimeMillis();
+                int[][] exact = exactNeighbours(dataset, k, metric);
+                log.info("Computed exact {} neighbours in {} ms", metric, System.currentTimeMillis() - start);
+                return exact;
+            });
+
+            long buildStart = System.nanoTime();
+            indexInitializer.recreateIndex(parameters);
+            long buildMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - buildStart);
+            long dbSizeBytes = databaseSize();
+
+            List<float[]> queries = dataset.queries();
+            for (int efs : efsValues) {
+                for (int oversample : oversampleValues) {
+                    // oversample 0 measures the index alone, without re-ranking
+                    VectorSearchOptions options = new VectorSearchOptions(efs, oversample > 0, oversample);
+                    for (int i = 0; i < Math.min(WARMUP_QUERIES, queries.size()); i++) {
+                        search(queries.get(i), k, options);
+                    }
+
+                    Histogram latencyMicros = new Histogram(3);
+                    long found = 0;
+                    for (int q = 0; q < queries.size(); q++) {
+                        long start = System.nanoTime();
+                        List<SimilarityResult<MemoryNote>> results = search(queries.get(q), k, options);
+                        latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                        found += countFound(results, groundTruth[q]);
+                    }
+                    double recall = (double) found / ((long) queries.size() * k);
+
+                    String setting = parameters + (efs > 0 ? " efs=" + efs : " efs=default")
+                            + (oversample > 0 ? " rerank=" + oversample + "x" : "");
+                    log.info("{}: recall@{}={}, p50={} ms, p99={} ms, build {} ms, db size {} bytes", setting, k,
+                            String.format(Locale.ROOT, "%.4f", recall),
+                            latencyMicros.getValueAtPercentile(50.0) / 1000.0,
+                            latencyMicros.getValueAtPercentile(99.0) / 1000.0, buildMs, dbSizeBytes);
+                    report.addRecallResult(scenarioName, setting, k, recall, latencyMicros, buildMs, dbSizeBytes);
+                }
+            }
+        }
+    }
+
+    public static List<Integer> parseEfs(String efs) {
+        return split(efs).stream().map(Integer::parseInt).toList();
+    }
+
+    public static List<Integer> parseOversample(String oversample) {
+        return split(oversample).stream().map(Integer::parseInt).toList();
+    }
+
+    /**
+     * Cartesian product of comma-separated values for each HNSW parameter.
+     */
+    public static List<HnswParameters> parseGrid(String mu, String ml, String pu, String efc, String metric) {
+        List<HnswParameters> grid = new ArrayList<>();
+        for (String m : split(metric)) {
+            for (String u : split(mu)) {
+                for (String l : split(ml)) {
+                    for (String p : split(pu)) {
+                        for (String e : split(efc)) {
+                            grid.add(new HnswParameters(Integer.parseInt(u), Integer.parseInt(l),
+                                    Double.parseDouble(p), Integer.parseInt(e), m));
+                        }
+                    }
+                }
+            }
+        }
+        return grid;
+    }
+
+    private static List<String> split(String values) {
+        List<String> parts = Arrays.stream(values.split(",")).map(String::strip).filter(s -> !s.isEmpty()).toList();
+        if (parts.isEmpty()) {
+            throw new IllegalArgumentException("Empty HNSW parameter list");
+        }
+        return parts;
+    }
+
+    private void load(List<float[]> vectors) {
+        String timestamp = Instant.now().toString();
+        for (int start = 0; start < vectors.size(); start += LOAD_BATCH_SIZE) {
+            int end = Math.min(start + LOAD_BATCH_SIZE, vectors.size());
+            List<MemoryNote> batch = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                batch.add(new MemoryNote(new MemoryNoteId(ID_PREFIX + i), "Recall benchmark vector " + i,
+                        List.of(), "vector-recall", List.of("recall"), List.of(), timestamp, 0, vectors.get(i)));
+            }
+            repository.saveAll(batch);
+        }
+    }
+
+    private List<SimilarityResult<MemoryNote>> search(float[] query, int k, VectorSearchOptions options) {
+        // no score threshold, so results are only limited by k and recall is not skewed by distant neighbours
+        return repository.findSimilar(query, k, Double.NEGATIVE_INFINITY, 0.0, options);
+    }
+
+    private static int countFound(List<SimilarityResult<MemoryNote>> results, int[] exact) {
+        int found = 0;
+        for (SimilarityResult<MemoryNote> result : results) {
+            String id = result.item().id().value();
+            if (!id.startsWith(ID_PREFIX)) {
+                continue;
+            }
+            int index = Integer.parseInt(id.substring(ID_PREFIX.length()));
+            for (int candidate : exact) {
+                if (candidate == index) {
+                    found++;
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    static int[][] exactNeighbours(VectorDataset dataset, int k, String metric) {
+        List<float[]> base = dataset.base();
+        int limit = Math.min(k, base.size());
+        return IntStream.range(0, dataset.queries().size()).parallel().mapToObj(q -> {
+            float[] query = dataset.queries().get(q);
+            double[] distances = new double[base.size()];
+            // max-heap of the closest candidates seen so far, the farthest on top
+            PriorityQueue<Integer> closest = new PriorityQueue<>(limit + 1,
+                    (a, b) -> Double.compare(distances[b], distances[a]));
+            for (int i = 0; i < base.size(); i++) {
+                distances[i] = distance(metric, query, base.get(i));
+                if (closest.size() < limit) {
+                    closest.add(i);
+                } else if (distances[i] < distances[closest.peek()]) {
+                    closest.poll();
+                    closest.add(i);
+                }
+            }
+            return closest.stream().mapToInt(Integer::intValue).toArray();
+        }).toArray(int[][]::new);
+    }
+
+    static double distance(String metric, float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        double squared = 0;
+        for (int d = 0; d < a.length; d++) {
+            dot += a[d] * b[d];
+            normA += a[d] * a[d];
+            normB += b[d] * b[d];
+            double diff = a[d] - b[d];
+            squared += diff * diff;
+        }
+        return switch (metric.toLowerCase(Locale.ROOT)) {
+            case "cosine" -> 1.0 - dot / Math.sqrt(normA * normB);
+            case "l2", "euclidean" -> Math.sqrt(squared);
+            case "l2sq" -> squared;
+            case "dotproduct", "dot_product" -> -dot;
+            default -> throw new IllegalArgumentException("Unsupported metric for ground truth: " + metric);
+        };
+    }
+
+    private long databaseSize() {
+        if (dataPath == null || dataPath.isBlank()) {
+            return -1;
+        }
+        try (Connection conn = new Connection(database); QueryResult result = conn.query("CHECKPOINT")) {
+            if (!result.isSuccess()) {
+                log.debug("CHECKPOINT failed: {}", result.getErrorMessage());
+            }
+        } catch (RuntimeException e) {
+            log.debug("CHECKPOINT failed", e);
+        }
+        Path path = Path.of(dataPath);
+        try (Stream<Path> files = Files.walk(path)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> {
+                try {
+                    return Files.size(file);
+                } catch (IOException e) {
+                    return 0;
+                }
+            }).sum();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to measure database size at " + path, e);
+        }
+    }
+}
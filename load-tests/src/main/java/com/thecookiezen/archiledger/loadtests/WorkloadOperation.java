@@ -0,0 +1,19 @@
+package com.thecookiezen.archiledger.loadtests;
+
+import java.util.Locale;
+
+public enum WorkloadOperation {
+    CREATE_NOTES,
+    GET_NOTE,
+    SIMILARITY_SEARCH,
+    GET_NOTES_UPWARD,
+    ADD_LINK;
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static WorkloadOperation fromKey(String key) {
+        return valueOf(key.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
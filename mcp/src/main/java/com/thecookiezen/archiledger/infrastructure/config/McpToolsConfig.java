@@ -1,18 +1,24 @@
 package com.thecookiezen.archiledger.infrastructure.config;
 
+import com.thecookiezen.archiledger.infrastructure.mcp.McpAdminToolAdapter;
 import com.thecookiezen.archiledger.infrastructure.mcp.McpToolAdapter;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.support.ToolCallbacks;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Configuration
 public class McpToolsConfig {
 
     @Bean
-    public List<ToolCallback> mcpTools(McpToolAdapter mcpToolAdapter) {
-        return List.of(ToolCallbacks.from(mcpToolAdapter));
+    public List<ToolCallback> mcpTools(McpToolAdapter mcpToolAdapter, ObjectProvider<McpAdminToolAdapter> mcpAdminToolAdapter) {
+        List<Object> toolObjects = new ArrayList<>();
+        toolObjects.add(mcpToolAdapter);
+        mcpAdminToolAdapter.ifAvailable(toolObjects::add);
+        return List.of(ToolCallbacks.from(toolObjects.toArray()));
     }
 }
@@ -0,0 +1,29 @@
+package com.thecookiezen.archiledger.infrastructure.mcp;
+
+import com.thecookiezen.archiledger.infrastructure.embeddings.LadybugVectorExtensionInitializer;
+
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "archiledger.admin-tools.enabled", havingValue = "true")
+public class McpAdminToolAdapter {
+
+        private final LadybugVectorExtensionInitializer vectorIndex;
+
+        public McpAdminToolAdapter(LadybugVectorExtensionInitializer vectorIndex) {
+                this.vectorIndex = vectorIndex;
+        }
+
+        @Tool(name = "rebuild_vector_index", description = "Admin: rebuild the HNSW vector index in the background with the configured parameters. Searches keep using the current index until the new one is ready. Returns the index status; 'rebuilding' stays true until the switch-over.")
+        public LadybugVectorExtensionInitializer.IndexStatus rebuildVectorIndex() {
+                vectorIndex.rebuildIndexAsync();
+                return vectorIndex.status();
+        }
+
+        @Tool(name = "get_vector_index_status", description = "Admin: show the active HNSW vector index, its build parameters, whether a rebuild is running, and how many embeddings changed since it was built.")
+        public LadybugVectorExtensionInitializer.IndexStatus getVectorIndexStatus() {
+                return vectorIndex.status();
+        }
+}
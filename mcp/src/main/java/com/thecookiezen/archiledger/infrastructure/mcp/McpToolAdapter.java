@@ -4,13 +4,17 @@ import com.thecookiezen.archiledger.application.service.MemoryNoteService;
 import com.thecookiezen.archiledger.domain.model.LinkDefinition;
 import com.thecookiezen.archiledger.domain.model.MemoryNote;
 import com.thecookiezen.archiledger.domain.model.MemoryNoteId;
+import com.thecookiezen.archiledger.domain.model.NoteFilter;
 import com.thecookiezen.archiledger.domain.model.SimilarityResult;
+import com.thecookiezen.archiledger.domain.model.VectorSearchOptions;
 import com.thecookiezen.archiledger.infrastructure.mcp.dto.MemoryNoteDto;
 import com.thecookiezen.archiledger.infrastructure.mcp.dto.NoteLinkDto;
 import com.thecookiezen.archiledger.infrastructure.mcp.dto.NoteLinksDto;
+import com.thecookiezen.archiledger.infrastructure.mcp.dto.NotePatchDto;
 
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -22,9 +26,21 @@ import java.util.stream.Collectors;
 public class McpToolAdapter {
 
         private final MemoryNoteService memoryNoteService;
-
-        public McpToolAdapter(MemoryNoteService memoryNoteService) {
+        private final int searchTopK;
+        private final double searchThreshold;
+        private final double searchTemperature;
+
+        public McpToolAdapter(MemoryNoteService memoryNoteService,
+                        @Value("${ladybugdb.search.top-k:10}") int searchTopK,
+                        @Value("${ladybugdb.search.threshold:0.0}") double searchThreshold,
+                        @Value("${ladybugdb.search.temperature:0.0}") double searchTemperature) {
+                if (searchTopK <= 0) {
+                        throw new IllegalArgumentException("Search top-k must be positive: " + searchTopK);
+                }
                 this.memoryNoteService = memoryNoteService;
+                this.searchTopK = searchTopK;
+                this.searchThreshold = searchThreshold;
+                this.searchTemperature = searchTemperature;
         }
 
         @Tool(name = "create_notes", description = "Create one or more memory notes. Each note is an atomic unit of knowledge with content, keywords, tags, and optional links to other notes.")
@@ -36,6 +52,15 @@ public class McpToolAdapter {
                                 .collect(Collectors.toList());
         }
 
+        @Tool(name = "patch_notes", description = "Update the keywords, context or tags of existing memory notes without touching their content, links or embeddings. Omitted fields keep their current value. Returns the IDs of the notes that were updated.")
+        public List<String> patchNotes(
+                        @ToolParam(description = "List of patches, each with a note ID and the keywords, context or tags to replace") List<NotePatchDto> patches) {
+                return memoryNoteService.patchNotes(
+                                patches.stream().map(NotePatchDto::toDomain).toList()).stream()
+                                .map(MemoryNoteId::value)
+                                .collect(Collectors.toList());
+        }
+
         @Tool(name = "add_links", description = "Add typed links between existing memory notes. Links represent connections with a relation type (e.g., 'DEPENDS_ON', 'RELATED_TO', 'CONTRADICTS') and context explaining why the link exists.")
         public void addLinks(
                         @ToolParam(description = "List of links to create, each with source note ID, target note ID, relation type, and context") List<NoteLinksDto> links) {
@@ -95,8 +120,35 @@ public class McpToolAdapter {
 
         @Tool(name = "search_notes", description = "Perform a semantic similarity search across all memory notes. Returns the most relevant notes based on vector embeddings of their content.")
         public List<SimilarityResult<MemoryNote>> searchNotes(
-                        @ToolParam(description = "Natural language query to search for similar notes") String query) {
-                return memoryNoteService.similaritySearch(query);
+                        @ToolParam(description = "Natural language query to search for similar notes") String query,
+                        @ToolParam(description = "Maximum number of notes to return. Omit to use the server default.", required = false) Integer topK,
+                        @ToolParam(description = "Minimum score of a returned note. Omit to use the server default.", required = false) Double threshold,
+                        @ToolParam(description = "Temperature applied to the scores; 0 keeps the raw similarity. Omit to use the server default.", required = false) Double temperature,
+                        @ToolParam(description = "Search effort (HNSW efs): how many candidates the index explores. Higher finds more of the true nearest notes but is slower. Omit to use the server default.", required = false) Integer efs,
+                        @ToolParam(description = "Re-rank index candidates by exact distance to their stored embeddings. Gives near-exact results at a low search effort. Omit to use the server default.", required = false) Boolean rerank,
+                        @ToolParam(description = "Candidates fetched per result when re-ranking. Omit to use the server default.", required = false) Integer oversample,
+                        @ToolParam(description = "Only return notes carrying at least one of these tags", required = false) List<String> anyTags,
+                        @ToolParam(description = "Only return notes carrying all of these tags", required = false) List<String> allTags,
+                        @ToolParam(description = "Only return notes with a timestamp at or after this ISO-8601 instant (e.g. 2026-01-01T00:00:00Z)", required = false) String from,
+                        @ToolParam(description = "Only return notes with a timestamp at or before this ISO-8601 instant", required = false) String to,
+                        @ToolParam(description = "Only return notes retrieved at least this many times", required = false) Integer minRetrievalCount,
+                        @ToolParam(description = "Only return notes linked to or from this note ID", required = false) String linkedTo,
+                        @ToolParam(description = "Keep asking the index for more candidates until enough results clear the threshold. Omit to use the server default.", required = false) Boolean adaptive) {
+                NoteFilter filter = new NoteFilter(anyTags, allTags, from, to, minRetrievalCount,
+                                linkedTo != null && !linkedTo.isBlank() ? new MemoryNoteId(linkedTo) : null);
+                return memoryNoteService.similaritySearch(query,
+                                topK != null && topK > 0 ? topK : searchTopK,
+                                threshold != null ? threshold : searchThreshold,
+                                temperature != null ? temperature : searchTemperature,
+                                new VectorSearchOptions(efs != null ? efs : 0, rerank, oversample != null ? oversample : 0,
+                                                filter, adaptive));
+        }
+
+        @Tool(name = "hybrid_search_notes", description = "Search memory notes by keywords and by meaning at once. Combines a full-text BM25 search over content, keywords and context with a semantic similarity search. Prefer it over search_notes for identifiers, error codes and class names.")
+        public List<SimilarityResult<MemoryNote>> hybridSearchNotes(
+                        @ToolParam(description = "Query to search for: keywords, identifiers or natural language") String query,
+                        @ToolParam(description = "Maximum number of notes to return. Omit to use the server default.", required = false) Integer topK) {
+                return memoryNoteService.hybridSearch(query, topK != null && topK > 0 ? topK : searchTopK);
         }
 
         @Tool(name = "delete_notes", description = "Delete one or more memory notes by their IDs. Also removes associated links and embeddings.")
@@ -0,0 +1,17 @@
+package com.thecookiezen.archiledger.infrastructure.mcp.dto;
+
+import com.thecookiezen.archiledger.domain.model.NotePatch;
+
+import java.util.List;
+
+public record NotePatchDto(String id, List<String> keywords, String context, List<String> tags) {
+    public NotePatchDto {
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("NotePatch id cannot be null or blank");
+        }
+    }
+
+    public NotePatch toDomain() {
+        return new NotePatch(id, keywords, context, tags);
+    }
+}
@@ -12,32 +12,98 @@ if [ ! -f "$JAR_FILE" ]; then
     exit 1
 fi
 
+# Machine-readable reports land in REPORT_DIR. Set BASELINE_DIR to a directory holding reports from an earlier
+# run to fail the script when any metric regresses by more than TOLERANCE (fraction of the baseline value).
+REPORT_DIR=${REPORT_DIR:-load-tests/target/reports}
+BASELINE_DIR=${BASELINE_DIR:-}
+TOLERANCE=${TOLERANCE:-0.10}
+# transformers (ONNX, default) or hashing (no model download, isolates database cost)
+EMBEDDING_MODEL=${EMBEDDING_MODEL:-transformers}
+FAILED=0
+mkdir -p "$REPORT_DIR"
+
+report_args() {
+    local REPORT_NAME=$1
+    echo "--loadtest.report.json-path=$REPORT_DIR/$REPORT_NAME.json --loadtest.report.csv-path=$REPORT_DIR/$REPORT_NAME.csv"
+    if [ -n "$BASELINE_DIR" ]; then
+        echo "--loadtest.compare.baseline-path=$BASELINE_DIR/$REPORT_NAME.json --loadtest.compare.tolerance=$TOLERANCE"
+    fi
+}
+
 run_scenario() {
     local SCENARIO_NAME=$1
     local ENTITIES=$2
     local RELATIONS=$3
     local HEAP=$4
+    local WRITE_MODE=${5:-bulk}
     
     echo "===================================================================================================="
-    echo "Running Scenario: $SCENARIO_NAME | Entities: $ENTITIES | Relations: $RELATIONS | Heap: $HEAP"
+    echo "Running Scenario: $SCENARIO_NAME | Entities: $ENTITIES | Relations: $RELATIONS | Heap: $HEAP | Write mode: $WRITE_MODE"
     echo "===================================================================================================="
     
     java -Xmx$HEAP -jar "$JAR_FILE" \
     --logging.level.root=ERROR \
     --logging.level.com.thecookiezen.archiledger.loadtests=INFO \
     --spring.profiles.active=ladybugdb \
-    --ladybugdb.data-path=/tmp/$SCENARIO_NAME \
+    --spring.ai.model.embedding=$EMBEDDING_MODEL \
+    --ladybugdb.data-path=/tmp/$SCENARIO_NAME-$WRITE_MODE \
     --loadtest.scenario.name="$SCENARIO_NAME" \
     --loadtest.note-count=$ENTITIES \
     --loadtest.links-per-note=$RELATIONS \
-    --loadtest.batch-size=25 || { status=$?; echo "Scenario $SCENARIO_NAME FAILED with exit code $status"; }
+    --loadtest.batch-size=25 \
+    --loadtest.write-mode=$WRITE_MODE \
+    $(report_args "$SCENARIO_NAME-$WRITE_MODE") || { status=$?; FAILED=1; echo "Scenario $SCENARIO_NAME FAILED with exit code $status"; }
     
     echo ""
 }
 
+run_mixed_scenario() {
+    local SCENARIO_NAME=$1
+    local SEED_NOTES=$2
+    local THREADS=$3
+    local THREAD_TYPE=$4
+    local DURATION=$5
+    local TARGET_RATE=$6
+    local HEAP=$7
+
+    echo "===================================================================================================="
+    echo "Running Mixed Scenario: $SCENARIO_NAME | Seed notes: $SEED_NOTES | Threads: $THREADS ($THREAD_TYPE) | Duration: ${DURATION}s | Target rate: $TARGET_RATE | Heap: $HEAP"
+    echo "===================================================================================================="
+
+    java -Xmx$HEAP -jar "$JAR_FILE" \
+    --logging.level.root=ERROR \
+    --logging.level.com.thecookiezen.archiledger.loadtests=INFO \
+    --spring.profiles.active=ladybugdb \
+    --spring.ai.model.embedding=$EMBEDDING_MODEL \
+    --ladybugdb.data-path=/tmp/$SCENARIO_NAME-mixed \
+    --loadtest.scenario.name="$SCENARIO_NAME" \
+    --loadtest.note-count=$SEED_NOTES \
+    --loadtest.links-per-note=3 \
+    --loadtest.batch-size=25 \
+    --loadtest.mode=mixed \
+    --loadtest.mixed.threads=$THREADS \
+    --loadtest.mixed.thread-type=$THREAD_TYPE \
+    --loadtest.mixed.duration-seconds=$DURATION \
+    --loadtest.mixed.warmup-seconds=$((DURATION / 5)) \
+    --loadtest.mixed.target-rate=$TARGET_RATE \
+    $(report_args "$SCENARIO_NAME-mixed") || { status=$?; FAILED=1; echo "Scenario $SCENARIO_NAME FAILED with exit code $status"; }
+
+    echo ""
+}
+
 # Run Scenarios
 
-run_scenario "Functional" 100 5 "512m"
+run_scenario "Functional" 100 5 "512m" single
+run_scenario "Functional" 100 5 "512m" bulk
+
+run_mixed_scenario "Mixed" 200 8 virtual 20 0 "512m"
+
+# run_mixed_scenario "Mixed-Open" 1000 32 virtual 60 200 "1g"
+
+# HNSW parameter sweep (recall@k, latency, build time and size per setting), see LOAD_TESTING.md
+# java -Xmx2g -jar "$JAR_FILE" --logging.level.root=ERROR --logging.level.com.thecookiezen.archiledger.loadtests=INFO \
+#     --ladybugdb.data-path=/tmp/Recall --loadtest.scenario.name=Recall --loadtest.mode=recall \
+#     --loadtest.recall.efc=100,200,400 $(report_args "Recall")
 
 # run_scenario "Small" 1000 10 "512m"
 
@@ -45,4 +111,5 @@ run_scenario "Functional" 100 5 "512m"
 
 # run_scenario "Large" 100000 30 "1g"
 
-echo "All tests completed."
+echo "All tests completed. Reports written to $REPORT_DIR"
+exit $FAILED